@@ -0,0 +1,70 @@
+package net.SPIS.backend.benchmark;
+
+import net.SPIS.backend.DTO.SPDTO;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * Deterministic generated data shared by the benchmarks.
+ */
+public final class BenchmarkData {
+
+    private static final String[] WORDS = { "adaptive", "network", "learning", "mobile", "system", "analysis",
+            "student", "information", "secure", "cloud", "model", "detection", "web", "framework", "data",
+            "visualization", "agent", "optimization", "sensor", "retrieval" };
+
+    private BenchmarkData() {
+    }
+
+    public static List<SPDTO> sps(int count, int uploaderId, List<Integer> adviserIds, List<Integer> groupIds,
+            List<Integer> tagIds) {
+        Random random = new Random(42);
+        List<SPDTO> sps = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Set<Integer> tags = new LinkedHashSet<>();
+            for (int t = 0; t < 3 && !tagIds.isEmpty(); t++) {
+                tags.add(tagIds.get(random.nextInt(tagIds.size())));
+            }
+            SPDTO sp = new SPDTO();
+            sp.setSpId(i + 1);
+            sp.setTitle(words(random, 8));
+            sp.setYear(2010 + random.nextInt(15));
+            sp.setSemester(random.nextBoolean() ? "1st" : "2nd");
+            sp.setAbstractText(words(random, 150));
+            sp.setUri("https://example.edu/sp/" + i);
+            sp.setDocumentPath("/api/uploads/documents/sp-" + i + ".pdf");
+            sp.setDateIssued(LocalDate.of(2010, 1, 1).plusDays(random.nextInt(5000)));
+            sp.setUploadedById(uploaderId);
+            sp.setGroupId(groupIds.get(random.nextInt(groupIds.size())));
+            sp.setAdviserId(adviserIds.get(random.nextInt(adviserIds.size())));
+            sp.setTagIds(tags);
+            sp.setViewCount(random.nextInt(1000));
+            sps.add(sp);
+        }
+        return sps;
+    }
+
+    public static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            if (i > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return text.toString();
+    }
+
+    public static List<Integer> range(int from, int count) {
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(from + i);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,59 @@
+package net.SPIS.backend.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import net.SPIS.backend.DTO.SPDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing a List<SPDTO> response body with the ObjectMapper settings
+ * Spring MVC uses.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SPJsonSerializationBenchmark {
+
+    @Param({ "1000", "10000", "100000" })
+    private int size;
+
+    private List<SPDTO> sps;
+    private ObjectWriter writer;
+
+    @Setup
+    public void setUp() {
+        sps = BenchmarkData.sps(size, 1, BenchmarkData.range(2, 20), BenchmarkData.range(1, 50),
+                BenchmarkData.range(1, 30));
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        writer = objectMapper.writerFor(objectMapper.getTypeFactory().constructCollectionType(List.class, SPDTO.class));
+    }
+
+    @Benchmark
+    public void writeToStream() throws IOException {
+        writer.writeValue(OutputStream.nullOutputStream(), sps);
+    }
+
+    @Benchmark
+    public byte[] writeToBytes() throws IOException {
+        return writer.writeValueAsBytes(sps);
+    }
+}
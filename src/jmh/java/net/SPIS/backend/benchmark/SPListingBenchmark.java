@@ -0,0 +1,117 @@
+package net.SPIS.backend.benchmark;
+
+import net.SPIS.backend.BackendApplication;
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.SPPageDTO;
+import net.SPIS.backend.repositories.SPBulkWriter;
+import net.SPIS.backend.repositories.SPRepository;
+import net.SPIS.backend.repositories.SPRow;
+import net.SPIS.backend.service.SPService;
+import net.SPIS.backend.serviceImpl.TagPostingsIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SP listing paths end to end (repository query, tag id batch and DTO
+ * mapping) against the in-memory H2 database of the test profile, filled with
+ * generated SPs.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SPListingBenchmark {
+
+    private static final int ADVISERS = 20;
+    private static final int GROUPS = 200;
+    private static final int TAGS = 30;
+
+    @Param({ "1000", "10000" })
+    private int spCount;
+
+    private ConfigurableApplicationContext context;
+    private SPService spService;
+    private SPRepository spRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(BackendApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .properties("spis.cache.enabled=false", "logging.level.root=WARN")
+                .run();
+        spService = context.getBean(SPService.class);
+        spRepository = context.getBean(SPRepository.class);
+        seed(context.getBean(JdbcTemplate.class));
+        context.getBean(TagPostingsIndex.class).rebuild();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<SPRow> findAllRows() {
+        return spRepository.findAllRows();
+    }
+
+    @Benchmark
+    public List<SPDTO> getAllSP() {
+        return spService.getAllSP();
+    }
+
+    @Benchmark
+    public List<SPDTO> getSPFromAdviser() {
+        return spService.getSPFromAdviser(2);
+    }
+
+    @Benchmark
+    public List<SPDTO> getSPsWithTags() {
+        return spService.getSPsWithTags(List.of(1));
+    }
+
+    @Benchmark
+    public SPPageDTO getAllSPFirstPageByDate() {
+        return spService.getAllSP(null, 50, "dateIssued");
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO faculty (faculty_id, faculty_name) VALUES (1, 'Computer Science')");
+        jdbcTemplate.update("INSERT INTO admin (admin_id, first_name, last_name, role, faculty_id) "
+                + "VALUES (1, 'Staff', 'Member', 'staff', 1)");
+        for (int i = 0; i < ADVISERS; i++) {
+            jdbcTemplate.update("INSERT INTO admin (admin_id, first_name, last_name, role, faculty_id) "
+                    + "VALUES (?, 'Adviser', ?, 'faculty', 1)", i + 2, String.valueOf(i));
+        }
+        for (int i = 1; i <= GROUPS; i++) {
+            jdbcTemplate.update("INSERT INTO groups (group_id, group_name) VALUES (?, ?)", i, "Group " + i);
+        }
+        for (int i = 1; i <= TAGS; i++) {
+            jdbcTemplate.update("INSERT INTO tag (tag_id, tag_name) VALUES (?, ?)", i, "Tag " + i);
+        }
+        List<SPDTO> sps = BenchmarkData.sps(spCount, 1, BenchmarkData.range(2, ADVISERS),
+                BenchmarkData.range(1, GROUPS), BenchmarkData.range(1, TAGS));
+        context.getBean(SPBulkWriter.class).insert(sps);
+    }
+}
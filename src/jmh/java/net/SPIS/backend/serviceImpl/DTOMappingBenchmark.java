@@ -0,0 +1,157 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.AdviserDTO;
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.StudentDTO;
+import net.SPIS.backend.benchmark.BenchmarkData;
+import net.SPIS.backend.entities.Admin;
+import net.SPIS.backend.entities.Faculty;
+import net.SPIS.backend.entities.Groups;
+import net.SPIS.backend.entities.SP;
+import net.SPIS.backend.entities.Student;
+import net.SPIS.backend.entities.Tag;
+import net.SPIS.backend.repositories.SPRow;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-object cost of the entity/row to DTO mappers used by every listing.
+ * Lives in the serviceImpl package to reach the package-private toDTO methods.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DTOMappingBenchmark {
+
+    private static final int TAG_COUNT = 3;
+
+    private SPServiceImpl spService;
+    private AdviserServiceImpl adviserService;
+    private StudentServiceImpl studentService;
+
+    private SP sp;
+    private SPRow row;
+    private Set<Integer> rowTagIds;
+    private List<SPRow> rows;
+    private List<Object[]> tagIdPairs;
+    private Admin adviser;
+    private Student student;
+
+    @Setup
+    public void setUp() {
+        spService = new SPServiceImpl();
+        // Nothing is flushed during the benchmark, so the buffer needs no database.
+        ReflectionTestUtils.setField(spService, "viewCountBuffer", new ViewCountBuffer(null, null,
+                new ViewLeaderboard(null, 100)));
+        adviserService = new AdviserServiceImpl();
+        studentService = new StudentServiceImpl();
+
+        Faculty faculty = new Faculty();
+        faculty.setFacultyId(1);
+        faculty.setFacultyName("Computer Science");
+        adviser = new Admin();
+        adviser.setAdminId(2);
+        adviser.setFirstName("Ada");
+        adviser.setLastName("Lovelace");
+        adviser.setRole("faculty");
+        adviser.setEmail("ada@example.edu");
+        adviser.setImagePath("/api/uploads/images/ada.jpg");
+        adviser.setDescription(BenchmarkData.words(new Random(1), 60));
+        adviser.setFaculty(faculty);
+        Admin staff = new Admin();
+        staff.setAdminId(1);
+        staff.setRole("staff");
+        Groups group = new Groups();
+        group.setGroupId(1);
+        student = new Student();
+        student.setStudentId(1);
+        student.setFirstName("Grace");
+        student.setLastName("Hopper");
+        student.setFaculty(faculty);
+        student.setGroup(group);
+
+        SPDTO source = BenchmarkData.sps(1, 1, List.of(2), List.of(1), BenchmarkData.range(1, 30)).get(0);
+        Set<Tag> tags = new HashSet<>();
+        for (Integer tagId : source.getTagIds()) {
+            Tag tag = new Tag();
+            tag.setTagId(tagId);
+            tags.add(tag);
+        }
+        sp = new SP();
+        sp.setSpId(source.getSpId());
+        sp.setTitle(source.getTitle());
+        sp.setYear(source.getYear());
+        sp.setSemester(source.getSemester());
+        sp.setAbstractText(source.getAbstractText());
+        sp.setUri(source.getUri());
+        sp.setDocumentPath(source.getDocumentPath());
+        sp.setDateIssued(source.getDateIssued());
+        sp.setUploadedBy(staff);
+        sp.setGroup(group);
+        sp.setAdviser(adviser);
+        sp.setTags(tags);
+        sp.setViewCount(source.getViewCount());
+
+        row = row(source);
+        rowTagIds = source.getTagIds();
+
+        rows = new ArrayList<>();
+        tagIdPairs = new ArrayList<>();
+        for (SPDTO dto : BenchmarkData.sps(1000, 1, List.of(2), List.of(1), BenchmarkData.range(1, 30))) {
+            rows.add(row(dto));
+            dto.getTagIds().forEach(tagId -> tagIdPairs.add(new Object[] { dto.getSpId(), tagId }));
+        }
+    }
+
+    @Benchmark
+    public SPDTO spFromEntity() {
+        return spService.toDTO(sp);
+    }
+
+    @Benchmark
+    public SPDTO spFromRow() {
+        return spService.toDTO(row, rowTagIds);
+    }
+
+    // 1000 listing rows joined with their tag id pairs, as done for every list endpoint
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MICROSECONDS)
+    public List<SPDTO> spListingOf1000Rows() {
+        return spService.toDTOs(rows, tagIdPairs);
+    }
+
+    @Benchmark
+    public AdviserDTO adviser() {
+        return adviserService.toDTO(adviser);
+    }
+
+    @Benchmark
+    public StudentDTO student() {
+        return studentService.toDTO(student);
+    }
+
+    private static SPRow row(SPDTO dto) {
+        return new SPRow(dto.getSpId(), dto.getTitle(), dto.getYear(), dto.getSemester(), dto.getAbstractText(),
+                dto.getUri(), dto.getDocumentPath(), dto.getDateIssued(), dto.getUploadedById(), dto.getGroupId(),
+                dto.getAdviserId(), dto.getViewCount());
+    }
+}
@@ -0,0 +1,18 @@
+package net.SPIS.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Outcome of re-extracting the text of every SP document
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DocumentReindexResultDTO {
+    private int documents;
+    private int extracted;
+    private int failed;
+    private long pages;
+    private long bytes; // PDF bytes read
+    private long elapsedMillis;
+}
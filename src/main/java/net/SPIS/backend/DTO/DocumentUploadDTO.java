@@ -0,0 +1,17 @@
+package net.SPIS.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// State of a resumable document upload; documentPath is set once all
+// length bytes have been received
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class DocumentUploadDTO {
+    private String uploadId;
+    private long length;
+    private long offset;
+    private String documentPath;
+}
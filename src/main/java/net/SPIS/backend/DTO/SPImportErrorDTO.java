@@ -0,0 +1,13 @@
+package net.SPIS.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SPImportErrorDTO {
+    private int row; // 1-based position in the submitted array or CSV data rows
+    private String error;
+}
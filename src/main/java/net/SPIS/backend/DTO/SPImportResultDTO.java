@@ -0,0 +1,17 @@
+package net.SPIS.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SPImportResultDTO {
+    private int received;
+    private int imported;
+    private List<SPDTO> created;
+    private List<SPImportErrorDTO> errors; // rows that were skipped, the rest are imported
+}
@@ -0,0 +1,15 @@
+package net.SPIS.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SPPageDTO {
+    private List<SPDTO> items;
+    private String nextCursor; // null on the last page
+}
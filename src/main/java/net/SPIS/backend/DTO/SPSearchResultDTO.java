@@ -0,0 +1,18 @@
+package net.SPIS.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SPSearchResultDTO {
+    private String query;
+    private int total; // number of matching SPs across all pages
+    private int page;
+    private int size;
+    private List<SPDTO> items; // ordered by relevance
+}
@@ -0,0 +1,27 @@
+package net.SPIS.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+// SPDTO without abstractText, for listings that only show titles and metadata
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SPSummaryDTO {
+    private Integer spId;
+    private String title;
+    private Integer year;
+    private String semester;
+    private String uri;
+    private String documentPath;
+    private LocalDate dateIssued;
+    private Integer uploadedById;
+    private Integer groupId;
+    private Integer adviserId;
+    private Set<Integer> tagIds;
+    private Integer viewCount;
+}
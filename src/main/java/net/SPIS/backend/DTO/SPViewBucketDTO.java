@@ -0,0 +1,15 @@
+package net.SPIS.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SPViewBucketDTO {
+    private Instant bucketStart; // start of the hour or day (UTC)
+    private long views;
+}
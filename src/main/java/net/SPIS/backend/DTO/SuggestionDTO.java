@@ -0,0 +1,15 @@
+package net.SPIS.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// One autocomplete suggestion; type is sp, adviser, student or tag
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class SuggestionDTO {
+    private String type;
+    private Integer id;
+    private String text;
+}
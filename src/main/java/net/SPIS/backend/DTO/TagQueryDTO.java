@@ -0,0 +1,22 @@
+package net.SPIS.backend.DTO;
+
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Tag expression for {@code GET /api/sp/tags/query}: SPs carrying every tag in
+ * {@code all}, at least one tag in {@code any} and none of the tags in
+ * {@code none}, optionally restricted by year, semester and adviser.
+ */
+@Data
+public class TagQueryDTO {
+    private List<Integer> all;
+    private List<Integer> any;
+    private List<Integer> none;
+    private Integer year;
+    private String semester;
+    private Integer adviserId;
+    private int page = 0;
+    private int size = 20;
+}
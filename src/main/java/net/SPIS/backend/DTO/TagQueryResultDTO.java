@@ -0,0 +1,19 @@
+package net.SPIS.backend.DTO;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class TagQueryResultDTO {
+    private int total; // number of matching SPs across all pages
+    private int page;
+    private int size;
+    private List<SPDTO> items; // ordered by spId
+    private Map<Integer, Integer> tagCounts; // tagId -> matching SPs carrying the tag
+}
@@ -0,0 +1,23 @@
+package net.SPIS.backend.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Enables the {@code @Cacheable} reference-data caches. The cache manager
+ * itself is configured through the {@code spring.cache.*} properties; with
+ * {@code spis.cache.enabled=false} caching is not enabled and every call goes
+ * to the database.
+ *
+ * The caching advice is ordered outside the transaction advice, which keeps
+ * its default lowest precedence: on a {@code @Transactional} method,
+ * {@code @CacheEvict} then runs after the commit, so a read in between cannot
+ * put the old value back.
+ */
+@Configuration
+@EnableCaching(order = Ordered.LOWEST_PRECEDENCE - 1)
+@ConditionalOnProperty(name = "spis.cache.enabled", havingValue = "true", matchIfMissing = true)
+public class CacheConfig {
+}
@@ -0,0 +1,34 @@
+package net.SPIS.backend.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a
+ * request is being measured by {@link RequestMetricsFilter}.
+ */
+public class JdbcStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<int[]> COUNT = new ThreadLocal<>();
+
+    static void start() {
+        COUNT.set(new int[1]);
+    }
+
+    /**
+     * Stops counting on this thread and returns the number of statements seen.
+     */
+    static int stop() {
+        int[] count = COUNT.get();
+        COUNT.remove();
+        return count != null ? count[0] : 0;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        int[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+}
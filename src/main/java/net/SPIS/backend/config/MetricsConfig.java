@@ -0,0 +1,37 @@
+package net.SPIS.backend.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Request-level instrumentation for the API controllers. Endpoint latency
+ * and repository invocation timers come from Spring Boot's Micrometer
+ * auto-configuration (percentiles are set in application.properties); this
+ * adds JDBC statements per request and the slow-request log.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcStatementCounter() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new JdbcStatementCounter());
+    }
+
+    @Bean
+    public FilterRegistrationBean<RequestMetricsFilter> requestMetricsFilter(MeterRegistry meterRegistry,
+            @Value("${spis.metrics.slow-request-threshold:500ms}") Duration slowRequestThreshold) {
+        FilterRegistrationBean<RequestMetricsFilter> registration = new FilterRegistrationBean<>(
+                new RequestMetricsFilter(meterRegistry, slowRequestThreshold));
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 10);
+        return registration;
+    }
+}
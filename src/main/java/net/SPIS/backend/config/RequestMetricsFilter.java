@@ -0,0 +1,71 @@
+package net.SPIS.backend.config;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the number of JDBC statements each API request executes as the
+ * {@code spis.http.jdbc.statements} summary, and logs a slow-request record
+ * when a request takes longer than the configured threshold. Latency itself
+ * is recorded by Spring's {@code http.server.requests} timer.
+ */
+public class RequestMetricsFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RequestMetricsFilter.class);
+
+    private final MeterRegistry meterRegistry;
+
+    private final long slowRequestNanos;
+
+    public RequestMetricsFilter(MeterRegistry meterRegistry, Duration slowRequestThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.slowRequestNanos = slowRequestThreshold.toNanos();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = System.nanoTime();
+        JdbcStatementCounter.start();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            int statements = JdbcStatementCounter.stop();
+            long elapsed = System.nanoTime() - start;
+            // Same uri tag as http.server.requests; unmatched paths share one tag value.
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+
+            DistributionSummary.builder("spis.http.jdbc.statements")
+                    .description("JDBC statements executed per request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(statements);
+
+            if (elapsed >= slowRequestNanos) {
+                log.atWarn()
+                        .addKeyValue("method", request.getMethod())
+                        .addKeyValue("uri", uri)
+                        .addKeyValue("path", request.getRequestURI())
+                        .addKeyValue("status", response.getStatus())
+                        .addKeyValue("durationMs", TimeUnit.NANOSECONDS.toMillis(elapsed))
+                        .addKeyValue("jdbcStatements", statements)
+                        .log("Slow request");
+            }
+        }
+    }
+}
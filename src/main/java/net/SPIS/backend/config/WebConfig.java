@@ -0,0 +1,35 @@
+package net.SPIS.backend.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * API reads may be stored by browsers and the reverse proxy but must be
+     * revalidated on every use; the ETags make that a cheap 304. The body
+     * depends on Accept (JSON, CBOR or Smile), so caches must key on it too.
+     * Uploaded files set their own long-lived Cache-Control.
+     */
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        String noCache = CacheControl.noCache().getHeaderValue();
+        registry.addInterceptor(new HandlerInterceptor() {
+            @Override
+            public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+                if ("GET".equals(request.getMethod())) {
+                    response.setHeader(HttpHeaders.CACHE_CONTROL, noCache);
+                    response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+                }
+                return true;
+            }
+        }).addPathPatterns("/api/**").excludePathPatterns("/api/uploads/**", "/api/sp/*/document");
+    }
+}
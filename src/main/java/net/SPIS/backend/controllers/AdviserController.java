@@ -4,6 +4,7 @@ import net.SPIS.backend.DTO.AdviserDTO;
 import net.SPIS.backend.service.AdviserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 import java.util.Map;
@@ -17,26 +18,40 @@ public class AdviserController {
 
     @GetMapping("/faculty/{facultyId}")
     @CrossOrigin(origins = "http://localhost:3000")
-    public List<AdviserDTO> getAllAdvisersFromFaculty(@PathVariable Integer facultyId) {
+    public List<AdviserDTO> getAllAdvisersFromFaculty(@PathVariable Integer facultyId, WebRequest request) {
+        if (request.checkNotModified(adviserService.getAdviserListETag())) {
+            return null;
+        }
         return adviserService.getAllAdvisersFromFaculty(facultyId);
     }
 
     @GetMapping
     @CrossOrigin(origins = "http://localhost:3000")
-    public List<AdviserDTO> getAllAdvisers() {
+    public List<AdviserDTO> getAllAdvisers(WebRequest request) {
+        if (request.checkNotModified(adviserService.getAdviserListETag())) {
+            return null;
+        }
         return adviserService.getAllAdvisers();
     }
 
     @GetMapping("/{adviserId}")
     @CrossOrigin(origins = "http://localhost:3000")
-    public AdviserDTO getAdviser(@PathVariable Integer adviserId) {
+    public AdviserDTO getAdviser(@PathVariable Integer adviserId, WebRequest request) {
+        String etag = adviserService.getAdviserETag(adviserId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return adviserService.getAdviser(adviserId);
     }
 
     @GetMapping("/sp/{spId}")
 
     @CrossOrigin(origins = "http://localhost:3000")
-    public AdviserDTO getAdviserFromSP(@PathVariable Integer spId) {
+    public AdviserDTO getAdviserFromSP(@PathVariable Integer spId, WebRequest request) {
+        String etag = adviserService.getAdviserFromSPETag(spId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return adviserService.getAdviserFromSP(spId);
     }
 
@@ -0,0 +1,25 @@
+package net.SPIS.backend.controllers;
+
+import net.SPIS.backend.DTO.SuggestionDTO;
+import net.SPIS.backend.service.AutocompleteService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/autocomplete")
+public class AutocompleteController {
+
+    @Autowired
+    private AutocompleteService autocompleteService;
+
+    // types is a comma-separated subset of sp, adviser, student and tag; all
+    // of them by default
+    @GetMapping
+    @CrossOrigin(origins = "http://localhost:3000")
+    public List<SuggestionDTO> suggest(@RequestParam String q, @RequestParam(required = false) List<String> types,
+            @RequestParam(defaultValue = "10") int limit) {
+        return autocompleteService.suggest(q, types, limit);
+    }
+}
@@ -0,0 +1,145 @@
+package net.SPIS.backend.controllers;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRange;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serves files from the upload directory without reading them onto the heap.
+ *
+ * Supports conditional requests (ETag / Last-Modified with 304), single byte
+ * ranges (206 / 416) and long-lived caching for the immutable upload names.
+ * When Tomcat offers sendfile the transfer is handed to the connector;
+ * otherwise the file is copied with {@link FileChannel#transferTo}.
+ */
+@Component
+public class FileResponseWriter {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    // Uploads are stored under their content digest (older ones under random
+    // names) and never rewritten in place.
+    private static final CacheControl IMMUTABLE = CacheControl.maxAge(365, TimeUnit.DAYS).cachePublic().immutable();
+
+    public void write(Path file, MediaType contentType, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        write(file, contentType, IMMUTABLE, request, response);
+    }
+
+    /**
+     * Serves the file with the given caching instead, for responses whose
+     * URL may serve a different file later.
+     */
+    public void write(Path file, MediaType contentType, CacheControl cacheControl, HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+        if (file == null || !Files.isRegularFile(file)) {
+            response.sendError(HttpStatus.NOT_FOUND.value());
+            return;
+        }
+        long length = Files.size(file);
+        long lastModified = Files.getLastModifiedTime(file).toMillis();
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl.getHeaderValue());
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        if (new ServletWebRequest(request, response).checkNotModified(etag, lastModified)) {
+            return; // 304, or 412 for a failed precondition
+        }
+
+        long start = 0;
+        long end = length - 1;
+        List<HttpRange> ranges = requestedRanges(request, etag, lastModified);
+        if (ranges == null) {
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+            response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+            return;
+        }
+        // Multiple ranges are answered with the whole file, which RFC 9110 permits.
+        if (ranges.size() == 1) {
+            HttpRange range = ranges.get(0);
+            try {
+                start = range.getRangeStart(length);
+                end = range.getRangeEnd(length);
+                if (start >= length || start > end) {
+                    throw new IllegalArgumentException("Range starts past the end of the file");
+                }
+            } catch (IllegalArgumentException e) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.sendError(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+                return;
+            }
+            response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+            response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+        }
+
+        long count = end - start + 1;
+        response.setContentType(contentType.toString());
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            while (position <= end) {
+                position += channel.transferTo(position, end + 1 - position, out);
+            }
+        }
+    }
+
+    /**
+     * Parsed Range header, an empty list when the whole file should be sent,
+     * or null when the header is malformed.
+     */
+    private List<HttpRange> requestedRanges(HttpServletRequest request, String etag, long lastModified) {
+        String rangeHeader = request.getHeader(HttpHeaders.RANGE);
+        if (rangeHeader == null) {
+            return List.of();
+        }
+        // If-Range: only honour the range if the client's copy is still current.
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        try {
+            if (ifRange != null) {
+                boolean current = ifRange.startsWith("\"") || ifRange.startsWith("W/")
+                        ? ifRange.equals(etag)
+                        : request.getDateHeader(HttpHeaders.IF_RANGE) / 1000 >= lastModified / 1000;
+                if (!current) {
+                    return List.of();
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            return List.of(); // unparseable If-Range date
+        }
+        try {
+            return HttpRange.parseRanges(rangeHeader);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -1,51 +1,63 @@
 package net.SPIS.backend.controllers;
 
-import org.springframework.beans.factory.annotation.Value;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import net.SPIS.backend.DTO.DocumentUploadDTO;
+import net.SPIS.backend.service.ContentStoreService;
+import net.SPIS.backend.service.DocumentUploadService;
+import net.SPIS.backend.service.ImageDerivativeService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.File;
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.InputStream;
+import java.net.URI;
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.HashMap;
+import java.util.Locale;
 import java.util.Map;
-import java.util.UUID;
 
 @RestController
 @RequestMapping("/api/uploads")
 public class FileUploadController {
 
-    @Value("${file.upload-dir:uploads}")
-    private String uploadDir;
+    private static final String DEFAULT_IMAGE_EXTENSION = ".jpg";
+    private static final String DEFAULT_DOCUMENT_EXTENSION = ".pdf";
+    private static final String UPLOAD_LENGTH = "Upload-Length";
+    private static final String UPLOAD_OFFSET = "Upload-Offset";
 
+    @Autowired
+    private FileResponseWriter fileResponseWriter;
+
+    @Autowired
+    private ContentStoreService contentStoreService;
+
+    @Autowired
+    private DocumentUploadService documentUploadService;
+
+    @Autowired
+    private ImageDerivativeService imageDerivativeService;
+
+    // Identical uploads share one stored file and get the same path. Clients
+    // may send the SHA-256 of the file as X-Content-SHA256 to have it verified.
     @PostMapping("/images")
     @CrossOrigin(origins = "http://localhost:3000")
-    public ResponseEntity<Map<String, String>> uploadImage(@RequestParam("file") MultipartFile file) {
+    public ResponseEntity<Map<String, String>> uploadImage(@RequestParam("file") MultipartFile file,
+            @RequestHeader(value = "X-Content-SHA256", required = false) String expectedDigest) {
         if (file.isEmpty()) {
             return ResponseEntity.badRequest().body(Map.of("error", "Please select a file to upload"));
         }
 
-        try {
-            // Create the directory if it doesn't exist
-            File directory = new File(uploadDir + "/images");
-            if (!directory.exists()) {
-                directory.mkdirs();
-            }
-
-            // Generate a unique filename
-            String originalFilename = file.getOriginalFilename();
-            String extension = originalFilename != null ? originalFilename.substring(originalFilename.lastIndexOf("."))
-                    : ".jpg";
-            String filename = UUID.randomUUID().toString() + extension;
-
-            // Save the file
-            Path path = Paths.get(uploadDir + "/images/" + filename);
-            Files.copy(file.getInputStream(), path);
+        try (InputStream content = file.getInputStream()) {
+            String filename = contentStoreService.store(content, extension(file.getOriginalFilename(), DEFAULT_IMAGE_EXTENSION),
+                    expectedDigest);
+            imageDerivativeService.generateAsync(contentStoreService.resolve("images", filename));
 
             // Return the file path
             Map<String, String> response = new HashMap<>();
@@ -59,27 +71,83 @@ public class FileUploadController {
 
     @GetMapping("/images/{filename:.+}")
     @CrossOrigin(origins = "http://localhost:3000")
-    public ResponseEntity<byte[]> getImage(@PathVariable String filename) {
-        try {
-            Path path = Paths.get(uploadDir + "/images/" + filename);
-            byte[] imageBytes = Files.readAllBytes(path);
-
-            // Determine content type based on file extension
-            String contentType = "image/jpeg"; // Default
-            if (filename.toLowerCase().endsWith(".png")) {
-                contentType = "image/png";
-            } else if (filename.toLowerCase().endsWith(".gif")) {
-                contentType = "image/gif";
-            }
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.parseMediaType(contentType));
-
-            return ResponseEntity.ok()
-                    .headers(headers)
-                    .body(imageBytes);
-        } catch (IOException e) {
-            return ResponseEntity.notFound().build();
+    public void getImage(@PathVariable String filename, @RequestParam(required = false) String size,
+            HttpServletRequest request, HttpServletResponse response) throws IOException {
+        Path original = contentStoreService.resolve("images", filename);
+        if (size == null || size.isBlank() || original == null) {
+            fileResponseWriter.write(original, imageType(filename), request, response);
+            return;
+        }
+        Path derivative = imageDerivativeService.getDerivative(original, size);
+        if (derivative.equals(original)) {
+            // The derivative is not there (yet): the original stands in for it,
+            // but must not be cached under the derivative's URL.
+            fileResponseWriter.write(original, imageType(filename), CacheControl.noCache(), request, response);
+        } else {
+            fileResponseWriter.write(derivative, imageType(derivative.getFileName().toString()), request, response);
         }
     }
-}
\ No newline at end of file
+
+    @GetMapping("/documents/{filename:.+}")
+    @CrossOrigin(origins = "http://localhost:3000")
+    public void getDocument(@PathVariable String filename, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        MediaType contentType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_OCTET_STREAM);
+        fileResponseWriter.write(contentStoreService.resolve("documents", filename), contentType, request, response);
+    }
+
+    // Resumable document uploads: POST with Upload-Length creates the upload,
+    // PATCH with Upload-Offset sends the next bytes as the raw request body,
+    // and GET reports how far an interrupted upload got. The response to the
+    // last PATCH carries the documentPath to set on the SP.
+    @PostMapping("/document-uploads")
+    @CrossOrigin(origins = "http://localhost:3000", exposedHeaders = { HttpHeaders.LOCATION, UPLOAD_OFFSET })
+    public ResponseEntity<DocumentUploadDTO> createDocumentUpload(@RequestParam(required = false) String filename,
+            @RequestHeader(UPLOAD_LENGTH) long length,
+            @RequestHeader(value = "X-Content-SHA256", required = false) String expectedDigest) throws IOException {
+        DocumentUploadDTO upload = documentUploadService.createUpload(length,
+                extension(filename, DEFAULT_DOCUMENT_EXTENSION), expectedDigest);
+        return ResponseEntity.created(URI.create("/api/uploads/document-uploads/" + upload.getUploadId()))
+                .header(UPLOAD_OFFSET, Long.toString(upload.getOffset()))
+                .body(upload);
+    }
+
+    @GetMapping("/document-uploads/{uploadId}")
+    @CrossOrigin(origins = "http://localhost:3000", exposedHeaders = UPLOAD_OFFSET)
+    public ResponseEntity<DocumentUploadDTO> getDocumentUpload(@PathVariable String uploadId) {
+        DocumentUploadDTO upload = documentUploadService.getUpload(uploadId);
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, Long.toString(upload.getOffset()))
+                .cacheControl(CacheControl.noStore())
+                .body(upload);
+    }
+
+    @PatchMapping("/document-uploads/{uploadId}")
+    @CrossOrigin(origins = "http://localhost:3000", exposedHeaders = UPLOAD_OFFSET)
+    public ResponseEntity<DocumentUploadDTO> appendDocumentUpload(@PathVariable String uploadId,
+            @RequestHeader(UPLOAD_OFFSET) long offset, HttpServletRequest request) throws IOException {
+        DocumentUploadDTO upload = documentUploadService.append(uploadId, offset, request.getInputStream());
+        return ResponseEntity.ok()
+                .header(UPLOAD_OFFSET, Long.toString(upload.getOffset()))
+                .body(upload);
+    }
+
+    @DeleteMapping("/document-uploads/{uploadId}")
+    @CrossOrigin(origins = "http://localhost:3000")
+    public ResponseEntity<Void> cancelDocumentUpload(@PathVariable String uploadId) throws IOException {
+        documentUploadService.cancelUpload(uploadId);
+        return ResponseEntity.noContent().build();
+    }
+
+    // Lower-cased extension of the uploaded file name, if it looks like one
+    private static String extension(String originalFilename, String fallback) {
+        int dot = originalFilename != null ? originalFilename.lastIndexOf('.') : -1;
+        String extension = dot >= 0 ? originalFilename.substring(dot).toLowerCase(Locale.ROOT) : "";
+        return extension.matches("\\.[a-z0-9]{1,10}") ? extension : fallback;
+    }
+
+    // By the requested name: stored originals have no extension of their own.
+    private static MediaType imageType(String name) {
+        return MediaTypeFactory.getMediaType(name).orElse(MediaType.IMAGE_JPEG);
+    }
+}
@@ -1,58 +1,191 @@
 package net.SPIS.backend.controllers;
 
 import net.SPIS.backend.DTO.AdviserDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.SPImportResultDTO;
+import net.SPIS.backend.DTO.SPPageDTO;
+import net.SPIS.backend.DTO.SPSearchResultDTO;
+import net.SPIS.backend.DTO.SPViewBucketDTO;
+import net.SPIS.backend.DTO.TagQueryDTO;
+import net.SPIS.backend.DTO.TagQueryResultDTO;
+import net.SPIS.backend.service.ContentStoreService;
+import net.SPIS.backend.service.DocumentTextService;
+import net.SPIS.backend.service.RelatedSPService;
+import net.SPIS.backend.service.SPImportService;
+import net.SPIS.backend.service.SPSearchService;
 import net.SPIS.backend.service.SPService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/sp")
 public class SPController {
 
+    private static final Logger log = LoggerFactory.getLogger(SPController.class);
+
+    static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    private static final String FULL_VIEW = "full";
+    private static final String SUMMARY_VIEW = "summary";
+
     @Autowired
     private SPService spService;
 
+    @Autowired
+    private SPSearchService spSearchService;
+
+    @Autowired
+    private SPImportService spImportService;
+
+    @Autowired
+    private RelatedSPService relatedSPService;
+
+    @Autowired
+    private DocumentTextService documentTextService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private FileResponseWriter fileResponseWriter;
+
+    @Autowired
+    private ContentStoreService contentStoreService;
+
     @GetMapping("/{spId}")
     @CrossOrigin(origins = "http://localhost:3000")
-    public SPDTO getSP(@PathVariable Integer spId) {
-        return spService.getSP(spId);
+    public SPDTO getSP(@PathVariable Integer spId, WebRequest request, HttpServletRequest servletRequest) {
+        String etag = spService.getSPETag(spId);
+        if (etag != null && request.checkNotModified(etag)) {
+            // a revalidated read is still a view
+            spService.incrementViewCount(spId, viewerKey(servletRequest));
+            return null;
+        }
+        return spService.getSP(spId, viewerKey(servletRequest));
     }
 
+    // List endpoints return the full list unless a limit or cursor is given;
+    // paged responses carry the cursor for the next page in X-Next-Cursor.
     @GetMapping
+    @CrossOrigin(origins = "http://localhost:3000", exposedHeaders = NEXT_CURSOR_HEADER)
+    public ResponseEntity<? extends List<?>> getAllSP(@RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String cursor, @RequestParam(required = false) String sort,
+            @RequestParam(required = false) String view, WebRequest request) {
+        if (request.checkNotModified(spService.getSPListETag())) {
+            return null;
+        }
+        if (isSummaryView(view, limit, cursor)) {
+            return ResponseEntity.ok(spService.getAllSPSummaries());
+        }
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(spService.getAllSP());
+        }
+        return page(spService.getAllSP(cursor, limit, sort));
+    }
+
+    @GetMapping("/search")
     @CrossOrigin(origins = "http://localhost:3000")
-    public List<SPDTO> getAllSP() {
-        return spService.getAllSP();
+    public SPSearchResultDTO searchSP(@RequestParam String q, @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return spSearchService.search(q, page, size);
     }
 
-    @GetMapping("/adviser/{adviserId}")
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
     @CrossOrigin(origins = "http://localhost:3000")
-    public List<SPDTO> getSPFromAdviser(@PathVariable Integer adviserId) {
-        return spService.getSPFromAdviser(adviserId);
+    public ResponseEntity<StreamingResponseBody> exportAllSP() {
+        StreamingResponseBody body = out -> {
+            SequenceWriter writer = objectMapper.writer().withRootValueSeparator("\n").writeValues(out);
+            spService.exportAllSP(sp -> {
+                try {
+                    writer.write(sp);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            writer.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
+    @GetMapping("/adviser/{adviserId}")
+    @CrossOrigin(origins = "http://localhost:3000", exposedHeaders = NEXT_CURSOR_HEADER)
+    public ResponseEntity<? extends List<?>> getSPFromAdviser(@PathVariable Integer adviserId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort, @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (request.checkNotModified(spService.getSPListETag())) {
+            return null;
+        }
+        if (isSummaryView(view, limit, cursor)) {
+            return ResponseEntity.ok(spService.getSPSummariesFromAdviser(adviserId));
+        }
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(spService.getSPFromAdviser(adviserId));
+        }
+        return page(spService.getSPFromAdviser(adviserId, cursor, limit, sort));
     }
 
     @GetMapping("/student/{studentId}")
-    @CrossOrigin(origins = "http://localhost:3000")
-    public List<SPDTO> getSPFromStudent(@PathVariable Integer studentId) {
-        return spService.getSPFromStudent(studentId);
+    @CrossOrigin(origins = "http://localhost:3000", exposedHeaders = NEXT_CURSOR_HEADER)
+    public ResponseEntity<? extends List<?>> getSPFromStudent(@PathVariable Integer studentId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort, @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (request.checkNotModified(spService.getSPListETag())) {
+            return null;
+        }
+        if (isSummaryView(view, limit, cursor)) {
+            return ResponseEntity.ok(spService.getSPSummariesFromStudent(studentId));
+        }
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(spService.getSPFromStudent(studentId));
+        }
+        return page(spService.getSPFromStudent(studentId, cursor, limit, sort));
     }
 
     @PostMapping("/{spId}/view")
     @CrossOrigin(origins = "http://localhost:3000")
-    public ResponseEntity<Void> incrementViewCount(@PathVariable Integer spId) {
-        spService.incrementViewCount(spId);
+    public ResponseEntity<Void> incrementViewCount(@PathVariable Integer spId, HttpServletRequest request) {
+        spService.incrementViewCount(spId, viewerKey(request));
         return ResponseEntity.ok().build();
     }
 
     @GetMapping("/faculty/{facultyId}")
-    @CrossOrigin(origins = "http://localhost:3000")
-    public List<SPDTO> getSPFromFaculty(@PathVariable Integer facultyId) {
-        return spService.getSPFromFaculty(facultyId);
+    @CrossOrigin(origins = "http://localhost:3000", exposedHeaders = NEXT_CURSOR_HEADER)
+    public ResponseEntity<? extends List<?>> getSPFromFaculty(@PathVariable Integer facultyId,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort, @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (request.checkNotModified(spService.getSPListETag())) {
+            return null;
+        }
+        if (isSummaryView(view, limit, cursor)) {
+            return ResponseEntity.ok(spService.getSPSummariesFromFaculty(facultyId));
+        }
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(spService.getSPFromFaculty(facultyId));
+        }
+        return page(spService.getSPFromFaculty(facultyId, cursor, limit, sort));
     }
 
     @PostMapping
@@ -62,10 +195,67 @@ public class SPController {
         return spService.createSP(spDTO);
     }
 
+    // Bulk import: per-row validation errors are reported and only those rows skipped.
+    @PostMapping(value = "/bulk", consumes = MediaType.APPLICATION_JSON_VALUE)
+    @CrossOrigin(origins = "http://localhost:3000")
+    public SPImportResultDTO importSPs(@RequestBody List<SPDTO> sps) {
+        return spImportService.importSPs(sps);
+    }
+
+    @PostMapping(value = "/bulk", consumes = "text/csv")
     @CrossOrigin(origins = "http://localhost:3000")
+    public SPImportResultDTO importSPsFromCsv(HttpServletRequest request) throws IOException {
+        return spImportService.importSPsFromCsv(request.getReader());
+    }
+
+    @CrossOrigin(origins = "http://localhost:3000", exposedHeaders = NEXT_CURSOR_HEADER)
     @GetMapping("/tags")
-    public List<SPDTO> getSPsWithTags(@RequestParam(required = false) List<Integer> tagIds) {
-        return spService.getSPsWithTags(tagIds);
+    public ResponseEntity<? extends List<?>> getSPsWithTags(@RequestParam(required = false) List<Integer> tagIds,
+            @RequestParam(required = false) Integer limit, @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) String sort, @RequestParam(required = false) String view,
+            WebRequest request) {
+        if (request.checkNotModified(spService.getSPListETag())) {
+            return null;
+        }
+        if (isSummaryView(view, limit, cursor)) {
+            return ResponseEntity.ok(spService.getSPSummariesWithTags(tagIds));
+        }
+        if (limit == null && cursor == null) {
+            return ResponseEntity.ok(spService.getSPsWithTags(tagIds));
+        }
+        return page(spService.getSPsWithTags(tagIds, cursor, limit, sort));
+    }
+
+    @CrossOrigin(origins = "http://localhost:3000")
+    @GetMapping("/tags/query")
+    public TagQueryResultDTO querySPsByTags(TagQueryDTO query) {
+        return spService.querySPsByTags(query);
+    }
+
+    // Streams the SP paper from the upload documents directory. documentPath
+    // may be a bare file name or a path ending in one (e.g. /api/uploads/documents/x.pdf).
+    @CrossOrigin(origins = "http://localhost:3000")
+    @GetMapping("/{spId}/document")
+    public void getSPDocument(@PathVariable Integer spId, HttpServletRequest request, HttpServletResponse response)
+            throws IOException {
+        String documentPath = spService.getSPDocumentPath(spId);
+        String filename = documentPath.substring(documentPath.lastIndexOf('/') + 1);
+        MediaType contentType = MediaTypeFactory.getMediaType(filename).orElse(MediaType.APPLICATION_PDF);
+        fileResponseWriter.write(contentStoreService.resolve("documents", filename), contentType, request, response);
+    }
+
+    @CrossOrigin(origins = "http://localhost:3000")
+    @PutMapping("/{spId}/document")
+    public SPDTO updateSPDocumentPath(@PathVariable Integer spId, @RequestBody Map<String, String> payload) {
+        return spService.updateSPDocumentPath(spId, payload.get("documentPath"));
+    }
+
+    // Text extracted from the SP paper, whole or one page at a time; 404
+    // until the extraction has finished
+    @CrossOrigin(origins = "http://localhost:3000")
+    @GetMapping(value = "/{spId}/text", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String getSPText(@PathVariable Integer spId, @RequestParam(required = false) Integer page) {
+        return documentTextService.getSPText(spId, page);
     }
 
     @CrossOrigin(origins = "http://localhost:3000")
@@ -76,8 +266,8 @@ public class SPController {
 
     @CrossOrigin(origins = "http://localhost:3000")
     @GetMapping("/top-sps")
-    public ResponseEntity<List<SPDTO>> getMostViewedSPs() {
-        List<SPDTO> topSPs = spService.getMostViewedSPs(5);
+    public ResponseEntity<List<SPDTO>> getMostViewedSPs(@RequestParam(defaultValue = "5") Integer limit) {
+        List<SPDTO> topSPs = spService.getMostViewedSPs(limit);
         if (topSPs.isEmpty()) {
             return ResponseEntity.noContent().build();
         }
@@ -86,18 +276,87 @@ public class SPController {
 
     @CrossOrigin(origins = "http://localhost:3000")
     @GetMapping("/top-advisers")
-    public ResponseEntity<List<AdviserDTO>> getTopAdvisersByViews() { // ✅ FIXED: No @Override
-        System.out.println("🔍 Endpoint /top-advisers was hit!");
-
-        List<AdviserDTO> topAdvisers = spService.getTopAdvisersByViews();
+    public ResponseEntity<List<AdviserDTO>> getTopAdvisersByViews(@RequestParam(defaultValue = "5") Integer limit) {
+        List<AdviserDTO> topAdvisers = spService.getTopAdvisersByViews(limit);
 
         if (topAdvisers.isEmpty()) {
-            System.out.println("⚠️ No advisers found!");
+            log.debug("No advisers with views for /top-advisers");
             return ResponseEntity.noContent().build();
         }
 
-        System.out.println("✅ Returning top advisers: " + topAdvisers);
+        log.debug("Returning {} top advisers", topAdvisers.size());
         return ResponseEntity.ok(topAdvisers);
     }
 
+    @CrossOrigin(origins = "http://localhost:3000")
+    @GetMapping("/trending")
+    public ResponseEntity<List<SPDTO>> getTrendingSPs(@RequestParam(defaultValue = "week") String window,
+            @RequestParam(defaultValue = "5") Integer limit) {
+        List<SPDTO> trending = spService.getTrendingSPs(window, limit);
+        if (trending.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(trending);
+    }
+
+    @CrossOrigin(origins = "http://localhost:3000")
+    @GetMapping("/trending-advisers")
+    public ResponseEntity<List<AdviserDTO>> getTrendingAdvisers(@RequestParam(defaultValue = "week") String window,
+            @RequestParam(defaultValue = "5") Integer limit) {
+        List<AdviserDTO> trending = spService.getTrendingAdvisers(window, limit);
+        if (trending.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(trending);
+    }
+
+    @CrossOrigin(origins = "http://localhost:3000")
+    @GetMapping("/{spId}/related")
+    public ResponseEntity<List<SPDTO>> getRelatedSPs(@PathVariable Integer spId,
+            @RequestParam(defaultValue = "5") Integer limit) {
+        List<SPDTO> related = relatedSPService.getRelatedSPs(spId, limit);
+        if (related.isEmpty()) {
+            return ResponseEntity.noContent().build();
+        }
+        return ResponseEntity.ok(related);
+    }
+
+    @CrossOrigin(origins = "http://localhost:3000")
+    @GetMapping("/{spId}/views")
+    public ResponseEntity<List<SPViewBucketDTO>> getSPViewHistory(@PathVariable Integer spId,
+            @RequestParam(defaultValue = "day") String granularity) {
+        return ResponseEntity.ok(spService.getSPViewHistory(spId, granularity));
+    }
+
+    // view=summary returns the full listing without abstractText; pages are
+    // already small, so it is not combined with limit/cursor.
+    private boolean isSummaryView(String view, Integer limit, String cursor) {
+        if (view == null || FULL_VIEW.equals(view)) {
+            return false;
+        }
+        if (!SUMMARY_VIEW.equals(view)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported view: " + view);
+        }
+        if (limit != null || cursor != null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "view=summary cannot be paged");
+        }
+        return true;
+    }
+
+    // Client fingerprint for view dedup: address plus User-Agent. Behind the
+    // reverse proxy, the prod profile's server.forward-headers-strategy makes
+    // the address the client's rather than the proxy's.
+    private String viewerKey(HttpServletRequest request) {
+        String userAgent = request.getHeader(HttpHeaders.USER_AGENT);
+        return request.getRemoteAddr() + " " + (userAgent != null ? userAgent : "");
+    }
+
+    private ResponseEntity<List<SPDTO>> page(SPPageDTO page) {
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.getNextCursor());
+        }
+        return response.body(page.getItems());
+    }
+
 }
\ No newline at end of file
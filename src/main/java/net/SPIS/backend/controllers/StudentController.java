@@ -5,6 +5,7 @@ import net.SPIS.backend.service.StudentService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,13 +18,19 @@ public class StudentController {
 
     @GetMapping("/faculty/{facultyId}")
     @CrossOrigin(origins = "http://localhost:3000")
-    public List<StudentDTO> getAllStudentsFromFaculty(@PathVariable Integer facultyId) {
+    public List<StudentDTO> getAllStudentsFromFaculty(@PathVariable Integer facultyId, WebRequest request) {
+        if (request.checkNotModified(studentService.getStudentListETag())) {
+            return null;
+        }
         return studentService.getAllStudentsFromFaculty(facultyId);
     }
 
     @GetMapping
     @CrossOrigin(origins = "http://localhost:3000")
-    public List<StudentDTO> getAllStudents() {
+    public List<StudentDTO> getAllStudents(WebRequest request) {
+        if (request.checkNotModified(studentService.getStudentListETag())) {
+            return null;
+        }
         return studentService.getAllStudents();
     }
 
@@ -42,7 +49,11 @@ public class StudentController {
 
     @GetMapping("/{studentId}")
     @CrossOrigin(origins = "http://localhost:3000")
-    public StudentDTO getStudent(@PathVariable Integer studentId) {
+    public StudentDTO getStudent(@PathVariable Integer studentId, WebRequest request) {
+        String etag = studentService.getStudentETag(studentId);
+        if (etag != null && request.checkNotModified(etag)) {
+            return null;
+        }
         return studentService.getStudent(studentId);
     }
 }
\ No newline at end of file
@@ -5,6 +5,7 @@ import net.SPIS.backend.service.TagService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -17,7 +18,10 @@ public class TagController {
 
     @GetMapping
     @CrossOrigin(origins = "http://localhost:3000")
-    public List<TagDTO> getAllTags() {
+    public List<TagDTO> getAllTags(WebRequest request) {
+        if (request.checkNotModified(tagService.getTagListETag())) {
+            return null;
+        }
         return tagService.getAllTags();
     }
 
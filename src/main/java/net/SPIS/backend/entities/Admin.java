@@ -2,6 +2,9 @@ package net.SPIS.backend.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "admin")
@@ -36,4 +39,8 @@ public class Admin {
     @ManyToOne
     @JoinColumn(name = "faculty_id")
     private Faculty faculty;
-}
\ No newline at end of file
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
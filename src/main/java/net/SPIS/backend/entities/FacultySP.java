@@ -0,0 +1,38 @@
+package net.SPIS.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+
+/**
+ * Denormalized faculty-to-SP mapping: one row for every faculty that has a
+ * student in the SP's group. Maintained by FacultySPMapping, never edited
+ * through JPA.
+ */
+@Entity
+@Table(name = "faculty_sp", indexes = @Index(name = "idx_faculty_sp_sp_id", columnList = "sp_id"))
+@IdClass(FacultySP.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FacultySP {
+    // The primary key leads with faculty_id, so it doubles as the listing index.
+    @Id
+    @Column(name = "faculty_id")
+    private Integer facultyId;
+
+    @Id
+    @Column(name = "sp_id")
+    private Integer spId;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Integer facultyId;
+        private Integer spId;
+    }
+}
@@ -2,6 +2,9 @@ package net.SPIS.backend.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import org.hibernate.annotations.BatchSize;
 
 import java.util.Set;
 
@@ -16,6 +19,11 @@ public class Groups {
     @Column(name = "group_name", nullable = false, unique = true)
     private String groupName;
 
+    // Left out of equals/hashCode/toString: Student's hashCode includes its
+    // group, so hashing students while the set is loaded would recurse.
     @OneToMany(mappedBy = "group")
+    @BatchSize(size = 50)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
     private Set<Student> students; // Must exist and link to Student
 }
\ No newline at end of file
@@ -2,7 +2,10 @@ package net.SPIS.backend.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Set;
 
@@ -48,7 +51,12 @@ public class SP {
     private Admin adviser;
 
     @ManyToMany
+    @BatchSize(size = 50) // tags of up to 50 SPs load in one query
     @JoinTable(name = "sp_tags", joinColumns = @JoinColumn(name = "sp_id"), inverseJoinColumns = @JoinColumn(name = "tag_id"))
     private Set<Tag> tags;
 
-}
\ No newline at end of file
+    // Set on every insert and update; drives the ETags of the read endpoints
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
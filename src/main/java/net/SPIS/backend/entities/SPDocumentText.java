@@ -0,0 +1,64 @@
+package net.SPIS.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
+
+/**
+ * Extraction state of an SP's document, written by DocumentTextServiceImpl.
+ * The extracted text is a gzip artifact under the upload directory;
+ * pageOffsets lists the character offset at which each page starts.
+ */
+@Entity
+@Table(name = "sp_document_text", indexes = @Index(name = "idx_sp_document_text_status",
+        columnList = "status, next_attempt_at"))
+@Data
+@NoArgsConstructor
+public class SPDocumentText {
+    public static final String PENDING = "pending";
+    public static final String DONE = "done";
+    public static final String FAILED = "failed";
+
+    @Id
+    @Column(name = "sp_id")
+    private Integer spId;
+
+    @Column(name = "document_path", nullable = false)
+    private String documentPath;
+
+    @Column(nullable = false, length = 8)
+    private String status; // PENDING, DONE or FAILED
+
+    @Column(nullable = false)
+    private Integer attempts;
+
+    @Column(name = "next_attempt_at")
+    private Instant nextAttemptAt;
+
+    @Column(name = "page_count")
+    private Integer pageCount;
+
+    @Column(name = "char_count")
+    private Long charCount;
+
+    @Column(name = "page_offsets", columnDefinition = "TEXT")
+    private String pageOffsets; // comma-separated
+
+    @Column(name = "artifact_bytes")
+    private Long artifactBytes;
+
+    @Column(length = 1000)
+    private String error;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+
+    // A path change while the document is being extracted wins over the
+    // stale result.
+    @Version
+    private Long version;
+}
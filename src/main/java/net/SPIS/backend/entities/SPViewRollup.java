@@ -0,0 +1,48 @@
+package net.SPIS.backend.entities;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.Instant;
+
+/**
+ * Views of an SP within one hour or one day, written by ViewEventPipeline.
+ */
+@Entity
+@Table(name = "sp_view_rollup", indexes = @Index(name = "idx_sp_view_rollup_bucket",
+        columnList = "granularity, bucket_start"))
+@IdClass(SPViewRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SPViewRollup {
+    public static final String HOUR = "hour";
+    public static final String DAY = "day";
+
+    @Id
+    @Column(name = "sp_id")
+    private Integer spId;
+
+    @Id
+    @Column(length = 4)
+    private String granularity; // HOUR or DAY
+
+    @Id
+    @Column(name = "bucket_start")
+    private Instant bucketStart;
+
+    @Column(nullable = false)
+    private Long views;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Integer spId;
+        private String granularity;
+        private Instant bucketStart;
+    }
+}
@@ -2,6 +2,9 @@ package net.SPIS.backend.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "student")
@@ -27,4 +30,8 @@ public class Student {
     @ManyToOne
     @JoinColumn(name = "group_id")
     private Groups group; // Links back to Groups
-}
\ No newline at end of file
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
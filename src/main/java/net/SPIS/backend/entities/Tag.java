@@ -2,6 +2,9 @@ package net.SPIS.backend.entities;
 
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 
 @Entity
 @Table(name = "tag")
@@ -13,4 +16,8 @@ public class Tag {
 
     @Column(name = "tag_name", nullable = false, unique = true)
     private String tagName;
-}
\ No newline at end of file
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private Instant updatedAt;
+}
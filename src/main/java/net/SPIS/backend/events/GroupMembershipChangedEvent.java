@@ -0,0 +1,7 @@
+package net.SPIS.backend.events;
+
+/**
+ * Published after a student has joined or left a group.
+ */
+public record GroupMembershipChangedEvent(Integer groupId) {
+}
@@ -0,0 +1,10 @@
+package net.SPIS.backend.events;
+
+import net.SPIS.backend.DTO.SPDTO;
+
+/**
+ * Published after a new SP has been saved, so in-memory indexes can pick it
+ * up without a rebuild.
+ */
+public record SPCreatedEvent(SPDTO sp) {
+}
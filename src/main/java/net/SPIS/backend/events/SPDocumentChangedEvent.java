@@ -0,0 +1,9 @@
+package net.SPIS.backend.events;
+
+/**
+ * Published after an SP's document path has been changed; documentPath is
+ * null when the document was removed, previousDocumentPath when there was
+ * none before.
+ */
+public record SPDocumentChangedEvent(Integer spId, String documentPath, String previousDocumentPath) {
+}
@@ -0,0 +1,7 @@
+package net.SPIS.backend.events;
+
+/**
+ * Published after the text of an SP's document has been extracted.
+ */
+public record SPDocumentExtractedEvent(Integer spId) {
+}
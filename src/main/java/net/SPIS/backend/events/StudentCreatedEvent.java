@@ -0,0 +1,9 @@
+package net.SPIS.backend.events;
+
+import net.SPIS.backend.DTO.StudentDTO;
+
+/**
+ * Published after a new student has been saved.
+ */
+public record StudentCreatedEvent(StudentDTO student) {
+}
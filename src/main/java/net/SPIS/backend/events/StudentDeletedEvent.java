@@ -0,0 +1,7 @@
+package net.SPIS.backend.events;
+
+/**
+ * Published after a student has been deleted.
+ */
+public record StudentDeletedEvent(Integer studentId) {
+}
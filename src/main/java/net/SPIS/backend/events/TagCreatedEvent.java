@@ -0,0 +1,9 @@
+package net.SPIS.backend.events;
+
+import net.SPIS.backend.DTO.TagDTO;
+
+/**
+ * Published after a new tag has been saved.
+ */
+public record TagCreatedEvent(TagDTO tag) {
+}
@@ -0,0 +1,7 @@
+package net.SPIS.backend.events;
+
+/**
+ * Published after a tag has been deleted.
+ */
+public record TagDeletedEvent(Integer tagId) {
+}
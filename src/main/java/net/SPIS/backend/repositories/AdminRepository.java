@@ -2,11 +2,28 @@ package net.SPIS.backend.repositories;
 
 import net.SPIS.backend.entities.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface AdminRepository extends JpaRepository<Admin, Integer> {
     List<Admin> findByRole(String role);
 
     List<Admin> findByRoleAndFacultyFacultyId(String role, Integer facultyId);
+
+    // (adminId, role) pairs, used to validate uploaders and advisers in bulk
+    @Query("SELECT a.adminId, a.role FROM Admin a WHERE a.adminId IN :adminIds")
+    List<Object[]> findRolesByIds(Collection<Integer> adminIds);
+
+    // (adminId, firstName, lastName) rows of the admins with the role
+    @Query("SELECT a.adminId, a.firstName, a.lastName FROM Admin a WHERE a.role = :role")
+    List<Object[]> findNamesByRole(String role);
+
+    @Query("SELECT new net.SPIS.backend.repositories.EntityVersion(COUNT(a), MAX(a.updatedAt)) " +
+            "FROM Admin a WHERE a.adminId = :adminId")
+    EntityVersion findVersionById(Integer adminId);
+
+    @Query("SELECT new net.SPIS.backend.repositories.EntityVersion(COUNT(a), MAX(a.updatedAt)) FROM Admin a")
+    EntityVersion findVersion();
 }
\ No newline at end of file
@@ -0,0 +1,39 @@
+package net.SPIS.backend.repositories;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Row count and latest {@code updated_at} of a set of rows, enough to build
+ * an ETag without loading the rows themselves. {@code lastUpdated} is null
+ * when no row has a timestamp yet (no rows, or rows written before the
+ * column existed).
+ */
+public record EntityVersion(Long count, Instant lastUpdated) {
+
+    public boolean exists() {
+        return count != null && count > 0;
+    }
+
+    /**
+     * Strong ETag for a single row, e.g. {@code "adviser-3-5f1e0c2a3b4c"}.
+     */
+    public String etag(String name, Integer id) {
+        return "\"" + name + "-" + id + "-" + micros() + "\"";
+    }
+
+    /**
+     * Weak ETag combining the versions of every table a response is built from.
+     */
+    public static String weakETag(String name, EntityVersion... versions) {
+        StringBuilder etag = new StringBuilder("W/\"").append(name);
+        for (EntityVersion version : versions) {
+            etag.append('-').append(Long.toHexString(version.count())).append('.').append(version.micros());
+        }
+        return etag.append('"').toString();
+    }
+
+    private String micros() {
+        return lastUpdated != null ? Long.toHexString(ChronoUnit.MICROS.between(Instant.EPOCH, lastUpdated)) : "0";
+    }
+}
@@ -1,7 +1,17 @@
 package net.SPIS.backend.repositories;
 
 import net.SPIS.backend.entities.*;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Optional;
 
 public interface FacultyRepository extends JpaRepository<Faculty, Integer> {
-}
\ No newline at end of file
+    // Caches the id rather than the entity, which belongs to the session that
+    // loaded it; callers take a reference with getReferenceById. Unknown ids
+    // are not cached, so a faculty created later is found.
+    @Cacheable(value = "faculties", unless = "#result == null")
+    @Query("SELECT f.facultyId FROM Faculty f WHERE f.facultyId = :facultyId")
+    Optional<Integer> findExistingId(Integer facultyId);
+}
@@ -2,9 +2,14 @@ package net.SPIS.backend.repositories;
 
 import net.SPIS.backend.entities.Groups;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
+import java.util.Collection;
 import java.util.List;
 
 public interface GroupsRepository extends JpaRepository<Groups, Integer> {
     List<Groups> findByStudentsFacultyFacultyId(Integer facultyId); // Corrected method name
+
+    @Query("SELECT g.groupId FROM Groups g WHERE g.groupId IN :groupIds")
+    List<Integer> findExistingIds(Collection<Integer> groupIds);
 }
\ No newline at end of file
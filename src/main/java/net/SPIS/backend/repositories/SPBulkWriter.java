@@ -0,0 +1,116 @@
+package net.SPIS.backend.repositories;
+
+import net.SPIS.backend.DTO.SPDTO;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inserts already validated SPs and their tag links with JDBC batches.
+ *
+ * sp_id is still the IDENTITY column, not a pooled sequence: the ids assigned
+ * to each batch are read back through getGeneratedKeys so the sp_tags rows can
+ * be batched right after, which is all a sequence would buy here, and the
+ * entity keeps the id generation SPServiceImpl.createSP relies on.
+ *
+ * Each chunk commits on its own. A chunk the database rejects is retried one
+ * row per transaction, so a row that slipped past validation fails alone.
+ */
+@Repository
+public class SPBulkWriter {
+
+    private static final int BATCH_SIZE = 500;
+
+    private static final String INSERT_SP = "INSERT INTO sp (title, year, semester, abstract_text, uri, view_count, "
+            + "document_path, date_issued, uploaded_by, group_id, adviser_id, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, 0, ?, ?, ?, ?, ?, CURRENT_TIMESTAMP)";
+    private static final String INSERT_SP_TAG = "INSERT INTO sp_tags (sp_id, tag_id) VALUES (?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public SPBulkWriter(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Inserts the SPs and sets the generated spId and a view count of 0 on
+     * each stored one. Returns the database error of every row that could not
+     * be stored, keyed by its index in {@code sps}.
+     */
+    public Map<Integer, String> insert(List<SPDTO> sps) {
+        Map<Integer, String> failures = new LinkedHashMap<>();
+        for (int from = 0; from < sps.size(); from += BATCH_SIZE) {
+            List<SPDTO> chunk = sps.subList(from, Math.min(from + BATCH_SIZE, sps.size()));
+            try {
+                transactionTemplate.executeWithoutResult(status -> insertChunk(chunk));
+            } catch (DataAccessException chunkFailure) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    List<SPDTO> row = List.of(chunk.get(i));
+                    try {
+                        transactionTemplate.executeWithoutResult(status -> insertChunk(row));
+                    } catch (DataAccessException e) {
+                        chunk.get(i).setSpId(null);
+                        failures.put(from + i, e.getMostSpecificCause().getMessage());
+                    }
+                }
+            }
+        }
+        return failures;
+    }
+
+    private void insertChunk(List<SPDTO> chunk) {
+        KeyHolder keys = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(INSERT_SP, new String[] { "sp_id" }),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        SPDTO sp = chunk.get(i);
+                        ps.setString(1, sp.getTitle());
+                        ps.setInt(2, sp.getYear());
+                        ps.setString(3, sp.getSemester());
+                        ps.setString(4, sp.getAbstractText());
+                        ps.setString(5, sp.getUri());
+                        ps.setString(6, sp.getDocumentPath());
+                        ps.setDate(7, Date.valueOf(sp.getDateIssued()));
+                        ps.setInt(8, sp.getUploadedById());
+                        ps.setInt(9, sp.getGroupId());
+                        ps.setInt(10, sp.getAdviserId());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return chunk.size();
+                    }
+                }, keys);
+
+        List<Map<String, Object>> generated = keys.getKeyList();
+        List<Object[]> tagRows = new ArrayList<>();
+        for (int i = 0; i < chunk.size(); i++) {
+            SPDTO sp = chunk.get(i);
+            sp.setSpId(((Number) generated.get(i).values().iterator().next()).intValue());
+            sp.setViewCount(0);
+            if (sp.getTagIds() != null) {
+                sp.getTagIds().forEach(tagId -> tagRows.add(new Object[] { sp.getSpId(), tagId }));
+            }
+        }
+        if (!tagRows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SP_TAG, tagRows, new int[] { Types.INTEGER, Types.INTEGER });
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package net.SPIS.backend.repositories;
+
+import net.SPIS.backend.entities.SPDocumentText;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SPDocumentTextRepository extends JpaRepository<SPDocumentText, Integer> {
+    // Pending documents and failed ones whose retry is due, oldest first
+    @Query("SELECT d.spId FROM SPDocumentText d WHERE d.status = 'pending' " +
+            "OR (d.status = 'failed' AND d.attempts < :maxAttempts AND d.nextAttemptAt <= :now) " +
+            "ORDER BY d.updatedAt")
+    List<Integer> findDueIds(int maxAttempts, Instant now, Pageable pageable);
+}
@@ -0,0 +1,30 @@
+package net.SPIS.backend.repositories;
+
+import java.util.Collection;
+
+/**
+ * Restriction applied to an SP listing. At most one criterion is set; an
+ * empty filter lists every SP.
+ */
+public record SPListFilter(Integer adviserId, Integer studentId, Integer facultyId, Collection<Integer> tagIds) {
+
+    public static SPListFilter all() {
+        return new SPListFilter(null, null, null, null);
+    }
+
+    public static SPListFilter byAdviser(Integer adviserId) {
+        return new SPListFilter(adviserId, null, null, null);
+    }
+
+    public static SPListFilter byStudent(Integer studentId) {
+        return new SPListFilter(null, studentId, null, null);
+    }
+
+    public static SPListFilter byFaculty(Integer facultyId) {
+        return new SPListFilter(null, null, facultyId, null);
+    }
+
+    public static SPListFilter byTags(Collection<Integer> tagIds) {
+        return new SPListFilter(null, null, null, tagIds);
+    }
+}
@@ -1,43 +1,96 @@
 package net.SPIS.backend.repositories;
 
+import jakarta.persistence.QueryHint;
 import net.SPIS.backend.entities.SP;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
-
-import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
-import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
-import jakarta.transaction.Transactional;
-
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface SPRepository extends JpaRepository<SP, Integer>, SPRepositoryCustom {
+    String SP_ROW = "SELECT new net.SPIS.backend.repositories.SPRow(sp.spId, sp.title, sp.year, sp.semester, " +
+            "sp.abstractText, sp.uri, sp.documentPath, sp.dateIssued, sp.uploadedBy.adminId, sp.group.groupId, " +
+            "sp.adviser.adminId, sp.viewCount) FROM SP sp ";
+    // Same row without the abstract, which is most of the bytes of an SP
+    String SP_SUMMARY_ROW = "SELECT new net.SPIS.backend.repositories.SPRow(sp.spId, sp.title, sp.year, " +
+            "sp.semester, CAST(NULL AS String), sp.uri, sp.documentPath, sp.dateIssued, sp.uploadedBy.adminId, " +
+            "sp.group.groupId, sp.adviser.adminId, sp.viewCount) FROM SP sp ";
+
+    // Listing filters, shared with the keyset queries in SPRepositoryImpl.
+    String ADVISER_FILTER = "sp.adviser.adminId = :adviserId";
+    String STUDENT_FILTER = "EXISTS (SELECT 1 FROM Student s WHERE s.group = sp.group AND s.studentId = :studentId)";
+    // Answered from the faculty_sp mapping (a primary key range) rather than
+    // fanning out over the faculty's students.
+    String FACULTY_FILTER = "sp.spId IN (SELECT f.spId FROM FacultySP f WHERE f.facultyId = :facultyId)";
+    String TAG_FILTER = "EXISTS (SELECT 1 FROM SP tagged JOIN tagged.tags t WHERE tagged = sp AND t.tagId IN :tagIds)";
 
-public interface SPRepository extends JpaRepository<SP, Integer> {
     List<SP> findByAdviserAdminId(Integer adviserId);
 
-    List<SP> findByGroupStudentsStudentId(Integer studentId);
+    @Query("SELECT new net.SPIS.backend.repositories.EntityVersion(COUNT(sp), MAX(sp.updatedAt)) " +
+            "FROM SP sp WHERE sp.spId = :spId")
+    EntityVersion findVersionById(Integer spId);
 
-    List<SP> findByGroupStudentsFacultyFacultyId(Integer facultyId); // Corrected path
+    // Flushed view counts do not touch updated_at.
+    @Query("SELECT sp.viewCount FROM SP sp WHERE sp.spId = :spId")
+    Integer findViewCountById(Integer spId);
+
+    @Query("SELECT new net.SPIS.backend.repositories.EntityVersion(COUNT(sp), MAX(sp.updatedAt)) FROM SP sp")
+    EntityVersion findVersion();
+
+    List<SP> findByGroupStudentsStudentId(Integer studentId);
 
     List<SP> findByTagsTagIdIn(List<Integer> tagIds);
 
-    // ✅ NEW: Increment view count
-    @Transactional
-    @Modifying
-    @Query("UPDATE SP sp SET sp.viewCount = sp.viewCount + 1 WHERE sp.spId = :spId")
-    void incrementViewCountById(Integer spId);
+    // Listing projections: one query for the SP rows, plus one of the tag id
+    // queries below, regardless of how many SPs are returned.
+    @Query(SP_ROW + "ORDER BY sp.spId")
+    List<SPRow> findAllRows();
 
-    @Query("SELECT sp FROM SP sp ORDER BY sp.viewCount DESC")
-    List<SP> findMostViewedSPs(Pageable pageable);
+    @Query(SP_ROW + "WHERE sp.spId IN :spIds")
+    List<SPRow> findRowsByIds(Collection<Integer> spIds);
+
+    @Query(SP_ROW + "WHERE " + ADVISER_FILTER + " ORDER BY sp.spId")
+    List<SPRow> findRowsByAdviserId(Integer adviserId);
+
+    @Query(SP_ROW + "WHERE " + STUDENT_FILTER + " ORDER BY sp.spId")
+    List<SPRow> findRowsByStudentId(Integer studentId);
+
+    @Query(SP_ROW + "JOIN FacultySP f ON f.spId = sp.spId WHERE f.facultyId = :facultyId ORDER BY sp.spId")
+    List<SPRow> findRowsByFacultyId(Integer facultyId);
+
+    @Query("SELECT sp.spId, t.tagId FROM SP sp JOIN sp.tags t")
+    List<Object[]> findAllTagIdPairs();
+
+    // Full-archive export: both streams are ordered by spId so they can be
+    // merged row by row without holding the archive in memory.
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query(SP_ROW + "ORDER BY sp.spId")
+    Stream<SPRow> streamAllRows();
+
+    @QueryHints({ @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true") })
+    @Query("SELECT sp.spId, t.tagId FROM SP sp JOIN sp.tags t ORDER BY sp.spId")
+    Stream<Object[]> streamAllTagIdPairs();
+
+    @Query("SELECT sp.spId, t.tagId FROM SP sp JOIN sp.tags t WHERE sp.spId IN :spIds")
+    List<Object[]> findTagIdPairs(Collection<Integer> spIds);
+
+    @Query("SELECT COALESCE(sp.documentPath, '') FROM SP sp WHERE sp.spId = :spId")
+    Optional<String> findDocumentPathBySpId(Integer spId);
+
+    // (spId, documentPath) of every SP with a document
+    @Query("SELECT sp.spId, sp.documentPath FROM SP sp WHERE sp.documentPath IS NOT NULL " +
+            "AND sp.documentPath <> '' ORDER BY sp.spId")
+    List<Object[]> findAllDocumentPaths();
 
     @Query("SELECT sp FROM SP sp ORDER BY sp.viewCount DESC")
-    List<SP> findTopSPs(PageRequest pageable);
-
-    @Query("SELECT a, COALESCE(SUM(sp.viewCount), 0) FROM Admin a " +
-            "LEFT JOIN SP sp ON a.adminId = sp.adviser.adminId " +
-            "WHERE a.role = 'faculty' " +
-            "GROUP BY a.adminId, a.firstName, a.lastName " +
-            "ORDER BY COALESCE(SUM(sp.viewCount), 0) DESC")
-    List<Object[]> findTopAdvisersByViews(Pageable pageable);
+    List<SP> findMostViewedSPs(Pageable pageable);
 
 }
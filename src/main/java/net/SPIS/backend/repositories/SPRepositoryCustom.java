@@ -0,0 +1,24 @@
+package net.SPIS.backend.repositories;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SPRepositoryCustom {
+
+    /**
+     * Keyset page ordered by ascending spId, starting after {@code afterSpId}
+     * (or from the beginning when it is null).
+     */
+    List<SPRow> findRowsAfterId(SPListFilter filter, Integer afterSpId, int limit);
+
+    /**
+     * Keyset page ordered by descending dateIssued then spId, starting after
+     * the given position (or from the newest SP when it is null).
+     */
+    List<SPRow> findRowsBeforeDate(SPListFilter filter, LocalDate beforeDate, Integer beforeSpId, int limit);
+
+    /**
+     * Every matching row in spId order, selected without abstractText.
+     */
+    List<SPRow> findSummaryRows(SPListFilter filter);
+}
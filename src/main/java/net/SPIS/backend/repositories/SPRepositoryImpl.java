@@ -0,0 +1,84 @@
+package net.SPIS.backend.repositories;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keyset pagination for SP listings. Each page is a range scan from the last
+ * row of the previous page, so the cost of a page does not grow with its
+ * position in the archive the way OFFSET paging does.
+ */
+public class SPRepositoryImpl implements SPRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<SPRow> findRowsAfterId(SPListFilter filter, Integer afterSpId, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(SPRepository.SP_ROW).append("WHERE 1 = 1");
+        appendFilter(jpql, parameters, filter);
+        if (afterSpId != null) {
+            jpql.append(" AND sp.spId > :afterSpId");
+            parameters.put("afterSpId", afterSpId);
+        }
+        jpql.append(" ORDER BY sp.spId");
+        return query(jpql, parameters, limit);
+    }
+
+    @Override
+    public List<SPRow> findRowsBeforeDate(SPListFilter filter, LocalDate beforeDate, Integer beforeSpId, int limit) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(SPRepository.SP_ROW).append("WHERE 1 = 1");
+        appendFilter(jpql, parameters, filter);
+        if (beforeDate != null) {
+            jpql.append(" AND (sp.dateIssued < :beforeDate OR (sp.dateIssued = :beforeDate AND sp.spId < :beforeSpId))");
+            parameters.put("beforeDate", beforeDate);
+            parameters.put("beforeSpId", beforeSpId);
+        }
+        jpql.append(" ORDER BY sp.dateIssued DESC, sp.spId DESC");
+        return query(jpql, parameters, limit);
+    }
+
+    @Override
+    public List<SPRow> findSummaryRows(SPListFilter filter) {
+        Map<String, Object> parameters = new HashMap<>();
+        StringBuilder jpql = new StringBuilder(SPRepository.SP_SUMMARY_ROW).append("WHERE 1 = 1");
+        appendFilter(jpql, parameters, filter);
+        jpql.append(" ORDER BY sp.spId");
+        TypedQuery<SPRow> query = entityManager.createQuery(jpql.toString(), SPRow.class);
+        parameters.forEach(query::setParameter);
+        return query.getResultList();
+    }
+
+    private void appendFilter(StringBuilder jpql, Map<String, Object> parameters, SPListFilter filter) {
+        if (filter.adviserId() != null) {
+            jpql.append(" AND ").append(SPRepository.ADVISER_FILTER);
+            parameters.put("adviserId", filter.adviserId());
+        }
+        if (filter.studentId() != null) {
+            jpql.append(" AND ").append(SPRepository.STUDENT_FILTER);
+            parameters.put("studentId", filter.studentId());
+        }
+        if (filter.facultyId() != null) {
+            jpql.append(" AND ").append(SPRepository.FACULTY_FILTER);
+            parameters.put("facultyId", filter.facultyId());
+        }
+        if (filter.tagIds() != null && !filter.tagIds().isEmpty()) {
+            jpql.append(" AND ").append(SPRepository.TAG_FILTER);
+            parameters.put("tagIds", filter.tagIds());
+        }
+    }
+
+    private List<SPRow> query(StringBuilder jpql, Map<String, Object> parameters, int limit) {
+        TypedQuery<SPRow> query = entityManager.createQuery(jpql.toString(), SPRow.class);
+        parameters.forEach(query::setParameter);
+        return query.setMaxResults(limit).getResultList();
+    }
+}
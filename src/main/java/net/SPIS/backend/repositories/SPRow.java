@@ -0,0 +1,23 @@
+package net.SPIS.backend.repositories;
+
+import java.time.LocalDate;
+
+/**
+ * Flat projection of an SP row with its foreign keys as plain ids, so SP
+ * listings can be built without initializing the uploader, group and adviser
+ * associations.
+ */
+public record SPRow(
+        Integer spId,
+        String title,
+        Integer year,
+        String semester,
+        String abstractText,
+        String uri,
+        String documentPath,
+        LocalDate dateIssued,
+        Integer uploadedById,
+        Integer groupId,
+        Integer adviserId,
+        Integer viewCount) {
+}
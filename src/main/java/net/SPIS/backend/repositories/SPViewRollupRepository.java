@@ -0,0 +1,13 @@
+package net.SPIS.backend.repositories;
+
+import net.SPIS.backend.entities.SPViewRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.Instant;
+import java.util.List;
+
+public interface SPViewRollupRepository extends JpaRepository<SPViewRollup, SPViewRollup.Key> {
+
+    List<SPViewRollup> findBySpIdAndGranularityAndBucketStartGreaterThanEqualOrderByBucketStart(Integer spId,
+            String granularity, Instant from);
+}
@@ -2,9 +2,22 @@ package net.SPIS.backend.repositories;
 
 import net.SPIS.backend.entities.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 
 import java.util.List;
 
 public interface StudentRepository extends JpaRepository<Student, Integer> {
     List<Student> findByFacultyFacultyId(Integer facultyId);
+
+    // (studentId, firstName, lastName, groupId) rows, without loading the
+    // faculty and group associations
+    @Query("SELECT s.studentId, s.firstName, s.lastName, g.groupId FROM Student s LEFT JOIN s.group g")
+    List<Object[]> findAllNames();
+
+    @Query("SELECT new net.SPIS.backend.repositories.EntityVersion(COUNT(s), MAX(s.updatedAt)) " +
+            "FROM Student s WHERE s.studentId = :studentId")
+    EntityVersion findVersionById(Integer studentId);
+
+    @Query("SELECT new net.SPIS.backend.repositories.EntityVersion(COUNT(s), MAX(s.updatedAt)) FROM Student s")
+    EntityVersion findVersion();
 }
\ No newline at end of file
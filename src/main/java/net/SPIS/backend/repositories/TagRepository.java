@@ -2,6 +2,15 @@ package net.SPIS.backend.repositories;
 
 import net.SPIS.backend.entities.*;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface TagRepository extends JpaRepository<Tag, Integer> {
+    @Query("SELECT t.tagId FROM Tag t WHERE t.tagId IN :tagIds")
+    List<Integer> findExistingIds(Collection<Integer> tagIds);
+
+    @Query("SELECT new net.SPIS.backend.repositories.EntityVersion(COUNT(t), MAX(t.updatedAt)) FROM Tag t")
+    EntityVersion findVersion();
 }
\ No newline at end of file
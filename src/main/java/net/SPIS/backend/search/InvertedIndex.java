@@ -0,0 +1,167 @@
+package net.SPIS.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index with Okapi BM25 ranking.
+ *
+ * Each term maps to a postings list of (document id, term frequency) pairs
+ * stored in parallel int arrays. Documents can be added, replaced and removed
+ * at any time; reads and writes are guarded by a read-write lock so searches
+ * run concurrently with each other.
+ */
+public class InvertedIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Integer, String[]> documentTerms = new HashMap<>();
+    private final Map<Integer, Integer> documentLengths = new HashMap<>();
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * Indexes the document's terms, replacing any previous version of it.
+     */
+    public void put(int docId, List<String> terms) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        for (String term : terms) {
+            frequencies.merge(term, 1, Integer::sum);
+        }
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+            frequencies.forEach((term, tf) -> postings.computeIfAbsent(term, t -> new Postings()).add(docId, tf));
+            documentTerms.put(docId, frequencies.keySet().toArray(new String[0]));
+            documentLengths.put(docId, terms.size());
+            totalLength += terms.size();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(int docId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(docId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            documentTerms.clear();
+            documentLengths.clear();
+            totalLength = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentLengths.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Scores every document containing at least one query term and returns
+     * them ordered by descending BM25 score, ties broken by document id.
+     */
+    public List<Hit> search(List<String> queryTerms) {
+        Set<String> terms = new LinkedHashSet<>(queryTerms);
+        Map<Integer, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int documentCount = documentLengths.size();
+            if (documentCount == 0) {
+                return new ArrayList<>();
+            }
+            double averageLength = (double) totalLength / documentCount;
+            for (String term : terms) {
+                Postings list = postings.get(term);
+                if (list == null) {
+                    continue;
+                }
+                double idf = Math.log(1 + (documentCount - list.size + 0.5) / (list.size + 0.5));
+                for (int i = 0; i < list.size; i++) {
+                    int docId = list.docIds[i];
+                    int tf = list.frequencies[i];
+                    double norm = K1 * (1 - B + B * documentLengths.get(docId) / averageLength);
+                    scores.merge(docId, idf * tf * (K1 + 1) / (tf + norm), Double::sum);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        List<Hit> hits = new ArrayList<>(scores.size());
+        scores.forEach((docId, score) -> hits.add(new Hit(docId, score)));
+        hits.sort((a, b) -> a.score() != b.score() ? Double.compare(b.score(), a.score())
+                : Integer.compare(a.docId(), b.docId()));
+        return hits;
+    }
+
+    private void removeLocked(int docId) {
+        String[] terms = documentTerms.remove(docId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Postings list = postings.get(term);
+            list.remove(docId);
+            if (list.size == 0) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= documentLengths.remove(docId);
+    }
+
+    public record Hit(int docId, double score) {
+    }
+
+    private static final class Postings {
+        private int[] docIds = new int[4];
+        private int[] frequencies = new int[4];
+        private int size;
+
+        void add(int docId, int frequency) {
+            if (size == docIds.length) {
+                docIds = Arrays.copyOf(docIds, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            docIds[size] = docId;
+            frequencies[size] = frequency;
+            size++;
+        }
+
+        void remove(int docId) {
+            // Order within a postings list does not matter, so swap the last
+            // entry into the removed slot.
+            for (int i = 0; i < size; i++) {
+                if (docIds[i] == docId) {
+                    size--;
+                    docIds[i] = docIds[size];
+                    frequencies[i] = frequencies[size];
+                    return;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package net.SPIS.backend.search;
+
+/**
+ * Suffix-stripping stemmer for English, covering the inflectional suffixes
+ * (plurals, -ed, -ing) and the most common derivational ones. It is not a
+ * full Porter implementation, but conflates the forms that matter for SP
+ * titles and abstracts ("network", "networks", "networking").
+ */
+final class LightStemmer {
+
+    private static final String[][] DERIVATIONAL = {
+            { "ational", "ate" }, { "tional", "tion" }, { "ization", "ize" }, { "isation", "ize" },
+            { "fulness", "ful" }, { "ousness", "ous" }, { "iveness", "ive" }, { "ements", "" },
+            { "ement", "" }, { "ments", "" }, { "ment", "" }, { "ities", "" }, { "ity", "" },
+            { "ness", "" }, { "ally", "al" }, { "ly", "" },
+    };
+
+    private LightStemmer() {
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 3) {
+            return word;
+        }
+        String stem = stripPlural(word);
+        stem = stripVerbal(stem);
+        for (String[] rule : DERIVATIONAL) {
+            if (stem.endsWith(rule[0]) && stem.length() - rule[0].length() >= 3) {
+                return stem.substring(0, stem.length() - rule[0].length()) + rule[1];
+            }
+        }
+        return stem;
+    }
+
+    private static String stripPlural(String word) {
+        if (word.endsWith("sses")) {
+            return word.substring(0, word.length() - 2);
+        }
+        if (word.endsWith("ies")) {
+            return word.substring(0, word.length() - 3) + "y";
+        }
+        if (word.endsWith("s") && !word.endsWith("ss") && !word.endsWith("us") && !word.endsWith("is")) {
+            return word.substring(0, word.length() - 1);
+        }
+        return word;
+    }
+
+    private static String stripVerbal(String word) {
+        for (String suffix : new String[] { "ing", "ed" }) {
+            if (word.endsWith(suffix)) {
+                String stem = word.substring(0, word.length() - suffix.length());
+                if (stem.length() >= 3 && hasVowel(stem)) {
+                    // "running" -> "run", "stopped" -> "stop"
+                    int n = stem.length();
+                    if (stem.charAt(n - 1) == stem.charAt(n - 2) && !isVowel(stem.charAt(n - 1))
+                            && "lsz".indexOf(stem.charAt(n - 1)) < 0) {
+                        return stem.substring(0, n - 1);
+                    }
+                    return stem;
+                }
+            }
+        }
+        return word;
+    }
+
+    private static boolean hasVowel(String s) {
+        for (int i = 0; i < s.length(); i++) {
+            if (isVowel(s.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVowel(char c) {
+        return "aeiouy".indexOf(c) >= 0;
+    }
+}
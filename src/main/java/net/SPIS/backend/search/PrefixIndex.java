@@ -0,0 +1,409 @@
+package net.SPIS.backend.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Weighted prefix completion over short texts such as titles and names.
+ *
+ * Every word start of an entry's normalised text is a key, so "learn"
+ * completes "Machine Learning". The keys are stored as (entry, offset) pairs
+ * in sorted order, which is the order of a depth-first walk of a trie over
+ * them: the keys below any trie node, i.e. all keys starting with a given
+ * prefix, form one contiguous range found by two binary searches. A max
+ * segment tree over the entry weights in that order then yields the range's
+ * heaviest entries one by one, so no top-K list has to be kept per node. Per
+ * key this costs four ints, about 16 bytes.
+ *
+ * Additions and removals go to a small change buffer that queries scan
+ * linearly and that hides older versions in the sorted arrays. {@link #compact}
+ * folds the buffer into new arrays without blocking queries.
+ */
+public class PrefixIndex {
+
+    private static final Comparator<Item> BY_WEIGHT = Comparator.comparingLong(Item::weight).reversed()
+            .thenComparing(Item::text).thenComparingInt(Item::id);
+
+    private volatile Snapshot main = Snapshot.of(List.of());
+    private final Map<Integer, Change> changes = new HashMap<>();
+    private long sequence;
+    // Mark of the build in progress; compaction keeps the changes after it
+    // buffered, since the build will replace the arrays they were folded into.
+    private long buildMark = Long.MAX_VALUE;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // Serialises build and compact; a lock rather than synchronized so a
+    // virtual thread rebuilding the index does not pin its carrier.
+    private final Lock compactionLock = new ReentrantLock();
+
+    /**
+     * Position in the change stream, to be taken before reading the items
+     * passed to {@link #build}.
+     */
+    public long mark() {
+        lock.writeLock().lock();
+        try {
+            buildMark = sequence;
+            return sequence;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces the contents of the index with items read after {@code mark}
+     * was taken. Changes recorded since the mark are kept, as the items may
+     * have been read before them.
+     */
+    public void build(Collection<Item> items, long mark) {
+        compactionLock.lock();
+        try {
+            Snapshot rebuilt = Snapshot.of(items);
+            lock.writeLock().lock();
+            try {
+                main = rebuilt;
+                changes.values().removeIf(change -> change.sequence() <= mark);
+                buildMark = Long.MAX_VALUE;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Adds the item, replacing any earlier item with the same id.
+     */
+    public void put(Item item) {
+        record(item.id(), item);
+    }
+
+    public void remove(int id) {
+        record(id, null);
+    }
+
+    /**
+     * Items with a word starting with the prefix, heaviest first.
+     */
+    public List<Item> complete(String prefix, int limit) {
+        String query = normalize(prefix);
+        if (query.isEmpty() || limit < 1) {
+            return new ArrayList<>();
+        }
+        List<Item> results = new ArrayList<>();
+        lock.readLock().lock();
+        try {
+            main.collect(query, limit, changes.keySet(), results);
+            for (Change change : changes.values()) {
+                if (change.item() != null && matches(change.normalized(), query)) {
+                    results.add(change.item());
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        results.sort(BY_WEIGHT);
+        return results.size() > limit ? new ArrayList<>(results.subList(0, limit)) : results;
+    }
+
+    /**
+     * Rebuilds the sorted arrays with the buffered changes applied. Changes
+     * recorded while the arrays are rebuilt stay in the buffer.
+     */
+    public void compact() {
+        compactionLock.lock();
+        try {
+            Snapshot current;
+            Map<Integer, Change> frozen;
+            long frozenSequence;
+            lock.readLock().lock();
+            try {
+                if (changes.isEmpty()) {
+                    return;
+                }
+                current = main;
+                frozen = new HashMap<>(changes);
+                frozenSequence = Math.min(sequence, buildMark);
+            } finally {
+                lock.readLock().unlock();
+            }
+
+            List<Item> items = new ArrayList<>(current.items.length + frozen.size());
+            for (Item item : current.items) {
+                if (!frozen.containsKey(item.id())) {
+                    items.add(item);
+                }
+            }
+            frozen.values().stream().map(Change::item).filter(item -> item != null).forEach(items::add);
+            Snapshot rebuilt = Snapshot.of(items);
+
+            lock.writeLock().lock();
+            try {
+                main = rebuilt;
+                changes.values().removeIf(change -> change.sequence() <= frozenSequence);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        } finally {
+            compactionLock.unlock();
+        }
+    }
+
+    /**
+     * Number of items in the sorted arrays; buffered changes count once they
+     * are compacted.
+     */
+    public int size() {
+        return main.items.length;
+    }
+
+    /**
+     * Lower-cases, strips accents and reduces every run of characters that
+     * are not letters or digits to a single space.
+     */
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder normalized = new StringBuilder(decomposed.length());
+        boolean gap = false;
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (gap && normalized.length() > 0) {
+                    normalized.append(' ');
+                }
+                gap = false;
+                normalized.append(Character.toLowerCase(c));
+            } else {
+                gap = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    private void record(int id, Item item) {
+        String normalized = item != null ? normalize(item.text()) : null;
+        lock.writeLock().lock();
+        try {
+            changes.put(id, new Change(++sequence, item, normalized));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static boolean matches(String normalized, String query) {
+        for (int i = 0; i < normalized.length(); i++) {
+            if ((i == 0 || normalized.charAt(i - 1) == ' ') && normalized.startsWith(query, i)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public record Item(int id, String text, long weight) {
+    }
+
+    // A buffered addition, or a removal when item is null
+    private record Change(long sequence, Item item, String normalized) {
+    }
+
+    /**
+     * Immutable sorted keys of a set of items.
+     */
+    private static final class Snapshot {
+        private final Item[] items;
+        private final String[] normalized;
+        private final int[] keySlots;
+        private final int[] keyOffsets;
+        // tree[n + k] = k; tree[p] is the heavier key of tree[2p] and tree[2p + 1]
+        private final int[] tree;
+
+        private Snapshot(Item[] items, String[] normalized, int[] keySlots, int[] keyOffsets) {
+            this.items = items;
+            this.normalized = normalized;
+            this.keySlots = keySlots;
+            this.keyOffsets = keyOffsets;
+            int n = keySlots.length;
+            this.tree = new int[2 * n];
+            for (int k = 0; k < n; k++) {
+                tree[n + k] = k;
+            }
+            for (int p = n - 1; p > 0; p--) {
+                tree[p] = heavier(tree[2 * p], tree[2 * p + 1]);
+            }
+        }
+
+        static Snapshot of(Collection<Item> source) {
+            List<Item> items = new ArrayList<>(source.size());
+            List<String> texts = new ArrayList<>(source.size());
+            int keyCount = 0;
+            for (Item item : source) {
+                String text = normalize(item.text());
+                if (text.isEmpty()) {
+                    continue;
+                }
+                items.add(item);
+                texts.add(text);
+                keyCount += wordStarts(text);
+            }
+            String[] normalized = texts.toArray(new String[0]);
+
+            long[] keys = new long[keyCount];
+            int k = 0;
+            for (int slot = 0; slot < normalized.length; slot++) {
+                String text = normalized[slot];
+                for (int i = 0; i < text.length(); i++) {
+                    if (i == 0 || text.charAt(i - 1) == ' ') {
+                        keys[k++] = ((long) slot << 32) | i;
+                    }
+                }
+            }
+            Long[] boxed = Arrays.stream(keys).boxed().toArray(Long[]::new);
+            Arrays.sort(boxed, (a, b) -> compareSuffixes(normalized, a, b));
+
+            int[] keySlots = new int[keyCount];
+            int[] keyOffsets = new int[keyCount];
+            for (int i = 0; i < keyCount; i++) {
+                keySlots[i] = (int) (boxed[i] >>> 32);
+                keyOffsets[i] = (int) (long) boxed[i];
+            }
+            return new Snapshot(items.toArray(new Item[0]), normalized, keySlots, keyOffsets);
+        }
+
+        /**
+         * Adds up to {@code limit} distinct items matching the query, heaviest
+         * first, skipping ids in {@code hidden}.
+         */
+        void collect(String query, int limit, Set<Integer> hidden, List<Item> results) {
+            int from = lowerBound(query, false);
+            int to = lowerBound(query, true);
+            if (from >= to) {
+                return;
+            }
+            // Best-first over sub-ranges: each popped range yields its
+            // heaviest key and is split around it.
+            PriorityQueue<int[]> ranges = new PriorityQueue<>(
+                    (a, b) -> a[2] == b[2] ? 0 : heavier(a[2], b[2]) == a[2] ? -1 : 1);
+            ranges.add(new int[] { from, to, max(from, to) });
+            Set<Integer> seen = new HashSet<>();
+            int found = 0;
+            while (found < limit && !ranges.isEmpty()) {
+                int[] range = ranges.poll();
+                int key = range[2];
+                Item item = items[keySlots[key]];
+                if (!hidden.contains(item.id()) && seen.add(item.id())) {
+                    results.add(item);
+                    found++;
+                }
+                if (range[0] < key) {
+                    ranges.add(new int[] { range[0], key, max(range[0], key) });
+                }
+                if (key + 1 < range[1]) {
+                    ranges.add(new int[] { key + 1, range[1], max(key + 1, range[1]) });
+                }
+            }
+        }
+
+        // Heaviest key in [from, to)
+        private int max(int from, int to) {
+            int n = keySlots.length;
+            int best = from;
+            for (int l = from + n, r = to + n; l < r; l >>= 1, r >>= 1) {
+                if ((l & 1) == 1) {
+                    best = heavier(best, tree[l++]);
+                }
+                if ((r & 1) == 1) {
+                    best = heavier(best, tree[--r]);
+                }
+            }
+            return best;
+        }
+
+        // Ties go to the key that sorts first.
+        private int heavier(int a, int b) {
+            long weightA = items[keySlots[a]].weight();
+            long weightB = items[keySlots[b]].weight();
+            if (weightA != weightB) {
+                return weightA > weightB ? a : b;
+            }
+            return Math.min(a, b);
+        }
+
+        /**
+         * First key that does not sort before the query, or with
+         * {@code after}, first key that sorts after every key starting with it.
+         */
+        private int lowerBound(String query, boolean after) {
+            int low = 0;
+            int high = keySlots.length;
+            while (low < high) {
+                int middle = (low + high) >>> 1;
+                int comparison = compareToQuery(middle, query);
+                if (comparison < 0 || (after && comparison == 0)) {
+                    low = middle + 1;
+                } else {
+                    high = middle;
+                }
+            }
+            return low;
+        }
+
+        // 0 if the key starts with the query
+        private int compareToQuery(int key, String query) {
+            String text = normalized[keySlots[key]];
+            int offset = keyOffsets[key];
+            int length = Math.min(text.length() - offset, query.length());
+            for (int i = 0; i < length; i++) {
+                int difference = text.charAt(offset + i) - query.charAt(i);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            return text.length() - offset >= query.length() ? 0 : -1;
+        }
+
+        private static int compareSuffixes(String[] normalized, long a, long b) {
+            String textA = normalized[(int) (a >>> 32)];
+            String textB = normalized[(int) (b >>> 32)];
+            int offsetA = (int) a;
+            int offsetB = (int) b;
+            int length = Math.min(textA.length() - offsetA, textB.length() - offsetB);
+            for (int i = 0; i < length; i++) {
+                int difference = textA.charAt(offsetA + i) - textB.charAt(offsetB + i);
+                if (difference != 0) {
+                    return difference;
+                }
+            }
+            return (textA.length() - offsetA) - (textB.length() - offsetB);
+        }
+
+        private static int wordStarts(String text) {
+            int count = 0;
+            for (int i = 0; i < text.length(); i++) {
+                if (i == 0 || text.charAt(i - 1) == ' ') {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+}
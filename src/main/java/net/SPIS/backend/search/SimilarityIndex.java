@@ -0,0 +1,443 @@
+package net.SPIS.backend.search;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Precomputed "more like this" lists for documents described by their text
+ * terms, tags and owner.
+ *
+ * Two documents score the weighted sum of the cosine similarity of their
+ * TF-IDF term vectors, the Jaccard overlap of their tags and whether they
+ * share an owner. Instead of scoring every pair, each document gets a MinHash
+ * signature over its tags and most distinctive terms; documents that agree on
+ * a whole band of the signature land in the same LSH bucket, and only those
+ * candidates are scored.
+ *
+ * {@link #build} computes all lists on a fork-join pool. {@link #put} adds a
+ * document afterwards, ranking its candidates and offering it to theirs. It
+ * weights the new document with the current document frequencies but leaves
+ * existing vectors as they are, so a periodic rebuild keeps the weights
+ * accurate.
+ */
+public class SimilarityIndex {
+
+    // A pair with Jaccard similarity s becomes a candidate with probability
+    // 1 - (1 - s^ROWS)^BANDS: about 0.5 at s = 0.15 and 0.95 at s = 0.3.
+    private static final int BANDS = 32;
+    private static final int ROWS = 2;
+    // Highest-weighted terms of a document that go into its signature
+    private static final int SIGNATURE_TERMS = 24;
+    // Documents ranked per fork-join leaf task
+    private static final int LEAF_SIZE = 64;
+
+    private static final Neighbours NO_NEIGHBOURS = new Neighbours(new int[0], new double[0]);
+
+    private final Weights weights;
+    private final int listSize;
+    private final long[] hashSeeds = new long[BANDS * ROWS];
+
+    private final Map<String, Integer> termIds = new HashMap<>();
+    private int[] documentFrequencies = new int[1024];
+    private final List<Document> documents = new ArrayList<>();
+    private final Map<Integer, Document> byId = new HashMap<>();
+    private final Map<Long, Bucket> buckets = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public SimilarityIndex(Weights weights, int listSize) {
+        if (listSize < 1) {
+            throw new IllegalArgumentException("listSize must be positive");
+        }
+        this.weights = weights;
+        this.listSize = listSize;
+        // Fixed seed, so signatures are the same from one build to the next.
+        SplittableRandom random = new SplittableRandom(0x5EED);
+        for (int i = 0; i < hashSeeds.length; i++) {
+            hashSeeds[i] = random.nextLong();
+        }
+    }
+
+    /**
+     * Replaces the contents of the index and computes the related list of
+     * every document, ranking them in parallel on the pool.
+     */
+    public void build(Collection<Entry> entries, ForkJoinPool pool) {
+        lock.writeLock().lock();
+        try {
+            termIds.clear();
+            documentFrequencies = new int[1024];
+            documents.clear();
+            byId.clear();
+            buckets.clear();
+
+            // Document frequencies first, so every vector gets the final idf.
+            List<Entry> unique = new ArrayList<>();
+            List<int[][]> counts = new ArrayList<>();
+            for (Entry entry : entries) {
+                if (byId.put(entry.id(), null) == null) {
+                    unique.add(entry);
+                    counts.add(countTerms(entry.terms()));
+                }
+            }
+            for (int i = 0; i < unique.size(); i++) {
+                addLocked(document(unique.get(i), counts.get(i), i, unique.size()));
+            }
+            pool.invoke(new RankTask(0, documents.size()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds a document that is not indexed yet, computing its related list and
+     * updating those of its candidates.
+     */
+    public void put(Entry entry) {
+        lock.writeLock().lock();
+        try {
+            if (byId.containsKey(entry.id())) {
+                return;
+            }
+            int slot = documents.size();
+            Document document = document(entry, countTerms(entry.terms()), slot, slot + 1);
+            addLocked(document);
+            document.neighbours = rank(document, new int[documents.size()], 1, true);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ids of up to {@code limit} documents most similar to the given one, or
+     * null if it is not indexed.
+     */
+    public List<Integer> related(int id, int limit) {
+        lock.readLock().lock();
+        try {
+            Document document = byId.get(id);
+            if (document == null) {
+                return null;
+            }
+            int[] slots = document.neighbours.slots();
+            List<Integer> ids = new ArrayList<>(Math.min(limit, slots.length));
+            for (int i = 0; i < slots.length && i < limit; i++) {
+                ids.add(documents.get(slots[i]).id);
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Similarity of two indexed documents, or 0 if either is missing.
+     */
+    double similarity(int firstId, int secondId) {
+        lock.readLock().lock();
+        try {
+            Document first = byId.get(firstId);
+            Document second = byId.get(secondId);
+            return first != null && second != null ? similarity(first, second) : 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private double similarity(Document a, Document b) {
+        double score = weights.text() * cosine(a, b) + weights.tags() * jaccard(a.tags, b.tags);
+        if (a.owner != null && a.owner.equals(b.owner)) {
+            score += weights.owner();
+        }
+        return score;
+    }
+
+    /**
+     * Scores the document against every candidate sharing one of its LSH
+     * buckets. {@code seen} marks candidates already scored with
+     * {@code stamp}; with {@code reciprocal} the document is also offered to
+     * each candidate's own list.
+     */
+    private Neighbours rank(Document document, int[] seen, int stamp, boolean reciprocal) {
+        Neighbours top = NO_NEIGHBOURS;
+        if (document.signature == null) {
+            return top;
+        }
+        for (int band = 0; band < BANDS; band++) {
+            Bucket bucket = buckets.get(bandKey(document.signature, band));
+            for (int i = 0; i < bucket.size; i++) {
+                int slot = bucket.slots[i];
+                if (slot == document.slot || seen[slot] == stamp) {
+                    continue;
+                }
+                seen[slot] = stamp;
+                Document candidate = documents.get(slot);
+                double score = similarity(document, candidate);
+                if (score <= 0) {
+                    continue;
+                }
+                top = top.with(slot, score, listSize);
+                if (reciprocal) {
+                    candidate.neighbours = candidate.neighbours.with(document.slot, score, listSize);
+                }
+            }
+        }
+        return top;
+    }
+
+    private void addLocked(Document document) {
+        documents.add(document);
+        byId.put(document.id, document);
+        if (document.signature != null) {
+            for (int band = 0; band < BANDS; band++) {
+                buckets.computeIfAbsent(bandKey(document.signature, band), key -> new Bucket()).add(document.slot);
+            }
+        }
+    }
+
+    /**
+     * Distinct term ids of the text, sorted, with their counts; registers new
+     * terms and bumps the document frequency of each.
+     */
+    private int[][] countTerms(List<String> terms) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        for (String term : terms) {
+            Integer termId = termIds.computeIfAbsent(term, t -> termIds.size());
+            counts.merge(termId, 1, Integer::sum);
+        }
+        int[] ids = counts.keySet().stream().mapToInt(Integer::intValue).sorted().toArray();
+        int[] frequencies = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            frequencies[i] = counts.get(ids[i]);
+            if (ids[i] >= documentFrequencies.length) {
+                documentFrequencies = Arrays.copyOf(documentFrequencies,
+                        Math.max(ids[i] + 1, documentFrequencies.length * 2));
+            }
+            documentFrequencies[ids[i]]++;
+        }
+        return new int[][] { ids, frequencies };
+    }
+
+    private Document document(Entry entry, int[][] counts, int slot, int documentCount) {
+        int[] ids = counts[0];
+        float[] termWeights = new float[ids.length];
+        double norm = 0;
+        for (int i = 0; i < ids.length; i++) {
+            double idf = Math.log(1 + (double) documentCount / documentFrequencies[ids[i]]);
+            double weight = (1 + Math.log(counts[1][i])) * idf;
+            termWeights[i] = (float) weight;
+            norm += weight * weight;
+        }
+        norm = Math.sqrt(norm);
+        for (int i = 0; i < termWeights.length; i++) {
+            termWeights[i] /= (float) norm;
+        }
+        int[] tags = entry.tags() == null ? new int[0]
+                : entry.tags().stream().mapToInt(Integer::intValue).distinct().sorted().toArray();
+        return new Document(entry.id(), slot, ids, termWeights, tags, entry.owner(),
+                signature(ids, termWeights, tags));
+    }
+
+    /**
+     * MinHash signature over the tags and the highest-weighted terms, or null
+     * if the document has neither.
+     */
+    private long[] signature(int[] termIds, float[] termWeights, int[] tags) {
+        Integer[] byWeight = new Integer[termIds.length];
+        for (int i = 0; i < byWeight.length; i++) {
+            byWeight[i] = i;
+        }
+        Arrays.sort(byWeight, (a, b) -> termWeights[a] != termWeights[b] ? Float.compare(termWeights[b], termWeights[a])
+                : Integer.compare(termIds[a], termIds[b]));
+        int termCount = Math.min(SIGNATURE_TERMS, byWeight.length);
+        // Terms and tags hash from disjoint (even and odd) feature values.
+        long[] features = new long[termCount + tags.length];
+        for (int i = 0; i < termCount; i++) {
+            features[i] = 2L * termIds[byWeight[i]];
+        }
+        for (int i = 0; i < tags.length; i++) {
+            features[termCount + i] = 2L * tags[i] + 1;
+        }
+        if (features.length == 0) {
+            return null;
+        }
+        long[] signature = new long[hashSeeds.length];
+        Arrays.fill(signature, Long.MAX_VALUE);
+        for (long feature : features) {
+            for (int i = 0; i < hashSeeds.length; i++) {
+                signature[i] = Math.min(signature[i], mix(feature ^ hashSeeds[i]));
+            }
+        }
+        return signature;
+    }
+
+    private static long bandKey(long[] signature, int band) {
+        long key = mix(band + 0x9E3779B97F4A7C15L);
+        for (int row = 0; row < ROWS; row++) {
+            key = mix(key ^ signature[band * ROWS + row]);
+        }
+        return key;
+    }
+
+    private static double cosine(Document a, Document b) {
+        double dot = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.termIds.length && j < b.termIds.length) {
+            if (a.termIds[i] == b.termIds[j]) {
+                dot += a.termWeights[i++] * b.termWeights[j++];
+            } else if (a.termIds[i] < b.termIds[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return dot;
+    }
+
+    private static double jaccard(int[] a, int[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return 0;
+        }
+        int shared = 0;
+        int i = 0;
+        int j = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] == b[j]) {
+                shared++;
+                i++;
+                j++;
+            } else if (a[i] < b[j]) {
+                i++;
+            } else {
+                j++;
+            }
+        }
+        return (double) shared / (a.length + b.length - shared);
+    }
+
+    // SplitMix64 finalizer; a bijection, so each seed gives its own permutation.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * A document to index: its analysed text terms (repeated as often as
+     * they occur), tag ids and owner id.
+     */
+    public record Entry(int id, List<String> terms, Collection<Integer> tags, Integer owner) {
+    }
+
+    public record Weights(double text, double tags, double owner) {
+    }
+
+    private final class RankTask extends RecursiveAction {
+        private final int from;
+        private final int to;
+
+        RankTask(int from, int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > LEAF_SIZE) {
+                int middle = (from + to) >>> 1;
+                invokeAll(new RankTask(from, middle), new RankTask(middle, to));
+                return;
+            }
+            // Each document stamps its own slot + 1, so the array never needs
+            // clearing between documents.
+            int[] seen = new int[documents.size()];
+            for (int slot = from; slot < to; slot++) {
+                Document document = documents.get(slot);
+                document.neighbours = rank(document, seen, slot + 1, false);
+            }
+        }
+    }
+
+    private static final class Document {
+        final int id;
+        final int slot;
+        final int[] termIds;
+        final float[] termWeights;
+        final int[] tags;
+        final Integer owner;
+        final long[] signature;
+        Neighbours neighbours = NO_NEIGHBOURS;
+
+        Document(int id, int slot, int[] termIds, float[] termWeights, int[] tags, Integer owner, long[] signature) {
+            this.id = id;
+            this.slot = slot;
+            this.termIds = termIds;
+            this.termWeights = termWeights;
+            this.tags = tags;
+            this.owner = owner;
+            this.signature = signature;
+        }
+    }
+
+    /**
+     * Immutable top list, highest score first, ties broken by slot.
+     */
+    private record Neighbours(int[] slots, double[] scores) {
+
+        Neighbours with(int slot, double score, int limit) {
+            int size = slots.length;
+            if (size == limit && !ahead(slot, score, size - 1)) {
+                return this;
+            }
+            int position = size;
+            while (position > 0 && ahead(slot, score, position - 1)) {
+                position--;
+            }
+            int newSize = Math.min(size + 1, limit);
+            int[] newSlots = new int[newSize];
+            double[] newScores = new double[newSize];
+            System.arraycopy(slots, 0, newSlots, 0, position);
+            System.arraycopy(scores, 0, newScores, 0, position);
+            newSlots[position] = slot;
+            newScores[position] = score;
+            System.arraycopy(slots, position, newSlots, position + 1, newSize - position - 1);
+            System.arraycopy(scores, position, newScores, position + 1, newSize - position - 1);
+            return new Neighbours(newSlots, newScores);
+        }
+
+        private boolean ahead(int slot, double score, int index) {
+            return score > scores[index] || (score == scores[index] && slot < slots[index]);
+        }
+    }
+
+    private static final class Bucket {
+        private int[] slots = new int[2];
+        private int size;
+
+        void add(int slot) {
+            if (size == slots.length) {
+                slots = Arrays.copyOf(slots, size * 2);
+            }
+            slots[size++] = slot;
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package net.SPIS.backend.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms: lower-cases, splits on anything that is
+ * not a letter or digit, drops stop words and stems what remains.
+ */
+public final class TextAnalyzer {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "has", "in", "is", "it", "its",
+            "of", "on", "or", "that", "the", "this", "to", "was", "were", "will", "with", "using", "based");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String lower = text.toLowerCase(Locale.ROOT);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean tokenChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (tokenChar && start < 0) {
+                start = i;
+            } else if (!tokenChar && start >= 0) {
+                addTerm(terms, lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    private static void addTerm(List<String> terms, String token) {
+        if (STOP_WORDS.contains(token)) {
+            return;
+        }
+        terms.add(LightStemmer.stem(token));
+    }
+}
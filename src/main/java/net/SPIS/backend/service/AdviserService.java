@@ -13,6 +13,13 @@ public interface AdviserService {
 
     AdviserDTO getAdviserFromSP(Integer spId);
 
+    // ETags for conditional GETs; null when the adviser or SP does not exist
+    String getAdviserETag(Integer adviserId);
+
+    String getAdviserListETag();
+
+    String getAdviserFromSPETag(Integer spId);
+
     // New methods for updating image and description
     AdviserDTO updateAdviserDescription(Integer adviserId, String description);
 
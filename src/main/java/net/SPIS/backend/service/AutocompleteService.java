@@ -0,0 +1,11 @@
+package net.SPIS.backend.service;
+
+import net.SPIS.backend.DTO.SuggestionDTO;
+
+import java.util.List;
+
+public interface AutocompleteService {
+    List<SuggestionDTO> suggest(String query, List<String> types, int limit);
+
+    void rebuildIndex();
+}
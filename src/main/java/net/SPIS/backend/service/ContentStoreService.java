@@ -0,0 +1,31 @@
+package net.SPIS.backend.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+
+public interface ContentStoreService {
+    // Stores the content once under its SHA-256 digest and returns its file
+    // name, the digest plus extension. 400 if expectedDigest is given and
+    // does not match.
+    String store(InputStream content, String extension, String expectedDigest) throws IOException;
+
+    // Moves a file whose SHA-256 digest the caller has computed into the
+    // store; it must be on the same file system as the upload directory
+    String store(Path file, String digest, String extension) throws IOException;
+
+    // The file behind a name returned by store, or else behind a name
+    // uploaded to the subdirectory before; null if the name escapes it
+    Path resolve(String subdirectory, String filename);
+
+    // Reference counting for upload paths such as /api/uploads/images/<name>;
+    // paths that do not name stored content are ignored. retain fails with
+    // 400 if the content has been deleted as unreferenced.
+    void retain(String path);
+
+    void release(String path);
+
+    // Deletes content that has been unreferenced for the grace period and
+    // returns how many files were deleted
+    int collectGarbage();
+}
@@ -0,0 +1,13 @@
+package net.SPIS.backend.service;
+
+import net.SPIS.backend.DTO.DocumentReindexResultDTO;
+
+public interface DocumentTextService {
+    // Extracted text of the SP's document, or of one (1-based) page of it
+    String getSPText(Integer spId, Integer page);
+
+    // Leading part of the extracted text for the search index; empty if none
+    String getIndexableText(Integer spId);
+
+    DocumentReindexResultDTO reindexAll();
+}
@@ -0,0 +1,21 @@
+package net.SPIS.backend.service;
+
+import net.SPIS.backend.DTO.DocumentUploadDTO;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+public interface DocumentUploadService {
+    // Starts an upload of length bytes; 413 above the configured maximum
+    DocumentUploadDTO createUpload(long length, String extension, String expectedDigest) throws IOException;
+
+    // 404 for an unknown or expired upload
+    DocumentUploadDTO getUpload(String uploadId);
+
+    // Writes the body at offset, which must be the upload's current offset
+    // (409 otherwise), and stores the document once it is complete. 503 when
+    // too many uploads are receiving data.
+    DocumentUploadDTO append(String uploadId, long offset, InputStream body) throws IOException;
+
+    void cancelUpload(String uploadId) throws IOException;
+}
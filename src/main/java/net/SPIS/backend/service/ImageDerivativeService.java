@@ -0,0 +1,11 @@
+package net.SPIS.backend.service;
+
+import java.nio.file.Path;
+
+public interface ImageDerivativeService {
+    // Queues generation of every derivative of a freshly uploaded image
+    void generateAsync(Path original);
+
+    // Path of the requested derivative ("thumb" or "medium"), generating it on first use
+    Path getDerivative(Path original, String size);
+}
@@ -0,0 +1,11 @@
+package net.SPIS.backend.service;
+
+import net.SPIS.backend.DTO.SPDTO;
+
+import java.util.List;
+
+public interface RelatedSPService {
+    List<SPDTO> getRelatedSPs(Integer spId, int limit);
+
+    void rebuildIndex();
+}
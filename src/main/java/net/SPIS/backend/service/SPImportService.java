@@ -0,0 +1,15 @@
+package net.SPIS.backend.service;
+
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.SPImportResultDTO;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.List;
+
+public interface SPImportService {
+    SPImportResultDTO importSPs(List<SPDTO> sps);
+
+    // CSV with a header row naming the SPDTO fields; tagIds are separated by ';'
+    SPImportResultDTO importSPsFromCsv(Reader csv) throws IOException;
+}
@@ -0,0 +1,9 @@
+package net.SPIS.backend.service;
+
+import net.SPIS.backend.DTO.SPSearchResultDTO;
+
+public interface SPSearchService {
+    SPSearchResultDTO search(String query, int page, int size);
+
+    void rebuildIndex();
+}
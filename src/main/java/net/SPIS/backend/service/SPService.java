@@ -2,14 +2,34 @@ package net.SPIS.backend.service;
 
 import net.SPIS.backend.DTO.AdviserDTO;
 import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.SPPageDTO;
+import net.SPIS.backend.DTO.SPSummaryDTO;
+import net.SPIS.backend.DTO.SPViewBucketDTO;
+import net.SPIS.backend.DTO.SPViewBucketDTO;
+import net.SPIS.backend.DTO.TagQueryDTO;
+import net.SPIS.backend.DTO.TagQueryResultDTO;
 
 import java.util.List;
+import java.util.function.Consumer;
 
 public interface SPService {
+    // ETags for conditional GETs, computed without loading the SPs.
+    // getSPETag returns null when the SP does not exist.
+    String getSPETag(Integer spId);
+
+    String getSPListETag();
+
     SPDTO getSP(Integer spId);
 
+    // Same, but the view is only counted if the viewer (client fingerprint)
+    // has not viewed the SP within the dedup window
+    SPDTO getSP(Integer spId, String viewerKey);
+
     List<SPDTO> getAllSP();
 
+    // Returns the SPs in the order of the given ids, skipping ids that do not exist
+    List<SPDTO> getSPsByIds(List<Integer> spIds);
+
     List<SPDTO> getSPFromAdviser(Integer adviserId);
 
     List<SPDTO> getSPFromStudent(Integer studentId);
@@ -20,14 +40,61 @@ public interface SPService {
 
     List<SPDTO> getSPsWithTags(List<Integer> tagIds);
 
+    // Evaluates an AND/OR/NOT tag expression with attribute filters and per-tag counts
+    TagQueryResultDTO querySPsByTags(TagQueryDTO query);
+
+    // Keyset-paginated variants of the listings above; sort is "id" or "dateIssued"
+    SPPageDTO getAllSP(String cursor, Integer limit, String sort);
+
+    SPPageDTO getSPFromAdviser(Integer adviserId, String cursor, Integer limit, String sort);
+
+    SPPageDTO getSPFromStudent(Integer studentId, String cursor, Integer limit, String sort);
+
+    SPPageDTO getSPFromFaculty(Integer facultyId, String cursor, Integer limit, String sort);
+
+    SPPageDTO getSPsWithTags(List<Integer> tagIds, String cursor, Integer limit, String sort);
+
+    // Narrow variants of the listings above without abstractText
+    List<SPSummaryDTO> getAllSPSummaries();
+
+    List<SPSummaryDTO> getSPSummariesFromAdviser(Integer adviserId);
+
+    List<SPSummaryDTO> getSPSummariesFromStudent(Integer studentId);
+
+    List<SPSummaryDTO> getSPSummariesFromFaculty(Integer facultyId);
+
+    List<SPSummaryDTO> getSPSummariesWithTags(List<Integer> tagIds);
+
+    // Streams every SP to the consumer in spId order without materializing the archive
+    void exportAllSP(Consumer<SPDTO> consumer);
+
     // ✅ NEW: Increment View Count
     void incrementViewCount(Integer spId);
 
+    // Counts the view unless it repeats the viewer's view within the dedup window
+    void incrementViewCount(Integer spId, String viewerKey);
+
     // ✅ NEW: Get Most Viewed SPs
     List<SPDTO> getMostViewedSPs(Integer limit);
 
     Integer getSPViewCount(Integer spId);
 
-    List<AdviserDTO> getTopAdvisersByViews();
+    // Document path of the SP; 404 if the SP does not exist or has no document
+    String getSPDocumentPath(Integer spId);
+
+    // Sets or, when blank, clears the document path and re-extracts the document text
+    SPDTO updateSPDocumentPath(Integer spId, String documentPath);
+
+    List<AdviserDTO> getTopAdvisersByViews(Integer limit);
+
+    // Trending over a sliding "day" or "week" window: views count less the
+    // older they are, decaying exponentially. 400 for an unknown window.
+    List<SPDTO> getTrendingSPs(String window, Integer limit);
+
+    List<AdviserDTO> getTrendingAdvisers(String window, Integer limit);
+
+    // Hourly or daily view counts of the SP, oldest first, as far back as
+    // the rollups are retained
+    List<SPViewBucketDTO> getSPViewHistory(Integer spId, String granularity);
 
 }
\ No newline at end of file
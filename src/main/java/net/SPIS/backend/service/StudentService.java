@@ -14,4 +14,9 @@ public interface StudentService {
     void deleteStudent(Integer studentId);
 
     StudentDTO getStudent(Integer studentId);
+
+    // ETags for conditional GETs; null when the student does not exist
+    String getStudentETag(Integer studentId);
+
+    String getStudentListETag();
 }
\ No newline at end of file
@@ -10,4 +10,6 @@ public interface TagService {
     TagDTO createTag(TagDTO tagDTO);
 
     void deleteTag(Integer tagId);
+
+    String getTagListETag();
 }
\ No newline at end of file
@@ -4,11 +4,15 @@ import net.SPIS.backend.DTO.*;
 import net.SPIS.backend.entities.*;
 import net.SPIS.backend.repositories.*;
 import net.SPIS.backend.service.AdviserService;
+import net.SPIS.backend.service.ContentStoreService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import jakarta.transaction.Transactional;
 
 import java.util.List;
+import java.util.Objects;
 import java.util.stream.Collectors;
 
 @Service
@@ -20,7 +24,11 @@ public class AdviserServiceImpl implements AdviserService {
     @Autowired
     private SPRepository spRepository;
 
+    @Autowired
+    private ContentStoreService contentStoreService;
+
     @Override
+    @Cacheable(value = "advisers", key = "'faculty:' + #facultyId")
     public List<AdviserDTO> getAllAdvisersFromFaculty(Integer facultyId) {
         return adminRepository.findByRoleAndFacultyFacultyId("faculty", facultyId).stream()
                 .map(admin -> toDTO(admin)) // Use lambda instead of method reference
@@ -28,6 +36,7 @@ public class AdviserServiceImpl implements AdviserService {
     }
 
     @Override
+    @Cacheable(value = "advisers", key = "'all'")
     public List<AdviserDTO> getAllAdvisers() {
         return adminRepository.findByRole("faculty").stream()
                 .map(admin -> toDTO(admin)) // Use lambda instead of method reference
@@ -35,6 +44,7 @@ public class AdviserServiceImpl implements AdviserService {
     }
 
     @Override
+    @Cacheable(value = "advisers", key = "'id:' + #adviserId")
     public AdviserDTO getAdviser(Integer adviserId) {
         return toDTO(adminRepository.findById(adviserId)
                 .orElseThrow(() -> new RuntimeException("Adviser not found")));
@@ -46,8 +56,11 @@ public class AdviserServiceImpl implements AdviserService {
                 .orElseThrow(() -> new RuntimeException("SP not found")).getAdviser());
     }
 
+    // An adviser appears under its id and in the "all" and faculty lists, so
+    // updates drop every adviser entry.
     @Override
     @Transactional
+    @CacheEvict(value = "advisers", allEntries = true)
     public AdviserDTO updateAdviserDescription(Integer adviserId, String description) {
         Admin admin = adminRepository.findById(adviserId)
                 .orElseThrow(() -> new RuntimeException("Adviser not found"));
@@ -57,14 +70,40 @@ public class AdviserServiceImpl implements AdviserService {
 
     @Override
     @Transactional
+    @CacheEvict(value = "advisers", allEntries = true)
     public AdviserDTO updateAdviserImage(Integer adviserId, String imagePath) {
         Admin admin = adminRepository.findById(adviserId)
                 .orElseThrow(() -> new RuntimeException("Adviser not found"));
+        String previous = admin.getImagePath();
         admin.setImagePath(imagePath);
-        return toDTO(adminRepository.save(admin));
+        AdviserDTO updated = toDTO(adminRepository.save(admin));
+        if (!Objects.equals(previous, imagePath)) {
+            contentStoreService.retain(imagePath);
+            contentStoreService.release(previous);
+        }
+        return updated;
+    }
+
+    @Override
+    public String getAdviserETag(Integer adviserId) {
+        EntityVersion version = adminRepository.findVersionById(adviserId);
+        return version.exists() ? version.etag("adviser", adviserId) : null;
+    }
+
+    @Override
+    public String getAdviserListETag() {
+        return EntityVersion.weakETag("advisers", adminRepository.findVersion());
+    }
+
+    @Override
+    public String getAdviserFromSPETag(Integer spId) {
+        EntityVersion version = spRepository.findVersionById(spId);
+        return version.exists()
+                ? EntityVersion.weakETag("sp-adviser-" + spId, version, adminRepository.findVersion())
+                : null;
     }
 
-    private AdviserDTO toDTO(Admin admin) {
+    AdviserDTO toDTO(Admin admin) {
         AdviserDTO dto = new AdviserDTO();
         dto.setAdminId(admin.getAdminId());
         dto.setFirstName(admin.getFirstName());
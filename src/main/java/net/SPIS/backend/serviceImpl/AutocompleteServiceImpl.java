@@ -0,0 +1,187 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.StudentDTO;
+import net.SPIS.backend.DTO.SuggestionDTO;
+import net.SPIS.backend.entities.Tag;
+import net.SPIS.backend.events.SPCreatedEvent;
+import net.SPIS.backend.events.StudentCreatedEvent;
+import net.SPIS.backend.events.StudentDeletedEvent;
+import net.SPIS.backend.events.TagCreatedEvent;
+import net.SPIS.backend.events.TagDeletedEvent;
+import net.SPIS.backend.repositories.AdminRepository;
+import net.SPIS.backend.repositories.SPRepository;
+import net.SPIS.backend.repositories.SPRow;
+import net.SPIS.backend.repositories.StudentRepository;
+import net.SPIS.backend.repositories.TagRepository;
+import net.SPIS.backend.search.PrefixIndex;
+import net.SPIS.backend.service.AutocompleteService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Typeahead over SP titles, adviser and student names and tag names, one
+ * {@link PrefixIndex} per type. Suggestions are weighted by views: an SP by
+ * its own view count, an adviser by the views of the SPs they advise, a
+ * student by those of their group's SPs and a tag by those of its SPs.
+ *
+ * Creates and deletes are applied as they happen; the weights are refreshed
+ * by a periodic rebuild.
+ */
+@Service
+public class AutocompleteServiceImpl implements AutocompleteService {
+
+    private static final Logger log = LoggerFactory.getLogger(AutocompleteServiceImpl.class);
+
+    static final String SP = "sp";
+    static final String ADVISER = "adviser";
+    static final String STUDENT = "student";
+    static final String TAG = "tag";
+
+    private static final int MAX_LIMIT = 50;
+
+    @Autowired
+    private SPRepository spRepository;
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    private final Map<String, PrefixIndex> indexes = new LinkedHashMap<>();
+
+    public AutocompleteServiceImpl() {
+        for (String type : List.of(SP, ADVISER, STUDENT, TAG)) {
+            indexes.put(type, new PrefixIndex());
+        }
+    }
+
+    @Override
+    public List<SuggestionDTO> suggest(String query, List<String> types, int limit) {
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit");
+        }
+        List<String> selected = types == null || types.isEmpty() ? List.copyOf(indexes.keySet()) : types;
+        List<Suggestion> suggestions = new ArrayList<>();
+        for (String type : selected) {
+            PrefixIndex index = indexes.get(type);
+            if (index == null) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported type: " + type);
+            }
+            index.complete(query, limit).forEach(item -> suggestions.add(new Suggestion(type, item)));
+        }
+        return suggestions.stream()
+                .sorted(Comparator.comparingLong((Suggestion s) -> s.item().weight()).reversed()
+                        .thenComparing(s -> s.item().text()))
+                .limit(limit)
+                .map(s -> new SuggestionDTO(s.type(), s.item().id(), s.item().text()))
+                .toList();
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${spis.autocomplete.rebuild-interval-ms:600000}",
+            initialDelayString = "${spis.autocomplete.rebuild-interval-ms:600000}")
+    public void rebuildIndex() {
+        long start = System.nanoTime();
+        // Taken before reading, so creates and deletes that race the reads survive the swap.
+        Map<String, Long> marks = new HashMap<>();
+        indexes.forEach((type, index) -> marks.put(type, index.mark()));
+        Map<Integer, Long> adviserViews = new HashMap<>();
+        Map<Integer, Long> groupViews = new HashMap<>();
+        Map<Integer, Long> spViews = new HashMap<>();
+        List<PrefixIndex.Item> sps = new ArrayList<>();
+        for (SPRow row : spRepository.findAllRows()) {
+            long views = row.viewCount() != null ? row.viewCount() : 0;
+            spViews.put(row.spId(), views);
+            adviserViews.merge(row.adviserId(), views, Long::sum);
+            groupViews.merge(row.groupId(), views, Long::sum);
+            sps.add(new PrefixIndex.Item(row.spId(), row.title(), views));
+        }
+        Map<Integer, Long> tagViews = new HashMap<>();
+        for (Object[] pair : spRepository.findAllTagIdPairs()) {
+            tagViews.merge((Integer) pair[1], spViews.getOrDefault((Integer) pair[0], 0L), Long::sum);
+        }
+
+        List<PrefixIndex.Item> advisers = new ArrayList<>();
+        for (Object[] row : adminRepository.findNamesByRole("faculty")) {
+            Integer adminId = (Integer) row[0];
+            advisers.add(new PrefixIndex.Item(adminId, name((String) row[1], (String) row[2]),
+                    adviserViews.getOrDefault(adminId, 0L)));
+        }
+        List<PrefixIndex.Item> students = new ArrayList<>();
+        for (Object[] row : studentRepository.findAllNames()) {
+            long views = row[3] != null ? groupViews.getOrDefault((Integer) row[3], 0L) : 0;
+            students.add(new PrefixIndex.Item((Integer) row[0], name((String) row[1], (String) row[2]), views));
+        }
+        List<PrefixIndex.Item> tags = new ArrayList<>();
+        for (Tag tag : tagRepository.findAll()) {
+            tags.add(new PrefixIndex.Item(tag.getTagId(), tag.getTagName(), tagViews.getOrDefault(tag.getTagId(), 0L)));
+        }
+
+        indexes.get(SP).build(sps, marks.get(SP));
+        indexes.get(ADVISER).build(advisers, marks.get(ADVISER));
+        indexes.get(STUDENT).build(students, marks.get(STUDENT));
+        indexes.get(TAG).build(tags, marks.get(TAG));
+        log.info("Indexed {} SPs, {} advisers, {} students and {} tags for autocomplete in {} ms", sps.size(),
+                advisers.size(), students.size(), tags.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @Scheduled(fixedDelayString = "${spis.autocomplete.compact-interval-ms:5000}")
+    public void compact() {
+        indexes.values().forEach(PrefixIndex::compact);
+    }
+
+    @EventListener
+    public void onSPCreated(SPCreatedEvent event) {
+        SPDTO sp = event.sp();
+        indexes.get(SP).put(new PrefixIndex.Item(sp.getSpId(), sp.getTitle(), 0));
+    }
+
+    @EventListener
+    public void onStudentCreated(StudentCreatedEvent event) {
+        StudentDTO student = event.student();
+        indexes.get(STUDENT).put(new PrefixIndex.Item(student.getStudentId(),
+                name(student.getFirstName(), student.getLastName()), 0));
+    }
+
+    @EventListener
+    public void onStudentDeleted(StudentDeletedEvent event) {
+        indexes.get(STUDENT).remove(event.studentId());
+    }
+
+    @EventListener
+    public void onTagCreated(TagCreatedEvent event) {
+        indexes.get(TAG).put(new PrefixIndex.Item(event.tag().getTagId(), event.tag().getTagName(), 0));
+    }
+
+    @EventListener
+    public void onTagDeleted(TagDeletedEvent event) {
+        indexes.get(TAG).remove(event.tagId());
+    }
+
+    private static String name(String firstName, String lastName) {
+        return firstName == null ? lastName : lastName == null ? firstName : firstName + " " + lastName;
+    }
+
+    private record Suggestion(String type, PrefixIndex.Item item) {
+    }
+}
@@ -0,0 +1,259 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.service.ContentStoreService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Content-addressed upload store.
+ *
+ * Uploads are hashed with SHA-256 while they are copied to a temp file and
+ * then moved to {@code cas/<d[0..2]>/<d[2..4]>/<digest>}, unless that file
+ * already exists, so identical uploads share one file. The name handed out
+ * is the digest plus the upload's extension, which never changes meaning and
+ * can be cached forever. {@code upload_blob} counts the adviser images and SP
+ * documents that use each file; files that stay unreferenced for the grace
+ * period, including uploads that were never used, are deleted by the
+ * scheduled garbage collection.
+ */
+@Service
+public class ContentStoreServiceImpl implements ContentStoreService {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentStoreServiceImpl.class);
+
+    private static final Pattern STORED_NAME = Pattern.compile("([0-9a-f]{64})(\\.[a-z0-9]{1,10})?");
+
+    private static final String INSERT_BLOB = "INSERT INTO upload_blob "
+            + "(digest, byte_size, ref_count, created_at, unreferenced_since) VALUES (?, ?, 0, ?, ?)";
+    // A re-upload of unreferenced content restarts its grace period.
+    private static final String TOUCH_BLOB = "UPDATE upload_blob SET unreferenced_since = ? "
+            + "WHERE digest = ? AND ref_count = 0";
+    private static final String RETAIN = "UPDATE upload_blob SET ref_count = ref_count + 1, "
+            + "unreferenced_since = NULL WHERE digest = ?";
+    private static final String RELEASE = "UPDATE upload_blob SET ref_count = ref_count - 1, "
+            + "unreferenced_since = CASE WHEN ref_count = 1 THEN ? ELSE unreferenced_since END "
+            + "WHERE digest = ? AND ref_count > 0";
+    private static final String FIND_ORPHANS = "SELECT digest FROM upload_blob "
+            + "WHERE ref_count = 0 AND unreferenced_since < ? ORDER BY unreferenced_since LIMIT ?";
+    private static final String DELETE_ORPHAN = "DELETE FROM upload_blob "
+            + "WHERE digest = ? AND ref_count = 0 AND unreferenced_since < ?";
+
+    private static final int GC_BATCH_SIZE = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Path uploadDir;
+    private final Path casDir;
+    private final Path tempDir;
+    private final Duration orphanGrace;
+
+    // Serialises storing and collecting the same digest, so a collected file
+    // is never handed out by a concurrent upload of the same content.
+    private final Lock[] locks = new Lock[64];
+
+    public ContentStoreServiceImpl(JdbcTemplate jdbcTemplate,
+            @Value("${file.upload-dir:uploads}") String uploadDir,
+            @Value("${spis.uploads.orphan-grace:24h}") Duration orphanGrace) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.uploadDir = Paths.get(uploadDir).toAbsolutePath().normalize();
+        this.casDir = this.uploadDir.resolve("cas");
+        this.tempDir = casDir.resolve("tmp");
+        this.orphanGrace = orphanGrace;
+        for (int i = 0; i < locks.length; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    @Override
+    public String store(InputStream content, String extension, String expectedDigest) throws IOException {
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "upload-", ".tmp");
+        try {
+            MessageDigest sha256 = sha256();
+            long size;
+            try (InputStream digesting = new DigestInputStream(content, sha256)) {
+                size = Files.copy(digesting, temp, StandardCopyOption.REPLACE_EXISTING);
+            }
+            String digest = HexFormat.of().formatHex(sha256.digest());
+            if (expectedDigest != null && !expectedDigest.equalsIgnoreCase(digest)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Content does not match its SHA-256 digest");
+            }
+            commit(temp, digest, size);
+            return digest + extension;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public String store(Path file, String digest, String extension) throws IOException {
+        commit(file, digest, Files.size(file));
+        Files.deleteIfExists(file); // still there if the content was already stored
+        return digest + extension;
+    }
+
+    @Override
+    public Path resolve(String subdirectory, String filename) {
+        Matcher stored = STORED_NAME.matcher(filename);
+        if (stored.matches()) {
+            Path blob = blobPath(stored.group(1));
+            if (Files.exists(blob)) {
+                return blob;
+            }
+        }
+        Path base = uploadDir.resolve(subdirectory);
+        Path file = base.resolve(filename).normalize();
+        return file.startsWith(base) ? file : null;
+    }
+
+    @Override
+    public void retain(String path) {
+        String digest = digestOf(path);
+        if (digest == null) {
+            return;
+        }
+        Lock lock = lock(digest);
+        lock.lock();
+        try {
+            // No row once the garbage collection has deleted the content.
+            if (jdbcTemplate.update(RETAIN, digest) != 1) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Upload no longer exists: " + path);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void release(String path) {
+        String digest = digestOf(path);
+        if (digest != null) {
+            jdbcTemplate.update(RELEASE, now(), digest);
+        }
+    }
+
+    @Override
+    @Scheduled(initialDelayString = "${spis.uploads.gc-interval-ms:3600000}",
+            fixedDelayString = "${spis.uploads.gc-interval-ms:3600000}")
+    public int collectGarbage() {
+        OffsetDateTime cutoff = now().minus(orphanGrace);
+        List<String> orphans = jdbcTemplate.queryForList(FIND_ORPHANS, String.class, cutoff, GC_BATCH_SIZE);
+        int deleted = 0;
+        for (String digest : orphans) {
+            Lock lock = lock(digest);
+            lock.lock();
+            try {
+                // ref_count is the source of truth: the DELETE only matches
+                // while it is still 0, so a retain since the query wins.
+                if (jdbcTemplate.update(DELETE_ORPHAN, digest, cutoff) == 1) {
+                    deleteFiles(digest);
+                    deleted++;
+                }
+            } catch (IOException e) {
+                log.warn("Could not delete unreferenced upload {}", digest, e);
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (deleted > 0) {
+            log.info("Deleted {} unreferenced uploads", deleted);
+        }
+        return deleted;
+    }
+
+    private void commit(Path temp, String digest, long size) throws IOException {
+        Lock lock = lock(digest);
+        lock.lock();
+        try {
+            Path blob = blobPath(digest);
+            boolean moved = false;
+            if (!Files.exists(blob)) {
+                Files.createDirectories(blob.getParent());
+                Files.move(temp, blob, StandardCopyOption.ATOMIC_MOVE);
+                moved = true;
+            }
+            OffsetDateTime now = now();
+            try {
+                jdbcTemplate.update(INSERT_BLOB, digest, size, now, now);
+            } catch (DuplicateKeyException e) {
+                jdbcTemplate.update(TOUCH_BLOB, now, digest);
+            } catch (RuntimeException e) {
+                // Without a row the garbage collection would never find the file.
+                if (moved) {
+                    Files.deleteIfExists(blob);
+                }
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // The blob and the image derivatives stored next to it
+    private void deleteFiles(String digest) throws IOException {
+        Path blob = blobPath(digest);
+        if (!Files.isDirectory(blob.getParent())) {
+            return;
+        }
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(blob.getParent(), digest + "*")) {
+            for (Path file : files) {
+                Files.deleteIfExists(file);
+            }
+        }
+    }
+
+    private Path blobPath(String digest) {
+        return casDir.resolve(digest.substring(0, 2)).resolve(digest.substring(2, 4)).resolve(digest);
+    }
+
+    private Lock lock(String digest) {
+        return locks[Math.floorMod(digest.hashCode(), locks.length)];
+    }
+
+    private static String digestOf(String path) {
+        if (path == null) {
+            return null;
+        }
+        Matcher stored = STORED_NAME.matcher(path.substring(path.lastIndexOf('/') + 1));
+        return stored.matches() ? stored.group(1) : null;
+    }
+
+    private static OffsetDateTime now() {
+        return Instant.now().atOffset(ZoneOffset.UTC);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
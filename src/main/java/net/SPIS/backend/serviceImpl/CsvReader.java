@@ -0,0 +1,86 @@
+package net.SPIS.backend.serviceImpl;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Minimal RFC 4180 reader: comma separated, double-quoted fields that may
+ * contain commas, line breaks and doubled quotes. Reads one record at a time
+ * so large uploads are never held as a single string.
+ */
+class CsvReader {
+
+    private final Reader reader;
+    private int peeked = -2;
+
+    CsvReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Next record, or null at the end of input. Blank lines are skipped.
+     */
+    List<String> next() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean any = false;
+        int c;
+        while ((c = read()) != -1) {
+            any = true;
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n') {
+                if (c == '\r' && peek() == '\n') {
+                    read();
+                }
+                if (fields.isEmpty() && field.length() == 0) {
+                    any = false; // blank line
+                    continue;
+                }
+                break;
+            } else if (c == '\uFEFF' && fields.isEmpty() && field.length() == 0) {
+                continue; // byte order mark
+            } else {
+                field.append((char) c);
+            }
+        }
+        if (!any) {
+            return null;
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (peeked != -2) {
+            int c = peeked;
+            peeked = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (peeked == -2) {
+            peeked = reader.read();
+        }
+        return peeked;
+    }
+}
@@ -0,0 +1,102 @@
+package net.SPIS.backend.serviceImpl;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * Ranking by exponentially decayed view count.
+ *
+ * Uses forward decay: a view at time t adds {@code e^((t - landmark) / tau)}
+ * to its id's score, so older views never have to be revisited. Every score
+ * shrinks by the same factor as time passes, which leaves the order intact;
+ * the decay only has to be applied when a score is read. When the weights of
+ * new views grow too large the landmark is moved forward and all scores are
+ * rescaled once.
+ *
+ * Not thread-safe; callers guard it with their own lock.
+ */
+class DecayedRanking {
+
+    // e^50 keeps scores far from overflow while making rescales rare.
+    private static final double MAX_EXPONENT = 50;
+
+    private static final Comparator<Scored> BY_SCORE = Comparator.comparingDouble(Scored::score).reversed()
+            .thenComparingInt(Scored::id);
+
+    private final double tauMillis;
+
+    private long landmark;
+
+    private final Map<Integer, Double> scores = new HashMap<>();
+    private final NavigableSet<Scored> ranking = new TreeSet<>(BY_SCORE);
+
+    DecayedRanking(long halfLifeMillis, long landmark) {
+        this.tauMillis = halfLifeMillis / Math.log(2);
+        this.landmark = landmark;
+    }
+
+    void add(int id, long timeMillis, double views) {
+        double exponent = (timeMillis - landmark) / tauMillis;
+        if (exponent > MAX_EXPONENT) {
+            rescale(timeMillis);
+            exponent = 0;
+        }
+        double weight = views * Math.exp(exponent);
+        Double current = scores.get(id);
+        if (current != null) {
+            ranking.remove(new Scored(id, current));
+        }
+        double updated = (current != null ? current : 0) + weight;
+        scores.put(id, updated);
+        ranking.add(new Scored(id, updated));
+    }
+
+    /**
+     * Ids with the highest decayed scores, dropping those whose score at
+     * {@code nowMillis} has decayed below {@code minScore} views.
+     */
+    List<Integer> top(int limit, long nowMillis, double minScore) {
+        double decay = Math.exp(-(nowMillis - landmark) / tauMillis);
+        List<Integer> ids = new ArrayList<>();
+        for (Scored scored : ranking) {
+            if (ids.size() >= limit || scored.score() * decay < minScore) {
+                break;
+            }
+            ids.add(scored.id());
+        }
+        return ids;
+    }
+
+    /**
+     * Decayed score of the id at {@code nowMillis}, in views.
+     */
+    double score(int id, long nowMillis) {
+        Double score = scores.get(id);
+        return score != null ? score * Math.exp(-(nowMillis - landmark) / tauMillis) : 0;
+    }
+
+    int size() {
+        return scores.size();
+    }
+
+    /**
+     * Moves the landmark to {@code newLandmark}, dropping ids whose score has
+     * decayed to nothing.
+     */
+    void rescale(long newLandmark) {
+        double factor = Math.exp(-(newLandmark - landmark) / tauMillis);
+        landmark = newLandmark;
+        ranking.clear();
+        scores.replaceAll((id, score) -> score * factor);
+        scores.values().removeIf(score -> score < 1e-6);
+        scores.forEach((id, score) -> ranking.add(new Scored(id, score)));
+    }
+
+    private record Scored(int id, double score) {
+    }
+}
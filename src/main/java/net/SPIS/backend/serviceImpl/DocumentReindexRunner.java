@@ -0,0 +1,26 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.service.DocumentTextService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Re-extracts the text of every SP document at startup when started with
+ * {@code --spis.documents.reindex=true}; the throughput is logged by
+ * {@link DocumentTextServiceImpl#reindexAll()}.
+ */
+@Component
+@ConditionalOnProperty(name = "spis.documents.reindex", havingValue = "true")
+public class DocumentReindexRunner implements ApplicationRunner {
+
+    @Autowired
+    private DocumentTextService documentTextService;
+
+    @Override
+    public void run(ApplicationArguments args) {
+        documentTextService.reindexAll();
+    }
+}
@@ -0,0 +1,115 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.io.IOUtils;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+
+import java.io.BufferedReader;
+import java.io.FilterWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Extracts the text of a PDF into a gzip-compressed UTF-8 artifact.
+ *
+ * The PDF is read from disk through PDFBox's buffered file access, with any
+ * decoded streams cached in temp files rather than on the heap, and the text
+ * is written out a page at a time, so memory use does not grow with the size
+ * of the document.
+ */
+class DocumentTextExtractor {
+
+    /**
+     * Writes the text of {@code pdf} to {@code artifact}, replacing it
+     * atomically, and returns the offset at which each page starts.
+     */
+    Extraction extract(Path pdf, Path artifact) throws IOException {
+        Files.createDirectories(artifact.getParent());
+        Path temp = artifact.resolveSibling(artifact.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try (PDDocument document = Loader.loadPDF(pdf.toFile(), IOUtils.createTempFileOnlyStreamCache());
+                CountingWriter out = new CountingWriter(new OutputStreamWriter(
+                        new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+            int pageCount = document.getNumberOfPages();
+            long[] pageOffsets = new long[pageCount];
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            for (int page = 1; page <= pageCount; page++) {
+                pageOffsets[page - 1] = out.count;
+                stripper.setStartPage(page);
+                stripper.setEndPage(page);
+                stripper.writeText(document, out);
+            }
+            out.close();
+            Files.move(temp, artifact, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            return new Extraction(pageOffsets, out.count, Files.size(artifact));
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Characters {@code [from, to)} of an artifact, reading no further than
+     * needed.
+     */
+    static String read(Path artifact, long from, long to) throws IOException {
+        try (Reader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(artifact)), StandardCharsets.UTF_8))) {
+            for (long skipped = 0; skipped < from; ) {
+                long step = in.skip(from - skipped);
+                if (step <= 0) {
+                    return "";
+                }
+                skipped += step;
+            }
+            StringBuilder text = new StringBuilder((int) Math.min(to - from, 1 << 16));
+            char[] buffer = new char[8192];
+            long remaining = to - from;
+            int read;
+            while (remaining > 0 && (read = in.read(buffer, 0, (int) Math.min(buffer.length, remaining))) > 0) {
+                text.append(buffer, 0, read);
+                remaining -= read;
+            }
+            return text.toString();
+        }
+    }
+
+    record Extraction(long[] pageOffsets, long charCount, long artifactBytes) {
+    }
+
+    private static final class CountingWriter extends FilterWriter {
+        private long count;
+
+        CountingWriter(Writer out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int c) throws IOException {
+            super.write(c);
+            count++;
+        }
+
+        @Override
+        public void write(char[] buffer, int offset, int length) throws IOException {
+            super.write(buffer, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void write(String text, int offset, int length) throws IOException {
+            super.write(text, offset, length);
+            count += length;
+        }
+    }
+}
@@ -0,0 +1,349 @@
+package net.SPIS.backend.serviceImpl;
+
+import jakarta.annotation.PreDestroy;
+import net.SPIS.backend.DTO.DocumentReindexResultDTO;
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.entities.SPDocumentText;
+import net.SPIS.backend.events.SPCreatedEvent;
+import net.SPIS.backend.events.SPDocumentChangedEvent;
+import net.SPIS.backend.events.SPDocumentExtractedEvent;
+import net.SPIS.backend.repositories.SPDocumentTextRepository;
+import net.SPIS.backend.repositories.SPRepository;
+import net.SPIS.backend.service.ContentStoreService;
+import net.SPIS.backend.service.DocumentTextService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Phaser;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Extracts the text of SP documents in the background.
+ *
+ * Creating an SP or changing its document marks the document pending in
+ * {@code sp_document_text} and hands it to a small worker pool. The pool
+ * takes at most threads + queue documents at a time: events that find it
+ * full leave the document pending, and the periodic sweep submits pending
+ * documents and due retries as capacity frees up, so nothing is lost across
+ * restarts either. Failed extractions are retried with exponential backoff
+ * up to {@code spis.documents.max-attempts}.
+ */
+@Service
+public class DocumentTextServiceImpl implements DocumentTextService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentTextServiceImpl.class);
+
+    @Autowired
+    private SPDocumentTextRepository documentTextRepository;
+
+    @Autowired
+    private SPRepository spRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private ContentStoreService contentStoreService;
+
+    private final DocumentTextExtractor extractor = new DocumentTextExtractor();
+
+    private final Path textDir;
+    private final int maxAttempts;
+    private final long retryDelayMillis;
+    private final int indexChars;
+
+    private final ThreadPoolExecutor executor;
+    // One permit per worker and queue slot, so the executor never rejects
+    private final Semaphore capacity;
+    private final Set<Integer> inFlight = ConcurrentHashMap.newKeySet();
+
+    public DocumentTextServiceImpl(@Value("${file.upload-dir:uploads}") String uploadDir,
+            @Value("${spis.documents.extract-threads:2}") int threads,
+            @Value("${spis.documents.extract-queue:64}") int queueSize,
+            @Value("${spis.documents.max-attempts:3}") int maxAttempts,
+            @Value("${spis.documents.retry-delay-ms:60000}") long retryDelayMillis,
+            @Value("${spis.documents.index-chars:100000}") int indexChars) {
+        this.textDir = Paths.get(uploadDir).toAbsolutePath().normalize().resolve("text");
+        this.maxAttempts = maxAttempts;
+        this.retryDelayMillis = retryDelayMillis;
+        this.indexChars = indexChars;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "document-text-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        this.capacity = new Semaphore(threads + queueSize);
+    }
+
+    @EventListener
+    public void onSPCreated(SPCreatedEvent event) {
+        SPDTO sp = event.sp();
+        if (sp.getDocumentPath() != null && !sp.getDocumentPath().isBlank()) {
+            markPending(sp.getSpId(), sp.getDocumentPath());
+            submit(sp.getSpId(), false, null);
+        }
+    }
+
+    // Runs first so the search index already sees the old text removed
+    @EventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onDocumentChanged(SPDocumentChangedEvent event) {
+        if (event.documentPath() == null || event.documentPath().isBlank()) {
+            documentTextRepository.findById(event.spId()).ifPresent(documentTextRepository::delete);
+            deleteArtifact(event.spId());
+            return;
+        }
+        markPending(event.spId(), event.documentPath());
+        submit(event.spId(), false, null);
+    }
+
+    @Scheduled(fixedDelayString = "${spis.documents.sweep-interval-ms:30000}")
+    public void sweep() {
+        int free = capacity.availablePermits();
+        if (free == 0) {
+            return;
+        }
+        for (Integer spId : documentTextRepository.findDueIds(maxAttempts, Instant.now(), PageRequest.of(0, free))) {
+            submit(spId, false, null);
+        }
+    }
+
+    @Override
+    public DocumentReindexResultDTO reindexAll() {
+        long start = System.nanoTime();
+        List<Object[]> documents = spRepository.findAllDocumentPaths();
+        documents.forEach(row -> markPending((Integer) row[0], (String) row[1]));
+
+        AtomicInteger extracted = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        AtomicLong pages = new AtomicLong();
+        AtomicLong bytes = new AtomicLong();
+        Phaser done = new Phaser(1);
+        for (Object[] row : documents) {
+            done.register();
+            // Blocks while the pool is full, so the queue never grows past its bound.
+            boolean submitted = submit((Integer) row[0], true, outcome -> {
+                (outcome.extracted() ? extracted : failed).incrementAndGet();
+                pages.addAndGet(outcome.pages());
+                bytes.addAndGet(outcome.bytes());
+                done.arriveAndDeregister();
+            });
+            if (!submitted) {
+                done.arriveAndDeregister(); // already being extracted after an event
+            }
+        }
+        done.arriveAndAwaitAdvance();
+
+        long elapsedMillis = Math.max(1, (System.nanoTime() - start) / 1_000_000);
+        log.info("Re-extracted {} of {} SP documents ({} failed, {} pages, {} MB) in {} ms: {} documents/s, "
+                + "{} pages/s, {} MB/s", extracted.get(), documents.size(), failed.get(), pages.get(),
+                String.format("%.1f", bytes.get() / 1e6), elapsedMillis,
+                String.format("%.1f", extracted.get() * 1000.0 / elapsedMillis),
+                String.format("%.1f", pages.get() * 1000.0 / elapsedMillis),
+                String.format("%.2f", bytes.get() / 1e3 / elapsedMillis));
+        return new DocumentReindexResultDTO(documents.size(), extracted.get(), failed.get(), pages.get(), bytes.get(),
+                elapsedMillis);
+    }
+
+    @Override
+    public String getSPText(Integer spId, Integer page) {
+        SPDocumentText text = documentTextRepository.findById(spId)
+                .filter(row -> SPDocumentText.DONE.equals(row.getStatus()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "SP document text not available"));
+        long from = 0;
+        long to = text.getCharCount();
+        if (page != null) {
+            long[] offsets = parseOffsets(text.getPageOffsets());
+            if (page < 1 || page > offsets.length) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page");
+            }
+            from = offsets[page - 1];
+            to = page < offsets.length ? offsets[page] : text.getCharCount();
+        }
+        try {
+            return DocumentTextExtractor.read(artifact(spId), from, to);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public String getIndexableText(Integer spId) {
+        // The artifact is only ever replaced atomically, so its presence
+        // means a completed extraction.
+        Path artifact = artifact(spId);
+        if (!Files.exists(artifact)) {
+            return "";
+        }
+        try {
+            return DocumentTextExtractor.read(artifact, 0, indexChars);
+        } catch (IOException e) {
+            log.warn("Could not read extracted text of SP {}", spId, e);
+            return "";
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void markPending(Integer spId, String documentPath) {
+        SPDocumentText text = documentTextRepository.findById(spId).orElseGet(() -> {
+            SPDocumentText created = new SPDocumentText();
+            created.setSpId(spId);
+            return created;
+        });
+        if (!documentPath.equals(text.getDocumentPath())) {
+            deleteArtifact(spId); // don't serve the old document's text meanwhile
+        }
+        text.setDocumentPath(documentPath);
+        text.setStatus(SPDocumentText.PENDING);
+        text.setAttempts(0);
+        text.setNextAttemptAt(null);
+        text.setError(null);
+        documentTextRepository.save(text);
+    }
+
+    /**
+     * Hands the document to the pool unless it is already there. With
+     * {@code wait}, blocks until the pool has room; otherwise gives up and
+     * leaves the document to the sweep.
+     */
+    private boolean submit(Integer spId, boolean wait, Consumer<Outcome> onDone) {
+        if (!inFlight.add(spId)) {
+            return false;
+        }
+        boolean acquired;
+        if (wait) {
+            capacity.acquireUninterruptibly();
+            acquired = true;
+        } else {
+            acquired = capacity.tryAcquire();
+        }
+        if (!acquired) {
+            inFlight.remove(spId);
+            return false;
+        }
+        executor.execute(() -> {
+            Outcome outcome = Outcome.SKIPPED;
+            try {
+                outcome = process(spId);
+            } catch (RuntimeException e) {
+                log.warn("Text extraction of SP {} failed", spId, e);
+            } finally {
+                inFlight.remove(spId);
+                capacity.release();
+                if (onDone != null) {
+                    onDone.accept(outcome);
+                }
+            }
+        });
+        return true;
+    }
+
+    private Outcome process(Integer spId) {
+        SPDocumentText text = documentTextRepository.findById(spId).orElse(null);
+        if (text == null || SPDocumentText.DONE.equals(text.getStatus())) {
+            return Outcome.SKIPPED;
+        }
+        text.setAttempts(text.getAttempts() + 1);
+        long bytes = 0;
+        try {
+            Path pdf = resolve(text.getDocumentPath());
+            bytes = Files.size(pdf);
+            DocumentTextExtractor.Extraction extraction = extractor.extract(pdf, artifact(spId));
+            text.setStatus(SPDocumentText.DONE);
+            text.setPageCount(extraction.pageOffsets().length);
+            text.setCharCount(extraction.charCount());
+            text.setPageOffsets(Arrays.stream(extraction.pageOffsets()).mapToObj(Long::toString)
+                    .collect(Collectors.joining(",")));
+            text.setArtifactBytes(extraction.artifactBytes());
+            text.setNextAttemptAt(null);
+            text.setError(null);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not extract text of SP {} from {} (attempt {} of {})", spId, text.getDocumentPath(),
+                    text.getAttempts(), maxAttempts, e);
+            text.setStatus(SPDocumentText.FAILED);
+            text.setNextAttemptAt(Instant.now().plusMillis(retryDelayMillis << Math.min(text.getAttempts() - 1, 16)));
+            String error = String.valueOf(e);
+            text.setError(error.length() > 1000 ? error.substring(0, 1000) : error);
+        }
+        try {
+            documentTextRepository.save(text);
+        } catch (ObjectOptimisticLockingFailureException e) {
+            // The document changed while it was being extracted; the new one
+            // is pending and the sweep picks it up.
+            return Outcome.SKIPPED;
+        }
+        boolean extracted = SPDocumentText.DONE.equals(text.getStatus());
+        if (extracted) {
+            eventPublisher.publishEvent(new SPDocumentExtractedEvent(spId));
+        }
+        return new Outcome(extracted, extracted ? text.getPageCount() : 0, bytes);
+    }
+
+    // documentPath is the URL the document is served under; only its file
+    // name is used.
+    private Path resolve(String documentPath) throws IOException {
+        String filename = documentPath.substring(documentPath.lastIndexOf('/') + 1);
+        Path file = filename.isEmpty() ? null : contentStoreService.resolve("documents", filename);
+        if (file == null) {
+            throw new IOException("Invalid document path: " + documentPath);
+        }
+        return file;
+    }
+
+    private Path artifact(Integer spId) {
+        return textDir.resolve(spId + ".txt.gz");
+    }
+
+    private void deleteArtifact(Integer spId) {
+        try {
+            Files.deleteIfExists(artifact(spId));
+        } catch (IOException e) {
+            log.warn("Could not delete extracted text of SP {}", spId, e);
+        }
+    }
+
+    private static long[] parseOffsets(String offsets) {
+        return offsets == null || offsets.isEmpty() ? new long[0]
+                : Arrays.stream(offsets.split(",")).mapToLong(Long::parseLong).toArray();
+    }
+
+    private record Outcome(boolean extracted, long pages, long bytes) {
+        static final Outcome SKIPPED = new Outcome(false, 0, 0);
+    }
+}
@@ -0,0 +1,348 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.DocumentUploadDTO;
+import net.SPIS.backend.service.ContentStoreService;
+import net.SPIS.backend.service.DocumentUploadService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Properties;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Pattern;
+
+/**
+ * Resumable uploads of SP documents, streamed straight to disk.
+ *
+ * An upload is created with its total length and then receives its bytes in
+ * one or more requests, each starting at the offset reached so far. Request
+ * bodies are read through one fixed buffer, hashed on the way and written to
+ * {@code <upload-dir>/incoming/<id>.part} with a {@link FileChannel}, so heap
+ * use does not depend on the document size. After every request the data is
+ * forced to disk and the offset recorded in {@code <id>.journal}; a request
+ * cut off midway, or a restart, resumes from the last recorded offset. The
+ * finished file is moved into the content store without another copy.
+ *
+ * At most {@code spis.uploads.max-concurrent} requests receive data at a
+ * time; others get 503 and retry.
+ */
+@Service
+public class DocumentUploadServiceImpl implements DocumentUploadService {
+
+    private static final Logger log = LoggerFactory.getLogger(DocumentUploadServiceImpl.class);
+
+    private static final Pattern UPLOAD_ID = Pattern.compile("[0-9a-f]{8}(-[0-9a-f]{4}){3}-[0-9a-f]{12}");
+    private static final Pattern SHA256 = Pattern.compile("[0-9a-fA-F]{64}");
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    @Autowired
+    private ContentStoreService contentStoreService;
+
+    private final Path incomingDir;
+    private final long maxSize;
+    private final Duration sessionTtl;
+    private final Semaphore slots;
+
+    private final Map<String, Upload> uploads = new ConcurrentHashMap<>();
+
+    public DocumentUploadServiceImpl(@Value("${file.upload-dir:uploads}") String uploadDir,
+            @Value("${spis.uploads.max-document-size:512MB}") DataSize maxSize,
+            @Value("${spis.uploads.max-concurrent:4}") int maxConcurrent,
+            @Value("${spis.uploads.session-ttl:24h}") Duration sessionTtl) {
+        this.incomingDir = Paths.get(uploadDir).toAbsolutePath().normalize().resolve("incoming");
+        this.maxSize = maxSize.toBytes();
+        this.sessionTtl = sessionTtl;
+        this.slots = new Semaphore(maxConcurrent);
+    }
+
+    @Override
+    public DocumentUploadDTO createUpload(long length, String extension, String expectedDigest) throws IOException {
+        if (length < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid upload length");
+        }
+        if (length > maxSize) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "Documents are limited to " + maxSize + " bytes");
+        }
+        if (expectedDigest != null && !SHA256.matcher(expectedDigest).matches()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid SHA-256 digest");
+        }
+        Upload upload = new Upload(UUID.randomUUID().toString(), length, extension,
+                expectedDigest != null ? expectedDigest.toLowerCase() : null);
+        upload.sha256 = sha256();
+        Files.createDirectories(incomingDir);
+        Files.createFile(dataFile(upload.id));
+        writeJournal(upload);
+        uploads.put(upload.id, upload);
+        return toDTO(upload);
+    }
+
+    @Override
+    public DocumentUploadDTO getUpload(String uploadId) {
+        return toDTO(load(uploadId));
+    }
+
+    @Override
+    public DocumentUploadDTO append(String uploadId, long offset, InputStream body) throws IOException {
+        Upload upload = load(uploadId);
+        if (!slots.tryAcquire()) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many uploads in progress");
+        }
+        try {
+            if (!upload.lock.tryLock()) {
+                throw new ResponseStatusException(HttpStatus.CONFLICT, "Upload is already receiving data");
+            }
+            try {
+                if (upload.documentPath != null || offset != upload.offset) {
+                    throw new ResponseStatusException(HttpStatus.CONFLICT,
+                            "Upload is at offset " + upload.offset + ", not " + offset);
+                }
+                receive(upload, body);
+                if (upload.offset == upload.length) {
+                    complete(upload);
+                }
+                return toDTO(upload);
+            } finally {
+                upload.lock.unlock();
+            }
+        } finally {
+            slots.release();
+        }
+    }
+
+    @Override
+    public void cancelUpload(String uploadId) throws IOException {
+        Upload upload = load(uploadId);
+        upload.lock.lock();
+        try {
+            discard(upload.id);
+        } finally {
+            upload.lock.unlock();
+        }
+    }
+
+    /**
+     * Drops uploads that have not received data within the session TTL,
+     * along with completed uploads whose result has been kept as long.
+     */
+    @Scheduled(fixedDelayString = "${spis.uploads.gc-interval-ms:3600000}")
+    public void expireUploads() {
+        if (!Files.isDirectory(incomingDir)) {
+            return;
+        }
+        Instant cutoff = Instant.now().minus(sessionTtl);
+        try (DirectoryStream<Path> journals = Files.newDirectoryStream(incomingDir, "*.journal")) {
+            for (Path journal : journals) {
+                if (Files.getLastModifiedTime(journal).toInstant().isAfter(cutoff)) {
+                    continue;
+                }
+                String id = journal.getFileName().toString().replace(".journal", "");
+                Upload upload = uploads.get(id);
+                if (upload == null || upload.lock.tryLock()) {
+                    try {
+                        discard(id);
+                    } finally {
+                        if (upload != null) {
+                            upload.lock.unlock();
+                        }
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not expire document uploads", e);
+        }
+    }
+
+    // Copies the body into the data file from the upload's offset, advancing
+    // the offset and digest as it goes; the offset is journaled even if the
+    // body ends early.
+    private void receive(Upload upload, InputStream body) throws IOException {
+        try (FileChannel channel = FileChannel.open(dataFile(upload.id), StandardOpenOption.WRITE,
+                StandardOpenOption.READ)) {
+            // Bytes past the journaled offset were written by a request that
+            // did not finish; they are sent again.
+            channel.truncate(upload.offset);
+            if (upload.sha256 == null) {
+                rehash(upload, channel);
+            }
+            channel.position(upload.offset);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            try {
+                long remaining = upload.length - upload.offset;
+                int read;
+                while (remaining > 0 && (read = body.read(buffer, 0, (int) Math.min(buffer.length, remaining))) > 0) {
+                    ByteBuffer data = ByteBuffer.wrap(buffer, 0, read);
+                    while (data.hasRemaining()) {
+                        channel.write(data);
+                    }
+                    upload.sha256.update(buffer, 0, read);
+                    upload.offset += read;
+                    remaining -= read;
+                }
+            } finally {
+                channel.force(false);
+                writeJournal(upload);
+            }
+        }
+    }
+
+    private void complete(Upload upload) throws IOException {
+        // digest() resets sha256, so a retry after a failed store must reuse
+        // the result rather than hash nothing.
+        if (upload.digest == null) {
+            upload.digest = HexFormat.of().formatHex(upload.sha256.digest());
+        }
+        String digest = upload.digest;
+        if (upload.expectedDigest != null && !upload.expectedDigest.equals(digest)) {
+            discard(upload.id);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Content does not match its SHA-256 digest");
+        }
+        String filename = contentStoreService.store(dataFile(upload.id), digest, upload.extension);
+        upload.documentPath = "/api/uploads/documents/" + filename;
+        // Kept so a client that missed the response can still look it up.
+        writeJournal(upload);
+    }
+
+    // The digest state is lost on restart; rebuild it from the data on disk.
+    private void rehash(Upload upload, FileChannel channel) throws IOException {
+        MessageDigest sha256 = sha256();
+        ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+        long position = 0;
+        while (position < upload.offset) {
+            buffer.clear().limit((int) Math.min(buffer.capacity(), upload.offset - position));
+            int read = channel.read(buffer, position);
+            if (read < 0) {
+                throw new IOException("Upload " + upload.id + " is shorter than its journal");
+            }
+            sha256.update(buffer.array(), 0, read);
+            position += read;
+        }
+        upload.sha256 = sha256;
+    }
+
+    private Upload load(String uploadId) {
+        if (!UPLOAD_ID.matcher(uploadId).matches()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+        Upload upload = uploads.computeIfAbsent(uploadId, id -> {
+            try {
+                return readJournal(id);
+            } catch (NoSuchFileException e) {
+                return null;
+            } catch (IOException e) {
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not read upload", e);
+            }
+        });
+        if (upload == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Upload not found");
+        }
+        return upload;
+    }
+
+    private void discard(String uploadId) throws IOException {
+        uploads.remove(uploadId);
+        Files.deleteIfExists(dataFile(uploadId));
+        Files.deleteIfExists(journalFile(uploadId));
+    }
+
+    private void writeJournal(Upload upload) throws IOException {
+        Properties journal = new Properties();
+        journal.setProperty("length", Long.toString(upload.length));
+        journal.setProperty("offset", Long.toString(upload.offset));
+        journal.setProperty("extension", upload.extension);
+        if (upload.expectedDigest != null) {
+            journal.setProperty("sha256", upload.expectedDigest);
+        }
+        if (upload.documentPath != null) {
+            journal.setProperty("documentPath", upload.documentPath);
+        }
+        Path temp = incomingDir.resolve(upload.id + ".journal.tmp");
+        try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+            journal.store(out, null);
+        }
+        Files.move(temp, journalFile(upload.id), StandardCopyOption.REPLACE_EXISTING,
+                StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private Upload readJournal(String uploadId) throws IOException {
+        Properties journal = new Properties();
+        try (Reader in = Files.newBufferedReader(journalFile(uploadId), StandardCharsets.UTF_8)) {
+            journal.load(in);
+        }
+        Upload upload = new Upload(uploadId, Long.parseLong(journal.getProperty("length")),
+                journal.getProperty("extension"), journal.getProperty("sha256"));
+        upload.offset = Long.parseLong(journal.getProperty("offset"));
+        upload.documentPath = journal.getProperty("documentPath");
+        return upload;
+    }
+
+    private Path dataFile(String uploadId) {
+        return incomingDir.resolve(uploadId + ".part");
+    }
+
+    private Path journalFile(String uploadId) {
+        return incomingDir.resolve(uploadId + ".journal");
+    }
+
+    private static DocumentUploadDTO toDTO(Upload upload) {
+        return new DocumentUploadDTO(upload.id, upload.length, upload.offset, upload.documentPath);
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class Upload {
+        final String id;
+        final long length;
+        final String extension;
+        final String expectedDigest;
+        final Lock lock = new ReentrantLock();
+        // Written under lock
+        volatile long offset;
+        volatile String documentPath;
+        MessageDigest sha256; // over the first offset bytes; null until rehashed after a restart
+        String digest; // of the whole content, once it has all been received
+
+        Upload(String id, long length, String extension, String expectedDigest) {
+            this.id = id;
+            this.length = length;
+            this.extension = extension;
+            this.expectedDigest = expectedDigest;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package net.SPIS.backend.serviceImpl;
+
+import jakarta.transaction.Transactional;
+import net.SPIS.backend.events.GroupMembershipChangedEvent;
+import net.SPIS.backend.events.SPCreatedEvent;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the faculty_sp table in step with students and SPs.
+ *
+ * A faculty's SPs are those whose group has a student of that faculty, which
+ * as a join fans out to one row per student. faculty_sp stores the distinct
+ * (faculty, SP) pairs so the faculty listing is a primary key range scan.
+ * Rows are recomputed per group whenever the group's students or SPs change,
+ * and the whole table is rebuilt at startup to pick up changes made outside
+ * the application.
+ */
+@Component
+public class FacultySPMapping {
+
+    private static final String CLEAR_ALL = "DELETE FROM faculty_sp";
+    private static final String FILL_ALL = "INSERT INTO faculty_sp (faculty_id, sp_id) "
+            + "SELECT DISTINCT s.faculty_id, sp.sp_id FROM sp JOIN student s ON s.group_id = sp.group_id";
+
+    private static final String CLEAR_GROUP = "DELETE FROM faculty_sp "
+            + "WHERE sp_id IN (SELECT sp_id FROM sp WHERE group_id = ?)";
+    private static final String FILL_GROUP = FILL_ALL + " WHERE sp.group_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FacultySPMapping(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        jdbcTemplate.update(CLEAR_ALL);
+        jdbcTemplate.update(FILL_ALL);
+    }
+
+    @Transactional
+    public void refreshGroup(Integer groupId) {
+        if (groupId == null) {
+            return;
+        }
+        jdbcTemplate.update(CLEAR_GROUP, groupId);
+        jdbcTemplate.update(FILL_GROUP, groupId);
+    }
+
+    @EventListener
+    @Transactional
+    public void onSPCreated(SPCreatedEvent event) {
+        refreshGroup(event.sp().getGroupId());
+    }
+
+    @EventListener
+    @Transactional
+    public void onGroupMembershipChanged(GroupMembershipChangedEvent event) {
+        refreshGroup(event.groupId());
+    }
+}
@@ -0,0 +1,223 @@
+package net.SPIS.backend.serviceImpl;
+
+import jakarta.annotation.PreDestroy;
+import net.SPIS.backend.service.ImageDerivativeService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Produces downscaled JPEG variants of uploaded images and stores them next
+ * to the original as {@code <original>.<size>.jpg}.
+ *
+ * Uploads queue their derivatives on a small bounded executor. If the queue
+ * is full, or the image predates this pipeline, the derivative is generated
+ * on the first request for it instead, and that file is then reused. Only a
+ * few requests generate at once; the others get the original and queue the
+ * derivative. Images over the pixel limit are never decoded.
+ */
+@Service
+public class ImageDerivativeServiceImpl implements ImageDerivativeService {
+
+    private static final Logger log = LoggerFactory.getLogger(ImageDerivativeServiceImpl.class);
+
+    // Longest edge in pixels for each derivative size
+    private static final Map<String, Integer> SIZES = Map.of("thumb", 160, "medium", 640);
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private final ThreadPoolExecutor executor;
+
+    // Request threads generating a missing derivative themselves
+    private final Semaphore lazyGenerations;
+
+    private final long maxPixels;
+
+    private final Map<Path, CompletableFuture<Path>> inFlight = new ConcurrentHashMap<>();
+
+    public ImageDerivativeServiceImpl(@Value("${spis.images.derivative-threads:2}") int threads,
+            @Value("${spis.images.derivative-queue:64}") int queueSize,
+            @Value("${spis.images.lazy-generations:2}") int lazyGenerations,
+            @Value("${spis.images.max-pixels:40000000}") long maxPixels) {
+        this.lazyGenerations = new Semaphore(lazyGenerations);
+        this.maxPixels = maxPixels;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "image-derivatives-" + counter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                // Dropped uploads are picked up lazily on first request.
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
+    @Override
+    public void generateAsync(Path original) {
+        executor.execute(() -> SIZES.keySet().forEach(size -> {
+            try {
+                getDerivative(original, size, false);
+            } catch (RuntimeException e) {
+                log.warn("Could not generate {} derivative of {}", size, original, e);
+            }
+        }));
+    }
+
+    @Override
+    public Path getDerivative(Path original, String size) {
+        return getDerivative(original, size, true);
+    }
+
+    private Path getDerivative(Path original, String size, boolean onRequestThread) {
+        Integer maxEdge = SIZES.get(size);
+        if (maxEdge == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown image size: " + size);
+        }
+        Path derivative = original.resolveSibling(original.getFileName() + "." + size + ".jpg");
+        if (Files.exists(derivative) || !Files.isRegularFile(original)) {
+            return derivative;
+        }
+        // Concurrent requests for the same missing derivative share one generation.
+        CompletableFuture<Path> generation = new CompletableFuture<>();
+        CompletableFuture<Path> existing = inFlight.putIfAbsent(derivative, generation);
+        if (existing != null) {
+            try {
+                return existing.join();
+            } catch (CompletionException e) {
+                // Fail like the request that ran the generation.
+                throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not resize image",
+                        e.getCause());
+            }
+        }
+        if (onRequestThread && !lazyGenerations.tryAcquire()) {
+            inFlight.remove(derivative);
+            generation.complete(original);
+            generateAsync(original);
+            return original;
+        }
+        try {
+            Path result = generate(original, derivative, maxEdge) ? derivative : original;
+            generation.complete(result);
+            return result;
+        } catch (IOException | RuntimeException e) {
+            generation.completeExceptionally(e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Could not resize image", e);
+        } finally {
+            inFlight.remove(derivative);
+            if (onRequestThread) {
+                lazyGenerations.release();
+            }
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Writes the derivative, returning false if the original is not an image
+     * ImageIO can decode or is over the pixel limit (the caller then serves
+     * the original). The size comes from the image header, so a small file
+     * that would decode to gigabytes of pixels is refused before decoding.
+     */
+    private boolean generate(Path original, Path derivative, int maxEdge) throws IOException {
+        BufferedImage source;
+        try (ImageInputStream in = ImageIO.createImageInputStream(original.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : null;
+            if (readers == null || !readers.hasNext()) {
+                return false;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    log.warn("Not resizing {}: {}x{} is over the {} pixel limit", original, width, height, maxPixels);
+                    return false;
+                }
+                source = reader.read(0);
+            } finally {
+                reader.dispose();
+            }
+        }
+        BufferedImage scaled = scale(source, maxEdge);
+
+        Path temp = derivative.resolveSibling(derivative.getFileName() + "." + UUID.randomUUID() + ".tmp");
+        try {
+            ImageWriter writer = ImageIO.getImageWritersByFormatName("jpeg").next();
+            try (ImageOutputStream out = ImageIO.createImageOutputStream(temp.toFile())) {
+                ImageWriteParam param = writer.getDefaultWriteParam();
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                param.setCompressionQuality(JPEG_QUALITY);
+                writer.setOutput(out);
+                writer.write(null, new IIOImage(scaled, null, null), param);
+            } finally {
+                writer.dispose();
+            }
+            Files.move(temp, derivative, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        return true;
+    }
+
+    /**
+     * Downscales in halving steps, which keeps bilinear filtering from
+     * skipping source pixels on large reductions, and flattens transparency
+     * onto white since JPEG has no alpha channel.
+     */
+    private BufferedImage scale(BufferedImage source, int maxEdge) {
+        double ratio = Math.min(1.0, (double) maxEdge / Math.max(source.getWidth(), source.getHeight()));
+        int targetWidth = Math.max(1, (int) Math.round(source.getWidth() * ratio));
+        int targetHeight = Math.max(1, (int) Math.round(source.getHeight() * ratio));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D graphics = step.createGraphics();
+            graphics.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+            graphics.setColor(Color.WHITE);
+            graphics.fillRect(0, 0, width, height);
+            graphics.drawImage(current, 0, 0, width, height, null);
+            graphics.dispose();
+            current = step;
+        } while (width != targetWidth || height != targetHeight);
+        return current;
+    }
+}
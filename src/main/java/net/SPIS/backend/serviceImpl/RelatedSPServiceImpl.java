@@ -0,0 +1,136 @@
+package net.SPIS.backend.serviceImpl;
+
+import jakarta.annotation.PreDestroy;
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.events.SPCreatedEvent;
+import net.SPIS.backend.search.SimilarityIndex;
+import net.SPIS.backend.service.RelatedSPService;
+import net.SPIS.backend.service.SPService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serves "related SPs" from precomputed top-N lists. The lists are built at
+ * startup and nightly, when the text weights are also brought up to date,
+ * and extended as SPs are created.
+ */
+@Service
+public class RelatedSPServiceImpl implements RelatedSPService {
+
+    private static final Logger log = LoggerFactory.getLogger(RelatedSPServiceImpl.class);
+
+    @Autowired
+    private SPService spService;
+
+    private final int listSize;
+    private final SimilarityIndex.Weights weights;
+    private final ForkJoinPool pool;
+
+    private volatile SimilarityIndex index;
+
+    // SPs created while a rebuild runs, put again into the rebuilt index
+    // before it replaces the current one; null when no rebuild is running.
+    private List<SPDTO> createdDuringRebuild;
+    private final Lock rebuildLock = new ReentrantLock();
+
+    public RelatedSPServiceImpl(@Value("${spis.related.size:10}") int listSize,
+            @Value("${spis.related.text-weight:0.5}") double textWeight,
+            @Value("${spis.related.tag-weight:0.35}") double tagWeight,
+            @Value("${spis.related.adviser-weight:0.15}") double adviserWeight,
+            @Value("${spis.related.parallelism:0}") int parallelism) {
+        this.listSize = listSize;
+        this.weights = new SimilarityIndex.Weights(textWeight, tagWeight, adviserWeight);
+        this.pool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.index = new SimilarityIndex(weights, listSize);
+    }
+
+    @Override
+    public List<SPDTO> getRelatedSPs(Integer spId, int limit) {
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid limit");
+        }
+        List<Integer> spIds = index.related(spId, Math.min(limit, listSize));
+        if (spIds == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "SP not found");
+        }
+        return spIds.isEmpty() ? new ArrayList<>() : spService.getSPsByIds(spIds);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${spis.related.rebuild-cron:0 30 3 * * *}")
+    public void rebuildIndex() {
+        long start = System.nanoTime();
+        rebuildLock.lock();
+        try {
+            createdDuringRebuild = new ArrayList<>();
+        } finally {
+            rebuildLock.unlock();
+        }
+        SimilarityIndex rebuilt = new SimilarityIndex(weights, listSize);
+        try {
+            List<SimilarityIndex.Entry> entries = new ArrayList<>();
+            spService.exportAllSP(sp -> entries.add(entry(sp)));
+            rebuilt.build(entries, pool);
+        } catch (RuntimeException e) {
+            stopRecording();
+            throw e;
+        }
+        rebuildLock.lock();
+        try {
+            // put skips the SPs the export already saw.
+            createdDuringRebuild.forEach(sp -> rebuilt.put(entry(sp)));
+            createdDuringRebuild = null;
+            index = rebuilt;
+        } finally {
+            rebuildLock.unlock();
+        }
+        log.info("Computed related SPs of {} SPs in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener
+    public void onSPCreated(SPCreatedEvent event) {
+        rebuildLock.lock();
+        try {
+            index.put(entry(event.sp()));
+            if (createdDuringRebuild != null) {
+                createdDuringRebuild.add(event.sp());
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void stopRecording() {
+        rebuildLock.lock();
+        try {
+            createdDuringRebuild = null;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    private static SimilarityIndex.Entry entry(SPDTO sp) {
+        return new SimilarityIndex.Entry(sp.getSpId(), SPSearchServiceImpl.terms(sp), sp.getTagIds(),
+                sp.getAdviserId());
+    }
+}
@@ -0,0 +1,38 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Base64;
+
+/**
+ * Opaque keyset cursor for SP listings: the sort order plus the sort key of
+ * the last row returned, encoded as URL-safe base64.
+ */
+record SPCursor(String sort, LocalDate dateIssued, Integer spId) {
+
+    static final String SORT_ID = "id";
+    static final String SORT_DATE_ISSUED = "dateIssued";
+
+    String encode() {
+        String raw = SORT_DATE_ISSUED.equals(sort) ? sort + ":" + dateIssued + ":" + spId : sort + ":" + spId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static SPCursor decode(String cursor, String sort) {
+        try {
+            String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(":");
+            if (!parts[0].equals(sort)) {
+                throw new IllegalArgumentException("Cursor was issued for another sort order");
+            }
+            if (SORT_DATE_ISSUED.equals(sort)) {
+                return new SPCursor(sort, LocalDate.parse(parts[1]), Integer.valueOf(parts[2]));
+            }
+            return new SPCursor(sort, null, Integer.valueOf(parts[1]));
+        } catch (RuntimeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid cursor");
+        }
+    }
+}
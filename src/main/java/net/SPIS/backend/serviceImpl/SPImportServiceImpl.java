@@ -0,0 +1,291 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.SPImportErrorDTO;
+import net.SPIS.backend.DTO.SPImportResultDTO;
+import net.SPIS.backend.events.SPCreatedEvent;
+import net.SPIS.backend.repositories.AdminRepository;
+import net.SPIS.backend.repositories.GroupsRepository;
+import net.SPIS.backend.repositories.SPBulkWriter;
+import net.SPIS.backend.repositories.TagRepository;
+import net.SPIS.backend.service.ContentStoreService;
+import net.SPIS.backend.service.SPImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Bulk SP import. Every referenced uploader, adviser, group and tag is looked
+ * up once for the whole batch, invalid rows are reported and skipped, and the
+ * valid rows are written together by {@link SPBulkWriter}. Rows the database
+ * still rejects are reported the same way; the rest are imported.
+ */
+@Service
+public class SPImportServiceImpl implements SPImportService {
+
+    private static final int MAX_ROWS = 5000;
+
+    // Length of the VARCHAR columns of sp
+    private static final int MAX_TEXT_LENGTH = 255;
+
+    private static final List<String> REQUIRED_COLUMNS = List.of("title", "year", "semester", "dateIssued",
+            "uploadedById", "groupId", "adviserId");
+
+    @Autowired
+    private AdminRepository adminRepository;
+
+    @Autowired
+    private GroupsRepository groupsRepository;
+
+    @Autowired
+    private TagRepository tagRepository;
+
+    @Autowired
+    private SPBulkWriter spBulkWriter;
+
+    @Autowired
+    private ContentStoreService contentStoreService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Override
+    public SPImportResultDTO importSPs(List<SPDTO> sps) {
+        if (sps == null || sps.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No SPs to import");
+        }
+        checkSize(sps.size());
+        List<SPImportErrorDTO> errors = new ArrayList<>();
+        for (int i = 0; i < sps.size(); i++) {
+            if (sps.get(i) == null) {
+                errors.add(new SPImportErrorDTO(i + 1, "Row is empty"));
+            }
+        }
+        return importRows(new ArrayList<>(sps), errors);
+    }
+
+    @Override
+    public SPImportResultDTO importSPsFromCsv(Reader csv) throws IOException {
+        CsvReader reader = new CsvReader(new BufferedReader(csv));
+        List<String> header = reader.next();
+        if (header == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV is empty");
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(), i);
+        }
+        for (String column : REQUIRED_COLUMNS) {
+            if (!columns.containsKey(column.toLowerCase())) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "CSV is missing column: " + column);
+            }
+        }
+
+        // Rows that fail to parse stay in the list as null so row numbers line up.
+        List<SPDTO> sps = new ArrayList<>();
+        List<SPImportErrorDTO> errors = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            checkSize(sps.size() + 1);
+            try {
+                sps.add(parseRecord(record, columns));
+            } catch (IllegalArgumentException e) {
+                sps.add(null);
+                errors.add(new SPImportErrorDTO(sps.size(), e.getMessage()));
+            }
+        }
+        if (sps.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "No SPs to import");
+        }
+        return importRows(sps, errors);
+    }
+
+    private SPImportResultDTO importRows(List<SPDTO> sps, List<SPImportErrorDTO> errors) {
+        Set<Integer> adminIds = new HashSet<>();
+        Set<Integer> groupIds = new HashSet<>();
+        Set<Integer> tagIds = new HashSet<>();
+        for (SPDTO sp : sps) {
+            if (sp != null) {
+                adminIds.add(sp.getUploadedById());
+                adminIds.add(sp.getAdviserId());
+                groupIds.add(sp.getGroupId());
+                if (sp.getTagIds() != null) {
+                    tagIds.addAll(sp.getTagIds());
+                }
+            }
+        }
+        adminIds.remove(null);
+        groupIds.remove(null);
+        tagIds.remove(null);
+
+        Map<Integer, String> roles = new HashMap<>();
+        adminRepository.findRolesByIds(adminIds).forEach(row -> roles.put((Integer) row[0], (String) row[1]));
+        Set<Integer> existingGroups = new HashSet<>(groupsRepository.findExistingIds(groupIds));
+        Set<Integer> existingTags = new HashSet<>(tagRepository.findExistingIds(tagIds));
+
+        List<SPDTO> valid = new ArrayList<>();
+        List<Integer> validRows = new ArrayList<>();
+        for (int i = 0; i < sps.size(); i++) {
+            SPDTO sp = sps.get(i);
+            if (sp == null) {
+                continue; // already reported
+            }
+            String error = validate(sp, roles, existingGroups, existingTags);
+            if (error == null) {
+                error = retainDocument(sp);
+            }
+            if (error != null) {
+                errors.add(new SPImportErrorDTO(i + 1, error));
+            } else {
+                valid.add(sp);
+                validRows.add(i + 1);
+            }
+        }
+
+        List<SPDTO> created = new ArrayList<>();
+        if (!valid.isEmpty()) {
+            Map<Integer, String> failures = spBulkWriter.insert(valid);
+            for (int i = 0; i < valid.size(); i++) {
+                if (failures.containsKey(i)) {
+                    contentStoreService.release(valid.get(i).getDocumentPath());
+                    errors.add(new SPImportErrorDTO(validRows.get(i), "Could not be stored: " + failures.get(i)));
+                } else {
+                    created.add(valid.get(i));
+                }
+            }
+            created.forEach(sp -> eventPublisher.publishEvent(new SPCreatedEvent(sp)));
+        }
+        errors.sort((a, b) -> Integer.compare(a.getRow(), b.getRow()));
+        return new SPImportResultDTO(sps.size(), created.size(), created, errors);
+    }
+
+    // Referenced uploads are retained before the rows are written, as in
+    // SPServiceImpl.createSP; rows that are not stored release them again.
+    private String retainDocument(SPDTO sp) {
+        try {
+            contentStoreService.retain(sp.getDocumentPath());
+            return null;
+        } catch (ResponseStatusException e) {
+            return e.getReason();
+        }
+    }
+
+    // Same rules as SPServiceImpl.createSP, checked against the batch lookups
+    private String validate(SPDTO sp, Map<Integer, String> roles, Set<Integer> groups, Set<Integer> tags) {
+        if (sp.getTitle() == null || sp.getTitle().isBlank()) {
+            return "Title is required";
+        }
+        if (sp.getYear() == null || sp.getSemester() == null || sp.getDateIssued() == null) {
+            return "Year, semester and dateIssued are required";
+        }
+        Map<String, String> texts = new LinkedHashMap<>();
+        texts.put("title", sp.getTitle());
+        texts.put("semester", sp.getSemester());
+        texts.put("uri", sp.getUri());
+        texts.put("documentPath", sp.getDocumentPath());
+        for (Map.Entry<String, String> text : texts.entrySet()) {
+            if (text.getValue() != null && text.getValue().length() > MAX_TEXT_LENGTH) {
+                return text.getKey() + " is longer than " + MAX_TEXT_LENGTH + " characters";
+            }
+        }
+        if (sp.getUploadedById() == null || !roles.containsKey(sp.getUploadedById())) {
+            return "Uploader not found";
+        }
+        if (!"staff".equals(roles.get(sp.getUploadedById()))) {
+            return "Uploader must be a staff member";
+        }
+        if (sp.getGroupId() == null || !groups.contains(sp.getGroupId())) {
+            return "Group not found";
+        }
+        if (sp.getAdviserId() == null || !roles.containsKey(sp.getAdviserId())) {
+            return "Adviser not found";
+        }
+        if (!"faculty".equals(roles.get(sp.getAdviserId()))) {
+            return "Adviser must be a faculty member";
+        }
+        if (sp.getTagIds() != null) {
+            for (Integer tagId : sp.getTagIds()) {
+                if (!tags.contains(tagId)) {
+                    return "Tag not found: " + tagId;
+                }
+            }
+        }
+        return null;
+    }
+
+    private SPDTO parseRecord(List<String> record, Map<String, Integer> columns) {
+        SPDTO sp = new SPDTO();
+        sp.setTitle(text(record, columns, "title"));
+        sp.setYear(integer(record, columns, "year"));
+        sp.setSemester(text(record, columns, "semester"));
+        sp.setAbstractText(text(record, columns, "abstractText"));
+        sp.setUri(text(record, columns, "uri"));
+        sp.setDocumentPath(text(record, columns, "documentPath"));
+        String dateIssued = text(record, columns, "dateIssued");
+        try {
+            sp.setDateIssued(dateIssued != null ? LocalDate.parse(dateIssued) : null);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid dateIssued: " + dateIssued);
+        }
+        sp.setUploadedById(integer(record, columns, "uploadedById"));
+        sp.setGroupId(integer(record, columns, "groupId"));
+        sp.setAdviserId(integer(record, columns, "adviserId"));
+
+        String tagIds = text(record, columns, "tagIds");
+        if (tagIds != null) {
+            Set<Integer> ids = new LinkedHashSet<>();
+            for (String id : tagIds.split(";")) {
+                if (!id.isBlank()) {
+                    ids.add(parseInt("tagIds", id));
+                }
+            }
+            sp.setTagIds(ids);
+        }
+        return sp;
+    }
+
+    private String text(List<String> record, Map<String, Integer> columns, String column) {
+        Integer index = columns.get(column.toLowerCase());
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private Integer integer(List<String> record, Map<String, Integer> columns, String column) {
+        String value = text(record, columns, column);
+        return value != null ? parseInt(column, value) : null;
+    }
+
+    private Integer parseInt(String column, String value) {
+        try {
+            return Integer.valueOf(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid " + column + ": " + value);
+        }
+    }
+
+    private void checkSize(int rows) {
+        if (rows > MAX_ROWS) {
+            throw new ResponseStatusException(HttpStatus.PAYLOAD_TOO_LARGE,
+                    "At most " + MAX_ROWS + " SPs can be imported at once");
+        }
+    }
+}
@@ -0,0 +1,161 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.SPSearchResultDTO;
+import net.SPIS.backend.events.SPCreatedEvent;
+import net.SPIS.backend.events.SPDocumentChangedEvent;
+import net.SPIS.backend.events.SPDocumentExtractedEvent;
+import net.SPIS.backend.search.InvertedIndex;
+import net.SPIS.backend.search.TextAnalyzer;
+import net.SPIS.backend.service.DocumentTextService;
+import net.SPIS.backend.service.SPSearchService;
+import net.SPIS.backend.service.SPService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Full-text search over SP titles, abstracts and the text extracted from
+ * their papers, served from an in-memory BM25 index that is built at startup
+ * and updated as SPs are created and their papers extracted.
+ */
+@Service
+public class SPSearchServiceImpl implements SPSearchService {
+
+    private static final Logger log = LoggerFactory.getLogger(SPSearchServiceImpl.class);
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @Autowired
+    private SPService spService;
+
+    @Autowired
+    private DocumentTextService documentTextService;
+
+    private volatile InvertedIndex index = new InvertedIndex();
+
+    // Puts made while a rebuild runs, applied again in order to the rebuilt
+    // index before it replaces the current one; null when no rebuild is running.
+    private List<Put> putsDuringRebuild;
+    private final Lock rebuildLock = new ReentrantLock();
+
+    @Override
+    public SPSearchResultDTO search(String query, int page, int size) {
+        if (page < 0 || size < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page or size");
+        }
+        int pageSize = Math.min(size, MAX_PAGE_SIZE);
+        List<InvertedIndex.Hit> hits = index.search(TextAnalyzer.analyze(query));
+
+        int from = (int) Math.min((long) page * pageSize, hits.size());
+        int to = Math.min(from + pageSize, hits.size());
+        List<Integer> spIds = hits.subList(from, to).stream().map(InvertedIndex.Hit::docId)
+                .collect(Collectors.toList());
+        List<SPDTO> items = spIds.isEmpty() ? new ArrayList<>() : spService.getSPsByIds(spIds);
+        return new SPSearchResultDTO(query, hits.size(), page, pageSize, items);
+    }
+
+    @Override
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildIndex() {
+        long start = System.nanoTime();
+        rebuildLock.lock();
+        try {
+            putsDuringRebuild = new ArrayList<>();
+        } finally {
+            rebuildLock.unlock();
+        }
+        InvertedIndex rebuilt = new InvertedIndex();
+        try {
+            spService.exportAllSP(sp -> rebuilt.put(sp.getSpId(),
+                    terms(sp, documentTextService.getIndexableText(sp.getSpId()))));
+        } catch (RuntimeException e) {
+            stopRecording();
+            throw e;
+        }
+        rebuildLock.lock();
+        try {
+            putsDuringRebuild.forEach(put -> rebuilt.put(put.spId(), put.terms()));
+            putsDuringRebuild = null;
+            index = rebuilt;
+        } finally {
+            rebuildLock.unlock();
+        }
+        log.info("Indexed {} SPs for search in {} ms", rebuilt.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @EventListener
+    public void onSPCreated(SPCreatedEvent event) {
+        put(event.sp().getSpId(), terms(event.sp()));
+    }
+
+    @EventListener
+    public void onDocumentExtracted(SPDocumentExtractedEvent event) {
+        reindex(event.spId());
+    }
+
+    // Drops the old document's terms until the new one has been extracted
+    @EventListener
+    public void onDocumentChanged(SPDocumentChangedEvent event) {
+        reindex(event.spId());
+    }
+
+    private void reindex(Integer spId) {
+        for (SPDTO sp : spService.getSPsByIds(List.of(spId))) {
+            put(sp.getSpId(), terms(sp, documentTextService.getIndexableText(sp.getSpId())));
+        }
+    }
+
+    private void put(Integer spId, List<String> terms) {
+        rebuildLock.lock();
+        try {
+            index.put(spId, terms);
+            if (putsDuringRebuild != null) {
+                putsDuringRebuild.add(new Put(spId, terms));
+            }
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    private void stopRecording() {
+        rebuildLock.lock();
+        try {
+            putsDuringRebuild = null;
+        } finally {
+            rebuildLock.unlock();
+        }
+    }
+
+    /**
+     * Title terms are indexed twice so a title match outranks the same term
+     * appearing once in an abstract.
+     */
+    static List<String> terms(SPDTO sp) {
+        List<String> titleTerms = TextAnalyzer.analyze(sp.getTitle());
+        List<String> terms = new ArrayList<>(titleTerms);
+        terms.addAll(titleTerms);
+        terms.addAll(TextAnalyzer.analyze(sp.getAbstractText()));
+        return terms;
+    }
+
+    static List<String> terms(SPDTO sp, String documentText) {
+        List<String> terms = terms(sp);
+        terms.addAll(TextAnalyzer.analyze(documentText));
+        return terms;
+    }
+
+    private record Put(int spId, List<String> terms) {
+    }
+}
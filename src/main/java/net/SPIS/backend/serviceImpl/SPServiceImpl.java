@@ -2,23 +2,38 @@ package net.SPIS.backend.serviceImpl;
 
 import net.SPIS.backend.DTO.*;
 import net.SPIS.backend.entities.*;
+import net.SPIS.backend.events.SPCreatedEvent;
+import net.SPIS.backend.events.SPDocumentChangedEvent;
 import net.SPIS.backend.repositories.*;
+import net.SPIS.backend.service.ContentStoreService;
 import net.SPIS.backend.service.SPService;
+import org.roaringbitmap.RoaringBitmap;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.PageRequest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.web.server.ResponseStatusException;
 
 import jakarta.transaction.Transactional;
-import org.springframework.data.domain.Pageable;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class SPServiceImpl implements SPService {
 
+    private static final int DEFAULT_PAGE_SIZE = 50;
+    private static final int MAX_PAGE_SIZE = 500;
+
     @Autowired
     private SPRepository spRepository;
 
@@ -31,39 +46,108 @@ public class SPServiceImpl implements SPService {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private StudentRepository studentRepository;
+
+    @Autowired
+    private ViewCountBuffer viewCountBuffer;
+
+    @Autowired
+    private TagPostingsIndex tagPostingsIndex;
+
+    @Autowired
+    private ViewLeaderboard viewLeaderboard;
+
+    @Autowired
+    private ViewEventPipeline viewEventPipeline;
+
+    @Autowired
+    private ViewDeduplicator viewDeduplicator;
+
+    @Autowired
+    private SPViewRollupRepository spViewRollupRepository;
+
+    @Autowired
+    private ContentStoreService contentStoreService;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Weak, because only the SP's flushed view count goes into it: its views
+     * since the last flush are not reflected until the next one, instead of
+     * changing the ETag on every read. Views of other SPs leave it alone.
+     */
+    @Override
+    public String getSPETag(Integer spId) {
+        EntityVersion version = spRepository.findVersionById(spId);
+        if (!version.exists()) {
+            return null;
+        }
+        // Tag deletions change tagIds without touching the SP row.
+        Integer views = spRepository.findViewCountById(spId);
+        return EntityVersion.weakETag("sp-" + spId + "-v" + Integer.toHexString(views), version,
+                tagRepository.findVersion());
+    }
+
+    // Students are included for the student and faculty listings, which
+    // depend on group membership.
+    @Override
+    public String getSPListETag() {
+        return EntityVersion.weakETag("sps" + viewVersion(), spRepository.findVersion(),
+                tagRepository.findVersion(), studentRepository.findVersion());
+    }
+
+    // Flushed view counts do not touch updated_at. Any SP's views can reorder
+    // or change the list, so it follows every flush.
+    private String viewVersion() {
+        return "-v" + Long.toHexString(viewCountBuffer.generation());
+    }
+
     @Override
     public SPDTO getSP(Integer spId) {
-        SP sp = spRepository.findById(spId)
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "SP not found"));
+        return getSP(spId, null);
+    }
+
+    @Override
+    public SPDTO getSP(Integer spId, String viewerKey) {
+        // Row projection instead of the entity, so no lazy tag collection is
+        // touched outside a session (open-in-view is off in virtual-thread mode).
+        List<SPRow> rows = spRepository.findRowsByIds(List.of(spId));
+        if (rows.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "SP not found");
+        }
 
-        incrementViewCount(spId); // ✅ Increment view count when SP is retrieved
+        incrementViewCount(spId, viewerKey); // ✅ Increment view count when SP is retrieved
 
-        return toDTO(sp);
+        return toDTOs(rows).get(0);
     }
 
     @Override
     public List<SPDTO> getAllSP() {
-        return spRepository.findAll().stream().map(this::toDTO).collect(Collectors.toList());
+        return toDTOs(spRepository.findAllRows(), spRepository.findAllTagIdPairs());
+    }
+
+    @Override
+    public List<SPDTO> getSPsByIds(List<Integer> spIds) {
+        Map<Integer, SPDTO> byId = new HashMap<>();
+        toDTOs(spRepository.findRowsByIds(spIds)).forEach(dto -> byId.put(dto.getSpId(), dto));
+        return spIds.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
 
     @Override
     public List<SPDTO> getSPFromAdviser(Integer adviserId) {
-        return spRepository.findByAdviserAdminId(adviserId).stream().map(this::toDTO).collect(Collectors.toList());
+        return toDTOs(spRepository.findRowsByAdviserId(adviserId));
     }
 
     @Override
     public List<SPDTO> getSPFromStudent(Integer studentId) {
-        return spRepository.findByGroupStudentsStudentId(studentId).stream().map(this::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(spRepository.findRowsByStudentId(studentId));
     }
 
     @Override
     public List<SPDTO> getSPFromFaculty(Integer facultyId) {
-        List<Groups> groups = groupsRepository.findByStudentsFacultyFacultyId(facultyId);
-        // Example logic: Fetch SPs linked to these groups
-        return spRepository.findByGroupStudentsFacultyFacultyId(facultyId).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        return toDTOs(spRepository.findRowsByFacultyId(facultyId));
     }
 
     @Override
@@ -105,7 +189,17 @@ public class SPServiceImpl implements SPService {
                     .collect(Collectors.toSet()));
         }
 
-        return toDTO(spRepository.save(sp));
+        // Fails if the uploaded document has been collected in the meantime
+        contentStoreService.retain(sp.getDocumentPath());
+        SPDTO created;
+        try {
+            created = toDTO(spRepository.save(sp));
+        } catch (RuntimeException e) {
+            contentStoreService.release(sp.getDocumentPath());
+            throw e;
+        }
+        eventPublisher.publishEvent(new SPCreatedEvent(created));
+        return created;
     }
 
     @Override
@@ -113,16 +207,149 @@ public class SPServiceImpl implements SPService {
         if (tagIds == null || tagIds.isEmpty()) {
             return getAllSP();
         }
-        return spRepository.findByTagsTagIdIn(tagIds).stream().map(this::toDTO).collect(Collectors.toList());
+        List<Integer> spIds = new ArrayList<>();
+        tagPostingsIndex.anyOf(tagIds).forEach((int spId) -> spIds.add(spId));
+        return spIds.isEmpty() ? new ArrayList<>() : getSPsByIds(spIds);
+    }
+
+    @Override
+    public TagQueryResultDTO querySPsByTags(TagQueryDTO query) {
+        if (query.getPage() < 0 || query.getSize() < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page or size");
+        }
+        int pageSize = Math.min(query.getSize(), MAX_PAGE_SIZE);
+        RoaringBitmap result = tagPostingsIndex.query(query);
+        int total = result.getCardinality();
+
+        // select(rank) jumps straight to the first SP of the page.
+        List<Integer> spIds = new ArrayList<>();
+        long from = (long) query.getPage() * pageSize;
+        for (long rank = from; rank < Math.min(from + pageSize, total); rank++) {
+            spIds.add(result.select((int) rank));
+        }
+        List<SPDTO> items = spIds.isEmpty() ? new ArrayList<>() : getSPsByIds(spIds);
+        return new TagQueryResultDTO(total, query.getPage(), pageSize, items, tagPostingsIndex.tagCounts(result));
+    }
+
+    @Override
+    public SPPageDTO getAllSP(String cursor, Integer limit, String sort) {
+        return page(SPListFilter.all(), cursor, limit, sort);
+    }
+
+    @Override
+    public SPPageDTO getSPFromAdviser(Integer adviserId, String cursor, Integer limit, String sort) {
+        return page(SPListFilter.byAdviser(adviserId), cursor, limit, sort);
+    }
+
+    @Override
+    public SPPageDTO getSPFromStudent(Integer studentId, String cursor, Integer limit, String sort) {
+        return page(SPListFilter.byStudent(studentId), cursor, limit, sort);
+    }
+
+    @Override
+    public SPPageDTO getSPFromFaculty(Integer facultyId, String cursor, Integer limit, String sort) {
+        return page(SPListFilter.byFaculty(facultyId), cursor, limit, sort);
+    }
+
+    @Override
+    public SPPageDTO getSPsWithTags(List<Integer> tagIds, String cursor, Integer limit, String sort) {
+        return page(SPListFilter.byTags(tagIds), cursor, limit, sort);
+    }
+
+    @Override
+    public List<SPSummaryDTO> getAllSPSummaries() {
+        return summaries(SPListFilter.all());
+    }
+
+    @Override
+    public List<SPSummaryDTO> getSPSummariesFromAdviser(Integer adviserId) {
+        return summaries(SPListFilter.byAdviser(adviserId));
+    }
+
+    @Override
+    public List<SPSummaryDTO> getSPSummariesFromStudent(Integer studentId) {
+        return summaries(SPListFilter.byStudent(studentId));
+    }
+
+    @Override
+    public List<SPSummaryDTO> getSPSummariesFromFaculty(Integer facultyId) {
+        return summaries(SPListFilter.byFaculty(facultyId));
+    }
+
+    @Override
+    public List<SPSummaryDTO> getSPSummariesWithTags(List<Integer> tagIds) {
+        return summaries(SPListFilter.byTags(tagIds));
+    }
+
+    private List<SPSummaryDTO> summaries(SPListFilter filter) {
+        return toDTOs(spRepository.findSummaryRows(filter)).stream()
+                .map(dto -> new SPSummaryDTO(dto.getSpId(), dto.getTitle(), dto.getYear(), dto.getSemester(),
+                        dto.getUri(), dto.getDocumentPath(), dto.getDateIssued(), dto.getUploadedById(),
+                        dto.getGroupId(), dto.getAdviserId(), dto.getTagIds(), dto.getViewCount()))
+                .collect(Collectors.toList());
+    }
+
+    private SPPageDTO page(SPListFilter filter, String cursor, Integer limit, String sort) {
+        String order = sort != null ? sort : SPCursor.SORT_ID;
+        if (!SPCursor.SORT_ID.equals(order) && !SPCursor.SORT_DATE_ISSUED.equals(order)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported sort: " + sort);
+        }
+        int pageSize = Math.min(Math.max(limit != null ? limit : DEFAULT_PAGE_SIZE, 1), MAX_PAGE_SIZE);
+        SPCursor after = cursor != null ? SPCursor.decode(cursor, order) : null;
+
+        List<SPRow> rows = SPCursor.SORT_ID.equals(order)
+                ? spRepository.findRowsAfterId(filter, after != null ? after.spId() : null, pageSize)
+                : spRepository.findRowsBeforeDate(filter, after != null ? after.dateIssued() : null,
+                        after != null ? after.spId() : null, pageSize);
+
+        String nextCursor = null;
+        if (rows.size() == pageSize) {
+            SPRow last = rows.get(rows.size() - 1);
+            nextCursor = new SPCursor(order, last.dateIssued(), last.spId()).encode();
+        }
+        return new SPPageDTO(toDTOs(rows), nextCursor);
+    }
+
+    @Override
+    @Transactional
+    public void exportAllSP(Consumer<SPDTO> consumer) {
+        // Tag pairs arrive in the same spId order as the rows, so each row's
+        // tags are collected by advancing the second cursor alongside the first.
+        try (Stream<SPRow> rows = spRepository.streamAllRows();
+                Stream<Object[]> tagIdPairs = spRepository.streamAllTagIdPairs()) {
+            Iterator<Object[]> pairs = tagIdPairs.iterator();
+            Object[] pair = pairs.hasNext() ? pairs.next() : null;
+            for (Iterator<SPRow> it = rows.iterator(); it.hasNext();) {
+                SPRow row = it.next();
+                Set<Integer> tagIds = new HashSet<>();
+                while (pair != null && (Integer) pair[0] <= row.spId()) {
+                    if (pair[0].equals(row.spId())) {
+                        tagIds.add((Integer) pair[1]);
+                    }
+                    pair = pairs.hasNext() ? pairs.next() : null;
+                }
+                consumer.accept(toDTO(row, tagIds));
+            }
+        }
     }
 
     /**
-     * ✅ Increment SP view count when accessed.
+     * ✅ Increment SP view count when accessed. The view is buffered and
+     * written to the database by {@link ViewCountBuffer#flush()}.
      */
     @Override
-    @Transactional
     public void incrementViewCount(Integer spId) {
-        spRepository.incrementViewCountById(spId);
+        viewCountBuffer.increment(spId);
+        viewLeaderboard.recordView(spId);
+        // Analytics may drop views under load; the all-time count above does not.
+        viewEventPipeline.publish(spId);
+    }
+
+    @Override
+    public void incrementViewCount(Integer spId, String viewerKey) {
+        if (viewDeduplicator.firstView(viewerKey, spId)) {
+            incrementViewCount(spId);
+        }
     }
 
     /**
@@ -130,13 +357,11 @@ public class SPServiceImpl implements SPService {
      */
     @Override
     public List<SPDTO> getMostViewedSPs(Integer limit) {
-        PageRequest pageable = PageRequest.of(0, 5); // Get 'limit' results from page 0
-        return spRepository.findTopSPs(pageable).stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        List<Integer> spIds = viewLeaderboard.topSPs(limit);
+        return spIds.isEmpty() ? new ArrayList<>() : getSPsByIds(spIds);
     }
 
-    private SPDTO toDTO(SP sp) {
+    SPDTO toDTO(SP sp) {
         SPDTO dto = new SPDTO();
         dto.setSpId(sp.getSpId());
         dto.setTitle(sp.getTitle());
@@ -150,7 +375,46 @@ public class SPServiceImpl implements SPService {
         dto.setGroupId(sp.getGroup().getGroupId());
         dto.setAdviserId(sp.getAdviser().getAdminId());
         dto.setTagIds(sp.getTags().stream().map(Tag::getTagId).collect(Collectors.toSet()));
-        dto.setViewCount(sp.getViewCount());
+        dto.setViewCount(currentViewCount(sp));
+        return dto;
+    }
+
+    /**
+     * Maps listing rows to DTOs, loading the tag ids of all rows in one query.
+     */
+    private List<SPDTO> toDTOs(List<SPRow> rows) {
+        if (rows.isEmpty()) {
+            return new ArrayList<>();
+        }
+        List<Integer> spIds = rows.stream().map(SPRow::spId).collect(Collectors.toList());
+        return toDTOs(rows, spRepository.findTagIdPairs(spIds));
+    }
+
+    List<SPDTO> toDTOs(List<SPRow> rows, List<Object[]> tagIdPairs) {
+        Map<Integer, Set<Integer>> tagIds = new HashMap<>();
+        for (Object[] pair : tagIdPairs) {
+            tagIds.computeIfAbsent((Integer) pair[0], id -> new HashSet<>()).add((Integer) pair[1]);
+        }
+        return rows.stream()
+                .map(row -> toDTO(row, tagIds.getOrDefault(row.spId(), new HashSet<>())))
+                .collect(Collectors.toList());
+    }
+
+    SPDTO toDTO(SPRow row, Set<Integer> tagIds) {
+        SPDTO dto = new SPDTO();
+        dto.setSpId(row.spId());
+        dto.setTitle(row.title());
+        dto.setYear(row.year());
+        dto.setSemester(row.semester());
+        dto.setAbstractText(row.abstractText());
+        dto.setUri(row.uri());
+        dto.setDocumentPath(row.documentPath());
+        dto.setDateIssued(row.dateIssued());
+        dto.setUploadedById(row.uploadedById());
+        dto.setGroupId(row.groupId());
+        dto.setAdviserId(row.adviserId());
+        dto.setTagIds(tagIds);
+        dto.setViewCount((int) (row.viewCount() + viewCountBuffer.pending(row.spId())));
         return dto;
     }
 
@@ -158,18 +422,97 @@ public class SPServiceImpl implements SPService {
     public Integer getSPViewCount(Integer spId) {
         SP sp = spRepository.findById(spId)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "SP not found"));
-        return sp.getViewCount();
+        return currentViewCount(sp);
+    }
+
+    @Override
+    public String getSPDocumentPath(Integer spId) {
+        String documentPath = spRepository.findDocumentPathBySpId(spId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "SP not found"));
+        if (documentPath.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "SP has no document");
+        }
+        return documentPath;
+    }
+
+    @Override
+    public SPDTO updateSPDocumentPath(Integer spId, String documentPath) {
+        SP sp = spRepository.findById(spId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "SP not found"));
+        String normalized = documentPath == null || documentPath.isBlank() ? null : documentPath.trim();
+        if (Objects.equals(normalized, sp.getDocumentPath())) {
+            return toDTO(sp);
+        }
+        String previous = sp.getDocumentPath();
+        sp.setDocumentPath(normalized);
+        contentStoreService.retain(normalized);
+        SPDTO updated;
+        try {
+            updated = toDTO(spRepository.save(sp));
+        } catch (RuntimeException e) {
+            contentStoreService.release(normalized);
+            throw e;
+        }
+        contentStoreService.release(previous);
+        eventPublisher.publishEvent(new SPDocumentChangedEvent(spId, normalized, previous));
+        return updated;
+    }
+
+    /**
+     * Stored view count plus the views still waiting in the write-behind buffer.
+     */
+    private Integer currentViewCount(SP sp) {
+        return (int) (sp.getViewCount() + viewCountBuffer.pending(sp.getSpId()));
+    }
+
+    @Override
+    public List<AdviserDTO> getTopAdvisersByViews(Integer limit) {
+        return getAdvisersByIds(viewLeaderboard.topAdvisers(limit));
+    }
+
+    @Override
+    public List<SPDTO> getTrendingSPs(String window, Integer limit) {
+        List<Integer> spIds = viewEventPipeline.trendingSPs(checkWindow(window), limit);
+        return spIds.isEmpty() ? new ArrayList<>() : getSPsByIds(spIds);
+    }
+
+    @Override
+    public List<AdviserDTO> getTrendingAdvisers(String window, Integer limit) {
+        return getAdvisersByIds(viewEventPipeline.trendingAdvisers(checkWindow(window), limit));
     }
 
     @Override
-    public List<AdviserDTO> getTopAdvisersByViews() {
-        Pageable pageable = PageRequest.of(0, 5);
-        List<Object[]> results = spRepository.findTopAdvisersByViews(pageable);
+    public List<SPViewBucketDTO> getSPViewHistory(Integer spId, String granularity) {
+        if (!SPViewRollup.HOUR.equals(granularity) && !SPViewRollup.DAY.equals(granularity)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown granularity: " + granularity);
+        }
+        if (!spRepository.existsById(spId)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "SP not found");
+        }
+        return spViewRollupRepository
+                .findBySpIdAndGranularityAndBucketStartGreaterThanEqualOrderByBucketStart(spId, granularity,
+                        viewEventPipeline.retainedSince(granularity))
+                .stream()
+                .map(rollup -> new SPViewBucketDTO(rollup.getBucketStart(), rollup.getViews()))
+                .collect(Collectors.toList());
+    }
+
+    private String checkWindow(String window) {
+        if (!viewEventPipeline.hasWindow(window)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown window: " + window);
+        }
+        return window;
+    }
+
+    // Advisers in the order of the given ids
+    private List<AdviserDTO> getAdvisersByIds(List<Integer> adviserIds) {
+        Map<Integer, Admin> advisers = new HashMap<>();
+        adminRepository.findAllById(adviserIds).forEach(adviser -> advisers.put(adviser.getAdminId(), adviser));
 
-        return results.stream()
-                .filter(result -> result[1] != null && (Long) result[1] > 0) // Remove 0-view advisers
-                .map(result -> {
-                    Admin adviser = (Admin) result[0];
+        return adviserIds.stream()
+                .map(advisers::get)
+                .filter(Objects::nonNull)
+                .map(adviser -> {
                     AdviserDTO dto = new AdviserDTO();
                     dto.setAdminId(adviser.getAdminId());
                     dto.setFirstName(adviser.getFirstName());
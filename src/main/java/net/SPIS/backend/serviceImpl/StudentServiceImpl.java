@@ -2,9 +2,13 @@ package net.SPIS.backend.serviceImpl;
 
 import net.SPIS.backend.DTO.*;
 import net.SPIS.backend.entities.*;
+import net.SPIS.backend.events.GroupMembershipChangedEvent;
+import net.SPIS.backend.events.StudentCreatedEvent;
+import net.SPIS.backend.events.StudentDeletedEvent;
 import net.SPIS.backend.repositories.*;
 import net.SPIS.backend.service.StudentService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -22,6 +26,9 @@ public class StudentServiceImpl implements StudentService {
     @Autowired
     private GroupsRepository groupsRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
     public List<StudentDTO> getAllStudentsFromFaculty(Integer facultyId) {
         return studentRepository.findByFacultyFacultyId(facultyId).stream().map(this::toDTO)
@@ -39,16 +46,29 @@ public class StudentServiceImpl implements StudentService {
         student.setFirstName(studentDTO.getFirstName());
         student.setLastName(studentDTO.getLastName());
         student.setMiddleName(studentDTO.getMiddleName());
-        student.setFaculty(facultyRepository.findById(studentDTO.getFacultyId()).orElseThrow());
+        student.setFaculty(facultyRepository.findExistingId(studentDTO.getFacultyId())
+                .map(facultyRepository::getReferenceById).orElseThrow());
         if (studentDTO.getGroupId() != null) {
             student.setGroup(groupsRepository.findById(studentDTO.getGroupId()).orElseThrow());
         }
-        return toDTO(studentRepository.save(student));
+        StudentDTO created = toDTO(studentRepository.save(student));
+        eventPublisher.publishEvent(new StudentCreatedEvent(created));
+        if (created.getGroupId() != null) {
+            eventPublisher.publishEvent(new GroupMembershipChangedEvent(created.getGroupId()));
+        }
+        return created;
     }
 
     @Override
     public void deleteStudent(Integer studentId) {
+        Integer groupId = studentRepository.findById(studentId)
+                .map(student -> student.getGroup() != null ? student.getGroup().getGroupId() : null)
+                .orElse(null);
         studentRepository.deleteById(studentId);
+        eventPublisher.publishEvent(new StudentDeletedEvent(studentId));
+        if (groupId != null) {
+            eventPublisher.publishEvent(new GroupMembershipChangedEvent(groupId));
+        }
     }
 
     @Override
@@ -56,7 +76,18 @@ public class StudentServiceImpl implements StudentService {
         return toDTO(studentRepository.findById(studentId).orElseThrow());
     }
 
-    private StudentDTO toDTO(Student student) {
+    @Override
+    public String getStudentETag(Integer studentId) {
+        EntityVersion version = studentRepository.findVersionById(studentId);
+        return version.exists() ? version.etag("student", studentId) : null;
+    }
+
+    @Override
+    public String getStudentListETag() {
+        return EntityVersion.weakETag("students", studentRepository.findVersion());
+    }
+
+    StudentDTO toDTO(Student student) {
         StudentDTO dto = new StudentDTO();
         dto.setStudentId(student.getStudentId());
         dto.setFirstName(student.getFirstName());
@@ -0,0 +1,181 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.TagQueryDTO;
+import net.SPIS.backend.events.SPCreatedEvent;
+import net.SPIS.backend.events.TagDeletedEvent;
+import net.SPIS.backend.repositories.SPRepository;
+import net.SPIS.backend.repositories.SPRow;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory postings of SP ids per tag, year, semester and adviser, stored as
+ * compressed (Roaring) bitmaps. Tag expressions and attribute filters are
+ * answered with bitmap AND/OR/ANDNOT operations instead of joins through
+ * {@code sp_tags}.
+ */
+@Component
+public class TagPostingsIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TagPostingsIndex.class);
+
+    private final SPRepository spRepository;
+
+    private final RoaringBitmap allSPs = new RoaringBitmap();
+    private final Map<Integer, RoaringBitmap> byTag = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> byYear = new HashMap<>();
+    private final Map<String, RoaringBitmap> bySemester = new HashMap<>();
+    private final Map<Integer, RoaringBitmap> byAdviser = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    public TagPostingsIndex(SPRepository spRepository) {
+        this.spRepository = spRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        List<SPRow> rows = spRepository.findAllRows();
+        List<Object[]> tagIdPairs = spRepository.findAllTagIdPairs();
+        lock.writeLock().lock();
+        try {
+            allSPs.clear();
+            byTag.clear();
+            byYear.clear();
+            bySemester.clear();
+            byAdviser.clear();
+            for (SPRow row : rows) {
+                addAttributes(row.spId(), row.year(), row.semester(), row.adviserId());
+            }
+            for (Object[] pair : tagIdPairs) {
+                byTag.computeIfAbsent((Integer) pair[1], id -> new RoaringBitmap()).add((Integer) pair[0]);
+            }
+            byTag.values().forEach(RoaringBitmap::runOptimize);
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Indexed tags of {} SPs", rows.size());
+    }
+
+    @EventListener
+    public void onSPCreated(SPCreatedEvent event) {
+        SPDTO sp = event.sp();
+        lock.writeLock().lock();
+        try {
+            addAttributes(sp.getSpId(), sp.getYear(), sp.getSemester(), sp.getAdviserId());
+            if (sp.getTagIds() != null) {
+                for (Integer tagId : sp.getTagIds()) {
+                    byTag.computeIfAbsent(tagId, id -> new RoaringBitmap()).add(sp.getSpId());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onTagDeleted(TagDeletedEvent event) {
+        lock.writeLock().lock();
+        try {
+            byTag.remove(event.tagId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * SPs carrying at least one of the tags.
+     */
+    public RoaringBitmap anyOf(Collection<Integer> tagIds) {
+        lock.readLock().lock();
+        try {
+            return union(tagIds);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Evaluates the tag expression and filters of the query.
+     */
+    public RoaringBitmap query(TagQueryDTO query) {
+        lock.readLock().lock();
+        try {
+            RoaringBitmap result = allSPs.clone();
+            if (query.getAll() != null) {
+                for (Integer tagId : Set.copyOf(query.getAll())) {
+                    result.and(byTag.getOrDefault(tagId, new RoaringBitmap()));
+                }
+            }
+            if (query.getAny() != null && !query.getAny().isEmpty()) {
+                result.and(union(query.getAny()));
+            }
+            if (query.getNone() != null) {
+                result.andNot(union(query.getNone()));
+            }
+            if (query.getYear() != null) {
+                result.and(byYear.getOrDefault(query.getYear(), new RoaringBitmap()));
+            }
+            if (query.getSemester() != null) {
+                result.and(bySemester.getOrDefault(query.getSemester(), new RoaringBitmap()));
+            }
+            if (query.getAdviserId() != null) {
+                result.and(byAdviser.getOrDefault(query.getAdviserId(), new RoaringBitmap()));
+            }
+            return result;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of SPs in the result set carrying each tag, for tags with at
+     * least one SP in the result.
+     */
+    public Map<Integer, Integer> tagCounts(RoaringBitmap result) {
+        Map<Integer, Integer> counts = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            byTag.forEach((tagId, sps) -> {
+                int count = (int) RoaringBitmap.andCardinality(result, sps);
+                if (count > 0) {
+                    counts.put(tagId, count);
+                }
+            });
+        } finally {
+            lock.readLock().unlock();
+        }
+        return counts;
+    }
+
+    private RoaringBitmap union(Collection<Integer> tagIds) {
+        RoaringBitmap result = new RoaringBitmap();
+        for (Integer tagId : tagIds) {
+            RoaringBitmap sps = byTag.get(tagId);
+            if (sps != null) {
+                result.or(sps);
+            }
+        }
+        return result;
+    }
+
+    private void addAttributes(Integer spId, Integer year, String semester, Integer adviserId) {
+        allSPs.add(spId);
+        byYear.computeIfAbsent(year, y -> new RoaringBitmap()).add(spId);
+        bySemester.computeIfAbsent(semester, s -> new RoaringBitmap()).add(spId);
+        byAdviser.computeIfAbsent(adviserId, a -> new RoaringBitmap()).add(spId);
+    }
+}
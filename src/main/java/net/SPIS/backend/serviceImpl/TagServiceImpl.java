@@ -2,9 +2,14 @@ package net.SPIS.backend.serviceImpl;
 
 import net.SPIS.backend.DTO.*;
 import net.SPIS.backend.entities.*;
+import net.SPIS.backend.events.TagCreatedEvent;
+import net.SPIS.backend.events.TagDeletedEvent;
 import net.SPIS.backend.repositories.*;
 import net.SPIS.backend.service.TagService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
@@ -16,21 +21,35 @@ public class TagServiceImpl implements TagService {
     @Autowired
     private TagRepository tagRepository;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Override
+    @Cacheable("tags")
     public List<TagDTO> getAllTags() {
         return tagRepository.findAll().stream().map(this::toDTO).collect(Collectors.toList());
     }
 
     @Override
+    @CacheEvict(value = "tags", allEntries = true)
     public TagDTO createTag(TagDTO tagDTO) {
         Tag tag = new Tag();
         tag.setTagName(tagDTO.getTagName());
-        return toDTO(tagRepository.save(tag));
+        TagDTO created = toDTO(tagRepository.save(tag));
+        eventPublisher.publishEvent(new TagCreatedEvent(created));
+        return created;
     }
 
     @Override
+    @CacheEvict(value = "tags", allEntries = true)
     public void deleteTag(Integer tagId) {
         tagRepository.deleteById(tagId);
+        eventPublisher.publishEvent(new TagDeletedEvent(tagId));
+    }
+
+    @Override
+    public String getTagListETag() {
+        return EntityVersion.weakETag("tags", tagRepository.findVersion());
     }
 
     private TagDTO toDTO(Tag tag) {
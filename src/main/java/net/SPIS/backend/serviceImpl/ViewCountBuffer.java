@@ -0,0 +1,142 @@
+package net.SPIS.backend.serviceImpl;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for SP view counts.
+ *
+ * Views are accumulated per SP in a {@link LongAdder}, so concurrent views of
+ * one popular SP do not contend on a single counter, and written to
+ * {@code sp.view_count} in one batched UPDATE per flush instead of one UPDATE
+ * transaction per view. Each flush writes the growth of the sum since the
+ * previous flush; counters are never reset, so a view that lands during a
+ * flush is simply part of the next one.
+ *
+ * Only ids that may be SPs, according to the {@link ViewLeaderboard}, get a
+ * counter, so the map is bounded by the number of SPs. Views that arrive
+ * before the leaderboard is loaded are accepted for any id; counters of ids
+ * that then turn out not to exist are dropped once flushed.
+ */
+@Component
+public class ViewCountBuffer {
+
+    private static final String FLUSH_SQL = "UPDATE sp SET view_count = view_count + ? WHERE sp_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ViewLeaderboard viewLeaderboard;
+
+    private final Map<Integer, Counter> counters = new ConcurrentHashMap<>();
+
+    // A lock rather than synchronized: a virtual thread blocked on JDBC inside
+    // a synchronized block would pin its carrier thread.
+    private final Lock flushLock = new ReentrantLock();
+
+    // Advanced by every flush that wrote something; only written under flushLock.
+    private volatile long generation;
+
+    public ViewCountBuffer(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            ViewLeaderboard viewLeaderboard) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.viewLeaderboard = viewLeaderboard;
+    }
+
+    public void increment(Integer spId) {
+        if (!viewLeaderboard.mayExist(spId)) {
+            return; // the UPDATE would match no row
+        }
+        Counter counter = counters.get(spId);
+        if (counter == null) {
+            counter = counters.computeIfAbsent(spId, Counter::new);
+        }
+        counter.views.increment();
+    }
+
+    /**
+     * Views recorded for the SP that have not been written to the database yet.
+     */
+    public long pending(Integer spId) {
+        Counter counter = counters.get(spId);
+        return counter != null ? counter.pending() : 0;
+    }
+
+    /**
+     * Changes whenever flushed views reach the database. Goes into the ETag of
+     * the SP listings, so a 304 is never more than one flush interval behind;
+     * single SPs use their own flushed count instead.
+     */
+    public long generation() {
+        return generation;
+    }
+
+    /**
+     * Writes all pending deltas in a single JDBC batch. Only one flush runs at
+     * a time; the batch runs in one transaction and the flushed watermarks are
+     * advanced after it commits, so a failed flush is retried on the next run
+     * without any of its rows having been applied.
+     */
+    @Scheduled(fixedDelayString = "${spis.view-count.flush-interval-ms:5000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Counter> flushing = new ArrayList<>();
+            List<Long> sums = new ArrayList<>();
+            List<Object[]> batch = new ArrayList<>();
+            counters.values().forEach(counter -> {
+                long sum = counter.views.sum();
+                if (sum > counter.flushed) {
+                    flushing.add(counter);
+                    sums.add(sum);
+                    batch.add(new Object[] { sum - counter.flushed, counter.spId });
+                }
+            });
+            if (!batch.isEmpty()) {
+                transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(FLUSH_SQL, batch));
+
+                for (int i = 0; i < flushing.size(); i++) {
+                    flushing.get(i).flushed = sums.get(i);
+                }
+                generation++;
+            }
+
+            counters.keySet().removeIf(spId -> !viewLeaderboard.mayExist(spId));
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void flushOnShutdown() {
+        flush();
+    }
+
+    private static final class Counter {
+        final Integer spId;
+        final LongAdder views = new LongAdder();
+        // Sum already written; only written by the flushing thread.
+        volatile long flushed;
+
+        Counter(Integer spId) {
+            this.spId = spId;
+        }
+
+        long pending() {
+            return views.sum() - flushed;
+        }
+    }
+}
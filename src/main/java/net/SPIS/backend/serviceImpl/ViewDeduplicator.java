@@ -0,0 +1,184 @@
+package net.SPIS.backend.serviceImpl;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Drops repeated views of an SP by the same viewer within a time window.
+ *
+ * Backed by two Bloom filters of fixed size: views are added to the current
+ * generation and looked up in both, and every window the older generation is
+ * cleared and becomes the current one. A repeat view is therefore always
+ * caught within one window and forgotten after at most two. Only hash bits
+ * are kept, never the viewer keys themselves.
+ *
+ * A false positive drops a genuine first view; the filters are sized for
+ * {@code spis.views.dedup.expected-views} distinct views per window at
+ * {@code spis.views.dedup.false-positive-rate}, and the estimated current
+ * rate is published as {@code spis.views.dedup.fpp}.
+ */
+@Component
+public class ViewDeduplicator implements MeterBinder {
+
+    private final boolean enabled;
+    private final int bitCount;
+    private final int hashCount;
+
+    private volatile Generation current;
+    private volatile Generation previous;
+
+    private final LongAdder suppressed = new LongAdder();
+
+    public ViewDeduplicator(@Value("${spis.views.dedup.enabled:true}") boolean enabled,
+            @Value("${spis.views.dedup.expected-views:1000000}") long expectedViews,
+            @Value("${spis.views.dedup.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.enabled = enabled;
+        // Standard Bloom filter sizing: m = -n ln p / (ln 2)^2, k = m / n ln 2.
+        long bits = (long) Math.ceil(-expectedViews * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(1L << 30, Math.max(64, (bits + 63) & ~63L));
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / expectedViews * Math.log(2)));
+        this.current = new Generation(bitCount);
+        this.previous = new Generation(bitCount);
+    }
+
+    /**
+     * Records the view and returns true if it is the viewer's first view of
+     * the SP in the window. Views without a viewer key are always counted.
+     */
+    public boolean firstView(String viewerKey, Integer spId) {
+        if (!enabled || viewerKey == null) {
+            return true;
+        }
+        byte[] key = (viewerKey + '\n' + spId).getBytes(StandardCharsets.UTF_8);
+        long h1 = mix(fnv1a(key));
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+
+        Generation older = previous;
+        Generation newer = current;
+        boolean seenBefore = older.contains(h1, h2, hashCount);
+        // Setting the bits tells us whether they were all set already, so two
+        // concurrent identical views cannot both count.
+        boolean added = newer.add(h1, h2, hashCount);
+        if (seenBefore || !added) {
+            suppressed.increment();
+            return false;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${spis.views.dedup.window-ms:1800000}",
+            initialDelayString = "${spis.views.dedup.window-ms:1800000}")
+    public void rotate() {
+        Generation recycled = previous;
+        previous = current;
+        recycled.clear();
+        current = recycled;
+    }
+
+    /**
+     * Probability that a new view is taken for a repeat, given how full both
+     * generations currently are.
+     */
+    double estimatedFalsePositiveRate() {
+        double currentRate = Math.pow(current.fill(bitCount), hashCount);
+        double previousRate = Math.pow(previous.fill(bitCount), hashCount);
+        return 1 - (1 - currentRate) * (1 - previousRate);
+    }
+
+    long memoryBytes() {
+        return 2L * Generation.words(bitCount) * Long.BYTES;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("spis.views.dedup.fpp", this, ViewDeduplicator::estimatedFalsePositiveRate)
+                .description("Estimated chance that a first view is dropped as a duplicate")
+                .register(registry);
+        Gauge.builder("spis.views.dedup.memory", this, ViewDeduplicator::memoryBytes)
+                .description("Memory held by the view dedup Bloom filters")
+                .baseUnit(BaseUnits.BYTES)
+                .register(registry);
+        FunctionCounter.builder("spis.views.dedup.suppressed", suppressed, LongAdder::sum)
+                .description("Views dropped as repeats within the dedup window")
+                .register(registry);
+    }
+
+    private static long fnv1a(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    // SplitMix64 finalizer, to spread the FNV bits over the whole word.
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    private static final class Generation {
+        private final AtomicLongArray words;
+        private final LongAdder setBits = new LongAdder();
+
+        Generation(int bitCount) {
+            words = new AtomicLongArray(words(bitCount)); // bitCount is a multiple of 64
+        }
+
+        static int words(int bitCount) {
+            return (bitCount + 63) >>> 6;
+        }
+
+        boolean contains(long h1, long h2, int hashCount) {
+            int bitCount = words.length() << 6;
+            for (int i = 0; i < hashCount; i++) {
+                int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+                if ((words.get(bit >>> 6) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Sets the key's bits; returns true if any of them was not set yet.
+         */
+        boolean add(long h1, long h2, int hashCount) {
+            int bitCount = words.length() << 6;
+            boolean changed = false;
+            for (int i = 0; i < hashCount; i++) {
+                int bit = (int) Long.remainderUnsigned(h1 + i * h2, bitCount);
+                long mask = 1L << bit;
+                long before = words.getAndAccumulate(bit >>> 6, mask, (word, m) -> word | m);
+                if ((before & mask) == 0) {
+                    setBits.increment();
+                    changed = true;
+                }
+            }
+            return changed;
+        }
+
+        double fill(int bitCount) {
+            return Math.min(1.0, setBits.sum() / (double) bitCount);
+        }
+
+        void clear() {
+            for (int i = 0; i < words.length(); i++) {
+                words.set(i, 0);
+            }
+            setBits.reset();
+        }
+    }
+}
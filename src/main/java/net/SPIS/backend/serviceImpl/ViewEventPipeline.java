@@ -0,0 +1,340 @@
+package net.SPIS.backend.serviceImpl;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PreDestroy;
+import net.SPIS.backend.entities.SPViewRollup;
+import net.SPIS.backend.events.SPCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Time-windowed view analytics.
+ *
+ * Request threads only offer a view event to a bounded queue; when the queue
+ * is full the event is dropped and counted rather than blocking the request.
+ * A scheduled consumer drains the queue into
+ * <ul>
+ * <li>per-window {@link DecayedRanking}s of SPs and advisers, which answer
+ * the trending endpoints, and</li>
+ * <li>hourly and daily view counts that are upserted into sp_view_rollup in
+ * one batch per flush and expired after their retention period.</li>
+ * </ul>
+ * At startup the rankings are replayed from the hourly rollups, so no raw
+ * events are ever stored or scanned.
+ */
+@Component
+public class ViewEventPipeline implements MeterBinder {
+
+    public static final String DAY_WINDOW = "day";
+    public static final String WEEK_WINDOW = "week";
+
+    private static final long HOUR_MILLIS = Duration.ofHours(1).toMillis();
+    private static final long DAY_MILLIS = Duration.ofDays(1).toMillis();
+
+    // SPs whose decayed score has fallen below half a view are no longer trending.
+    private static final double MIN_TRENDING_SCORE = 0.5;
+
+    private static final String UPDATE_ROLLUP = "UPDATE sp_view_rollup SET views = views + ? "
+            + "WHERE sp_id = ? AND granularity = ? AND bucket_start = ?";
+    private static final String INSERT_ROLLUP = "INSERT INTO sp_view_rollup (sp_id, granularity, bucket_start, views) "
+            + "VALUES (?, ?, ?, ?)";
+    private static final String DELETE_EXPIRED = "DELETE FROM sp_view_rollup WHERE granularity = ? AND bucket_start < ?";
+    private static final String SP_ADVISERS = "SELECT sp_id, adviser_id FROM sp";
+    private static final String RECENT_HOURS = "SELECT sp_id, bucket_start, views FROM sp_view_rollup "
+            + "WHERE granularity = ? AND bucket_start >= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final BlockingQueue<ViewEvent> queue;
+    private final LongAdder dropped = new LongAdder();
+
+    private final Duration hourlyRetention;
+    private final Duration dailyRetention;
+
+    // Views drained from the queue but not yet written to sp_view_rollup.
+    private final Map<Bucket, Long> pending = new ConcurrentHashMap<>();
+    private final Lock flushLock = new ReentrantLock();
+
+    private final Map<Integer, Integer> adviserBySP = new HashMap<>();
+    private final Map<String, DecayedRanking> spRankings = new LinkedHashMap<>();
+    private final Map<String, DecayedRanking> adviserRankings = new LinkedHashMap<>();
+    private final Map<String, Long> halfLives = new LinkedHashMap<>();
+    private final ReadWriteLock rankingLock = new ReentrantReadWriteLock();
+    // Events stay queued until rebuild() has loaded the SPs, since until
+    // then every SP would look unknown.
+    private volatile boolean ready;
+
+    public ViewEventPipeline(JdbcTemplate jdbcTemplate, TransactionTemplate transactionTemplate,
+            @Value("${spis.views.queue-capacity:65536}") int queueCapacity,
+            @Value("${spis.views.hourly-retention:7d}") Duration hourlyRetention,
+            @Value("${spis.views.daily-retention:365d}") Duration dailyRetention,
+            @Value("${spis.trending.day-half-life:6h}") Duration dayHalfLife,
+            @Value("${spis.trending.week-half-life:2d}") Duration weekHalfLife) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.hourlyRetention = hourlyRetention;
+        this.dailyRetention = dailyRetention;
+        halfLives.put(DAY_WINDOW, dayHalfLife.toMillis());
+        halfLives.put(WEEK_WINDOW, weekHalfLife.toMillis());
+        resetRankings(System.currentTimeMillis());
+    }
+
+    /**
+     * Records a view without blocking; returns false if the queue was full
+     * and the view was dropped from the analytics.
+     */
+    public boolean publish(Integer spId) {
+        boolean accepted = queue.offer(new ViewEvent(spId, System.currentTimeMillis()));
+        if (!accepted) {
+            dropped.increment();
+        }
+        return accepted;
+    }
+
+    public boolean hasWindow(String window) {
+        return halfLives.containsKey(window);
+    }
+
+    /**
+     * Ids of the SPs with the highest decayed view counts in the window.
+     */
+    public List<Integer> trendingSPs(String window, int limit) {
+        return top(spRankings.get(window), limit);
+    }
+
+    /**
+     * Ids of the advisers whose SPs have the highest decayed view counts in
+     * the window.
+     */
+    public List<Integer> trendingAdvisers(String window, int limit) {
+        return top(adviserRankings.get(window), limit);
+    }
+
+    /**
+     * Oldest bucket start still kept for the granularity.
+     */
+    public Instant retainedSince(String granularity) {
+        Duration retention = SPViewRollup.HOUR.equals(granularity) ? hourlyRetention : dailyRetention;
+        return Instant.now().minus(retention);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        long now = System.currentTimeMillis();
+        long longestHalfLife = halfLives.values().stream().max(Long::compare).orElse(0L);
+        // Older views have decayed to a few percent of a view in the longest window.
+        OffsetDateTime since = timestamp(now - Math.min(hourlyRetention.toMillis(), 5 * longestHalfLife));
+
+        rankingLock.writeLock().lock();
+        try {
+            adviserBySP.clear();
+            jdbcTemplate.query(SP_ADVISERS, rs -> {
+                adviserBySP.put(rs.getInt(1), rs.getInt(2));
+            });
+            resetRankings(now);
+            jdbcTemplate.query(RECENT_HOURS, rs -> {
+                long bucketStart = rs.getObject(2, OffsetDateTime.class).toInstant().toEpochMilli();
+                record(rs.getInt(1), bucketStart + HOUR_MILLIS / 2, rs.getLong(3));
+            }, SPViewRollup.HOUR, since);
+            ready = true;
+        } finally {
+            rankingLock.writeLock().unlock();
+        }
+    }
+
+    @EventListener
+    public void onSPCreated(SPCreatedEvent event) {
+        rankingLock.writeLock().lock();
+        try {
+            adviserBySP.put(event.sp().getSpId(), event.sp().getAdviserId());
+        } finally {
+            rankingLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Moves queued events into the rankings and the pending rollup counts.
+     */
+    @Scheduled(fixedDelayString = "${spis.views.drain-interval-ms:1000}")
+    public void drain() {
+        if (!ready) {
+            return;
+        }
+        List<ViewEvent> events = new ArrayList<>();
+        queue.drainTo(events);
+        if (events.isEmpty()) {
+            return;
+        }
+        rankingLock.writeLock().lock();
+        try {
+            for (ViewEvent event : events) {
+                if (!record(event.spId(), event.timeMillis(), 1)) {
+                    continue; // unknown SP
+                }
+                long time = event.timeMillis();
+                pending.merge(new Bucket(event.spId(), SPViewRollup.HOUR, time - time % HOUR_MILLIS), 1L, Long::sum);
+                pending.merge(new Bucket(event.spId(), SPViewRollup.DAY, time - time % DAY_MILLIS), 1L, Long::sum);
+            }
+        } finally {
+            rankingLock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Adds the pending counts to sp_view_rollup: one UPDATE batch, then one
+     * INSERT batch for the buckets that did not exist yet, in one transaction.
+     * Counts are put back if the write fails, so they are retried on the next
+     * run; the rollback guarantees none of them were applied.
+     */
+    @Scheduled(fixedDelayString = "${spis.views.flush-interval-ms:10000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            List<Bucket> buckets = new ArrayList<>();
+            List<Long> views = new ArrayList<>();
+            for (Bucket bucket : new ArrayList<>(pending.keySet())) {
+                Long count = pending.remove(bucket);
+                if (count != null) {
+                    buckets.add(bucket);
+                    views.add(count);
+                }
+            }
+            if (buckets.isEmpty()) {
+                return;
+            }
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(buckets, views));
+            } catch (RuntimeException e) {
+                for (int i = 0; i < buckets.size(); i++) {
+                    pending.merge(buckets.get(i), views.get(i), Long::sum);
+                }
+                throw e;
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Views still queued or pending at shutdown would otherwise be lost.
+    @PreDestroy
+    public void flushOnShutdown() {
+        drain();
+        flush();
+    }
+
+    /**
+     * Deletes rollups past their retention and forgets ids whose trending
+     * score has decayed away.
+     */
+    @Scheduled(fixedDelayString = "${spis.views.retention-interval-ms:3600000}")
+    public void expire() {
+        long now = System.currentTimeMillis();
+        jdbcTemplate.update(DELETE_EXPIRED, SPViewRollup.HOUR, timestamp(now - hourlyRetention.toMillis()));
+        jdbcTemplate.update(DELETE_EXPIRED, SPViewRollup.DAY, timestamp(now - dailyRetention.toMillis()));
+
+        rankingLock.writeLock().lock();
+        try {
+            spRankings.values().forEach(ranking -> ranking.rescale(now));
+            adviserRankings.values().forEach(ranking -> ranking.rescale(now));
+        } finally {
+            rankingLock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("spis.views.queue.size", queue, BlockingQueue::size)
+                .description("View events waiting for the analytics consumer")
+                .register(registry);
+        FunctionCounter.builder("spis.views.dropped", dropped, LongAdder::sum)
+                .description("View events dropped because the analytics queue was full")
+                .register(registry);
+    }
+
+    private void write(List<Bucket> buckets, List<Long> views) {
+        List<Object[]> updates = new ArrayList<>();
+        for (int i = 0; i < buckets.size(); i++) {
+            Bucket bucket = buckets.get(i);
+            updates.add(new Object[] { views.get(i), bucket.spId(), bucket.granularity(),
+                    timestamp(bucket.startMillis()) });
+        }
+        int[] updated = jdbcTemplate.batchUpdate(UPDATE_ROLLUP, updates);
+
+        List<Object[]> inserts = new ArrayList<>();
+        for (int i = 0; i < buckets.size(); i++) {
+            if (updated[i] == 0) {
+                Bucket bucket = buckets.get(i);
+                inserts.add(new Object[] { bucket.spId(), bucket.granularity(), timestamp(bucket.startMillis()),
+                        views.get(i) });
+            }
+        }
+        if (!inserts.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_ROLLUP, inserts);
+        }
+    }
+
+    private boolean record(int spId, long timeMillis, long views) {
+        Integer adviserId = adviserBySP.get(spId);
+        if (adviserId == null) {
+            return false;
+        }
+        spRankings.values().forEach(ranking -> ranking.add(spId, timeMillis, views));
+        adviserRankings.values().forEach(ranking -> ranking.add(adviserId, timeMillis, views));
+        return true;
+    }
+
+    private List<Integer> top(DecayedRanking ranking, int limit) {
+        rankingLock.readLock().lock();
+        try {
+            return ranking.top(limit, System.currentTimeMillis(), MIN_TRENDING_SCORE);
+        } finally {
+            rankingLock.readLock().unlock();
+        }
+    }
+
+    private void resetRankings(long landmark) {
+        halfLives.forEach((window, halfLife) -> {
+            spRankings.put(window, new DecayedRanking(halfLife, landmark));
+            adviserRankings.put(window, new DecayedRanking(halfLife, landmark));
+        });
+    }
+
+    private static OffsetDateTime timestamp(long epochMillis) {
+        return Instant.ofEpochMilli(epochMillis).atOffset(ZoneOffset.UTC);
+    }
+
+    private record ViewEvent(int spId, long timeMillis) {
+    }
+
+    private record Bucket(int spId, String granularity, long startMillis) {
+    }
+}
@@ -0,0 +1,197 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.events.SPCreatedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live rankings of SPs and advisers by view count.
+ *
+ * Views are added to per-SP and per-adviser counters that are loaded from the
+ * database at startup, so recording a view never waits on another. Each
+ * ranking keeps its best {@code spis.leaderboard.size} entries in a
+ * concurrent skip list; a view only touches the list when its counter
+ * reaches the current last place, so the top lists are always up to date
+ * and reading them never sorts or aggregates anything.
+ */
+@Component
+public class ViewLeaderboard {
+
+    private static final String SP_VIEWS = "SELECT sp_id, adviser_id, view_count FROM sp";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<Integer, Integer> adviserBySP = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> spViews = new ConcurrentHashMap<>();
+    private final Map<Integer, AtomicLong> adviserViews = new ConcurrentHashMap<>();
+
+    private final Ranking topSPs;
+    // Advisers without views are not listed, as before the leaderboard.
+    private final Ranking topAdvisers;
+
+    // Set once the counters have been loaded at startup
+    private volatile boolean ready;
+
+    public ViewLeaderboard(JdbcTemplate jdbcTemplate, @Value("${spis.leaderboard.size:100}") int size) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.topSPs = new Ranking(size, 0);
+        this.topAdvisers = new Ranking(size, 1);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        Map<Integer, Long> advisers = new HashMap<>();
+        jdbcTemplate.query(SP_VIEWS, rs -> {
+            int spId = rs.getInt(1);
+            int adviserId = rs.getInt(2);
+            long views = rs.getLong(3);
+            adviserBySP.put(spId, adviserId);
+            spViews.put(spId, new AtomicLong(views));
+            advisers.merge(adviserId, views, Long::sum);
+            topSPs.offer(spId, views);
+        });
+        advisers.forEach((adviserId, views) -> {
+            adviserViews.put(adviserId, new AtomicLong(views));
+            topAdvisers.offer(adviserId, views);
+        });
+        ready = true;
+    }
+
+    @EventListener
+    public void onSPCreated(SPCreatedEvent event) {
+        Integer spId = event.sp().getSpId();
+        Integer adviserId = event.sp().getAdviserId();
+        adviserViews.computeIfAbsent(adviserId, id -> new AtomicLong());
+        adviserBySP.put(spId, adviserId);
+        if (spViews.putIfAbsent(spId, new AtomicLong()) == null) {
+            topSPs.offer(spId, 0);
+        }
+    }
+
+    public void recordView(Integer spId) {
+        AtomicLong views = spViews.get(spId);
+        if (views == null) {
+            return; // unknown SP, nothing was counted
+        }
+        topSPs.offer(spId, views.incrementAndGet());
+        Integer adviserId = adviserBySP.get(spId);
+        topAdvisers.offer(adviserId, adviserViews.get(adviserId).incrementAndGet());
+    }
+
+    /**
+     * False only for ids the rankings know are not SPs. Until the counters
+     * are loaded at startup, every id may be an SP.
+     */
+    public boolean mayExist(Integer spId) {
+        return !ready || spViews.containsKey(spId);
+    }
+
+    /**
+     * Ids of the most viewed SPs, at most {@code min(limit, size)} of them.
+     */
+    public List<Integer> topSPs(int limit) {
+        return topSPs.head(limit);
+    }
+
+    /**
+     * Ids of the advisers with the most views across their SPs, leaving out
+     * advisers whose SPs have no views.
+     */
+    public List<Integer> topAdvisers(int limit) {
+        return topAdvisers.head(limit);
+    }
+
+    /**
+     * Best {@code size} ids by view count, most viewed first and ties by id.
+     * Counters only grow, so an id outside the list can only enter it by
+     * beating the last entry, and one inside it only moves up.
+     */
+    private static final class Ranking {
+
+        private static final Comparator<Ranked> BY_VIEWS = Comparator.comparingLong(Ranked::views).reversed()
+                .thenComparingInt(Ranked::id);
+
+        private final int size;
+        private final long minViews;
+        private final NavigableSet<Ranked> ranked = new ConcurrentSkipListSet<>(BY_VIEWS);
+        // The entry of each id in `ranked`; updates of one id are serialised by compute().
+        private final Map<Integer, Ranked> entries = new ConcurrentHashMap<>();
+        private final AtomicInteger count = new AtomicInteger();
+
+        Ranking(int size, long minViews) {
+            this.size = size;
+            this.minViews = minViews;
+        }
+
+        void offer(int id, long views) {
+            Ranked candidate = new Ranked(id, views);
+            if (views < minViews || !entries.containsKey(id) && count.get() >= size && !beatsLast(candidate)) {
+                return;
+            }
+            boolean[] added = new boolean[1];
+            entries.compute(id, (key, current) -> {
+                if (current != null && current.views() >= views) {
+                    return current; // a later view got here first
+                }
+                if (current != null) {
+                    ranked.remove(current);
+                } else {
+                    added[0] = true;
+                }
+                ranked.add(candidate);
+                return candidate;
+            });
+            if (added[0] && count.incrementAndGet() > size) {
+                trim();
+            }
+        }
+
+        List<Integer> head(int limit) {
+            List<Integer> ids = new ArrayList<>(Math.max(0, Math.min(limit, size)));
+            for (Ranked entry : ranked) {
+                if (ids.size() >= limit) {
+                    break;
+                }
+                ids.add(entry.id());
+            }
+            return ids;
+        }
+
+        private void trim() {
+            while (count.get() > size) {
+                Ranked last = ranked.pollLast();
+                if (last == null) {
+                    return;
+                }
+                // Fails if the id was moved up meanwhile; its new entry is
+                // still listed, so another one has to go.
+                if (entries.remove(last.id(), last)) {
+                    count.decrementAndGet();
+                }
+            }
+        }
+
+        private boolean beatsLast(Ranked candidate) {
+            Iterator<Ranked> last = ranked.descendingIterator();
+            return !last.hasNext() || BY_VIEWS.compare(candidate, last.next()) < 0;
+        }
+    }
+
+    private record Ranked(int id, long views) {
+    }
+}
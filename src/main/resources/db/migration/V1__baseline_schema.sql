@@ -0,0 +1,60 @@
+-- Schema as generated by Hibernate (ddl-auto=update) before Flyway took over.
+-- Existing databases are baselined at this version and skip it, so it must not
+-- change; later tables and columns go in new migrations.
+
+CREATE TABLE faculty (
+    faculty_id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    faculty_name VARCHAR(255) NOT NULL
+);
+
+CREATE TABLE admin (
+    admin_id    INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name  VARCHAR(255) NOT NULL,
+    last_name   VARCHAR(255) NOT NULL,
+    middle_name VARCHAR(255),
+    email       VARCHAR(255),
+    role        VARCHAR(255) NOT NULL,
+    image_path  VARCHAR(255),
+    description TEXT,
+    faculty_id  INTEGER CONSTRAINT fk_admin_faculty REFERENCES faculty
+);
+
+CREATE TABLE groups (
+    group_id   INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    group_name VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE student (
+    student_id  INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    first_name  VARCHAR(255) NOT NULL,
+    last_name   VARCHAR(255) NOT NULL,
+    middle_name VARCHAR(255),
+    faculty_id  INTEGER NOT NULL CONSTRAINT fk_student_faculty REFERENCES faculty,
+    group_id    INTEGER CONSTRAINT fk_student_group REFERENCES groups
+);
+
+CREATE TABLE tag (
+    tag_id     INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    tag_name   VARCHAR(255) NOT NULL UNIQUE
+);
+
+CREATE TABLE sp (
+    sp_id         INTEGER GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    title         VARCHAR(255) NOT NULL,
+    year          INTEGER NOT NULL,
+    semester      VARCHAR(255) NOT NULL,
+    abstract_text TEXT,
+    uri           VARCHAR(255),
+    view_count    INTEGER NOT NULL,
+    document_path VARCHAR(255),
+    date_issued   DATE NOT NULL,
+    uploaded_by   INTEGER NOT NULL CONSTRAINT fk_sp_uploaded_by REFERENCES admin,
+    group_id      INTEGER NOT NULL CONSTRAINT fk_sp_group REFERENCES groups,
+    adviser_id    INTEGER NOT NULL CONSTRAINT fk_sp_adviser REFERENCES admin
+);
+
+CREATE TABLE sp_tags (
+    id     BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    sp_id  INTEGER NOT NULL CONSTRAINT fk_sp_tags_sp REFERENCES sp,
+    tag_id INTEGER NOT NULL CONSTRAINT fk_sp_tags_tag REFERENCES tag
+);
@@ -0,0 +1,21 @@
+-- Indexes behind the repository queries. PostgreSQL does not index foreign
+-- keys on its own. IF NOT EXISTS, as baselined databases may have some.
+
+-- Adviser listing and its keyset pages (ORDER BY sp_id)
+CREATE INDEX IF NOT EXISTS idx_sp_adviser_id ON sp (adviser_id, sp_id);
+-- Student listing and the faculty_sp refresh of a group
+CREATE INDEX IF NOT EXISTS idx_sp_group_id ON sp (group_id);
+-- Most viewed SPs
+CREATE INDEX IF NOT EXISTS idx_sp_view_count ON sp (view_count DESC, sp_id);
+-- Keyset pages sorted by newest first
+CREATE INDEX IF NOT EXISTS idx_sp_date_issued ON sp (date_issued DESC, sp_id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_student_faculty_id ON student (faculty_id);
+CREATE INDEX IF NOT EXISTS idx_student_group_id ON student (group_id);
+
+-- Advisers of a faculty (role = 'faculty')
+CREATE INDEX IF NOT EXISTS idx_admin_role_faculty_id ON admin (role, faculty_id);
+
+-- Tag filters go from tag to SP; the tag id lookups of a page go from SP to tag.
+CREATE INDEX IF NOT EXISTS idx_sp_tags_tag_id_sp_id ON sp_tags (tag_id, sp_id);
+CREATE INDEX IF NOT EXISTS idx_sp_tags_sp_id_tag_id ON sp_tags (sp_id, tag_id);
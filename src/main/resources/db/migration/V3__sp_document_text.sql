@@ -0,0 +1,17 @@
+-- Text extraction state of each SP document; the text itself is a gzip file
+-- under the upload directory.
+CREATE TABLE sp_document_text (
+    sp_id           INTEGER PRIMARY KEY CONSTRAINT fk_sp_document_text_sp REFERENCES sp ON DELETE CASCADE,
+    document_path   VARCHAR(255) NOT NULL,
+    status          VARCHAR(8) NOT NULL,
+    attempts        INTEGER NOT NULL,
+    next_attempt_at TIMESTAMP(6) WITH TIME ZONE,
+    page_count      INTEGER,
+    char_count      BIGINT,
+    page_offsets    TEXT,
+    artifact_bytes  BIGINT,
+    error           VARCHAR(1000),
+    updated_at      TIMESTAMP(6) WITH TIME ZONE,
+    version         BIGINT NOT NULL
+);
+CREATE INDEX idx_sp_document_text_status ON sp_document_text (status, next_attempt_at);
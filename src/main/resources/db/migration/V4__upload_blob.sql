@@ -0,0 +1,12 @@
+-- Content-addressed uploads, stored once under <upload-dir>/cas by SHA-256,
+-- with the number of adviser images and SP documents pointing at each.
+-- unreferenced_since is set while ref_count is 0; such blobs are deleted
+-- once they have been unreferenced for the grace period.
+CREATE TABLE upload_blob (
+    digest             VARCHAR(64) PRIMARY KEY,
+    byte_size          BIGINT NOT NULL,
+    ref_count          INTEGER NOT NULL,
+    created_at         TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    unreferenced_since TIMESTAMP(6) WITH TIME ZONE
+);
+CREATE INDEX idx_upload_blob_unreferenced ON upload_blob (unreferenced_since);
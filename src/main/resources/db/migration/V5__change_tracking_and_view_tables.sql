@@ -0,0 +1,27 @@
+-- Schema added on top of the Hibernate-generated baseline. IF NOT EXISTS, as
+-- databases created by ddl-auto=update after these were mapped already have
+-- some of it.
+
+-- Last modification times behind the conditional GETs
+ALTER TABLE admin ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE student ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE tag ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+ALTER TABLE sp ADD COLUMN IF NOT EXISTS updated_at TIMESTAMP(6) WITH TIME ZONE;
+
+-- Maintained by FacultySPMapping; the primary key serves the faculty listing.
+CREATE TABLE IF NOT EXISTS faculty_sp (
+    faculty_id INTEGER NOT NULL,
+    sp_id      INTEGER NOT NULL,
+    PRIMARY KEY (faculty_id, sp_id)
+);
+CREATE INDEX IF NOT EXISTS idx_faculty_sp_sp_id ON faculty_sp (sp_id);
+
+-- Hourly and daily view counts written by ViewEventPipeline.
+CREATE TABLE IF NOT EXISTS sp_view_rollup (
+    sp_id        INTEGER NOT NULL,
+    granularity  VARCHAR(4) NOT NULL,
+    bucket_start TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    views        BIGINT NOT NULL,
+    PRIMARY KEY (granularity, sp_id, bucket_start)
+);
+CREATE INDEX IF NOT EXISTS idx_sp_view_rollup_bucket ON sp_view_rollup (granularity, bucket_start);
@@ -0,0 +1,156 @@
+package net.SPIS.backend;
+
+import net.SPIS.backend.serviceImpl.TagPostingsIndex;
+import net.SPIS.backend.serviceImpl.ViewLeaderboard;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Throughput of GET /api/sp and GET /api/sp/{id} under 1,000 concurrent
+ * clients, on platform Tomcat workers and, when running on Java 21+, with
+ * the virtual-threads profile. Run with
+ * {@code mvn test -Pbenchmark -Dtest=VirtualThreadThroughputBenchmarkTest}
+ * (add -Pjava21 on a Java 21 JDK for the virtual-thread run).
+ */
+@Tag("benchmark")
+class VirtualThreadThroughputBenchmarkTest {
+
+    private static final int CLIENTS = 1000;
+    private static final int SP_COUNT = 200;
+    private static final Duration WARMUP = Duration.ofSeconds(5);
+    private static final Duration MEASUREMENT = Duration.ofSeconds(15);
+
+    @Test
+    void compareThreadModels() throws Exception {
+        run("platform threads");
+        if (Runtime.version().feature() >= 21) {
+            run("virtual threads", "virtual-threads");
+        } else {
+            System.out.printf("virtual threads: skipped, running on Java %d%n", Runtime.version().feature());
+        }
+    }
+
+    private void run(String mode, String... extraProfiles) throws Exception {
+        List<String> profiles = new ArrayList<>(List.of("test"));
+        profiles.addAll(Arrays.asList(extraProfiles));
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(BackendApplication.class)
+                .profiles(profiles.toArray(String[]::new))
+                .properties("server.port=0", "spis.cache.enabled=false", "logging.level.root=WARN",
+                        "spis.metrics.slow-request-threshold=1h")
+                .run()) {
+            seed(context.getBean(JdbcTemplate.class));
+            context.getBean(TagPostingsIndex.class).rebuild();
+            context.getBean(ViewLeaderboard.class).rebuild();
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            String base = "http://localhost:" + port + "/api/sp";
+
+            Result list = load(() -> base);
+            Result single = load(() -> base + "/" + ThreadLocalRandom.current().nextInt(1, SP_COUNT + 1));
+            System.out.printf("%s: GET /api/sp %s | GET /api/sp/{id} %s%n", mode, list, single);
+            assertThat(list.errors).isZero();
+            assertThat(single.errors).isZero();
+        }
+    }
+
+    /**
+     * Runs CLIENTS closed-loop clients against the URIs for the warmup and
+     * measurement windows, counting only requests that complete inside the
+     * measurement window.
+     */
+    private Result load(java.util.function.Supplier<String> uris) throws InterruptedException {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10)).build();
+        long measureFrom = System.nanoTime() + WARMUP.toNanos();
+        long stopAt = measureFrom + MEASUREMENT.toNanos();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong errors = new AtomicLong();
+        ConcurrentLinkedQueue<Long> latencies = new ConcurrentLinkedQueue<>();
+        CountDownLatch done = new CountDownLatch(CLIENTS);
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        for (int i = 0; i < CLIENTS; i++) {
+            clients.execute(() -> {
+                try {
+                    while (System.nanoTime() < stopAt) {
+                        long start = System.nanoTime();
+                        HttpRequest request = HttpRequest.newBuilder(URI.create(uris.get()))
+                                .timeout(Duration.ofSeconds(60)).build();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            long end = System.nanoTime();
+                            if (start >= measureFrom && end <= stopAt) {
+                                if (response.statusCode() == 200) {
+                                    completed.incrementAndGet();
+                                    latencies.add(end - start);
+                                } else {
+                                    errors.incrementAndGet();
+                                }
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                    }
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        clients.shutdown();
+
+        long[] sorted = latencies.stream().mapToLong(Long::longValue).sorted().toArray();
+        return new Result(completed.get() / (double) MEASUREMENT.toSeconds(), percentile(sorted, 50),
+                percentile(sorted, 99), errors.get());
+    }
+
+    private static double percentile(long[] sorted, int percentile) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(percentile / 100.0 * sorted.length) - 1;
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    private void seed(JdbcTemplate jdbcTemplate) {
+        jdbcTemplate.update("INSERT INTO faculty (faculty_id, faculty_name) VALUES (1, 'CS')");
+        jdbcTemplate.update("INSERT INTO admin (admin_id, first_name, last_name, role, faculty_id) "
+                + "VALUES (1, 'A', 'B', 'faculty', 1)");
+        jdbcTemplate.update("INSERT INTO groups (group_id, group_name) VALUES (1, 'G')");
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= SP_COUNT; i++) {
+            rows.add(new Object[] { i, "SP " + i, "Abstract of SP " + i, Date.valueOf(LocalDate.of(2024, 1, 1)) });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sp (sp_id, title, year, semester, abstract_text, view_count, "
+                + "date_issued, uploaded_by, group_id, adviser_id) VALUES (?, ?, 2024, '1st', ?, 0, ?, 1, 1, 1)", rows);
+    }
+
+    private record Result(double requestsPerSecond, double p50Millis, double p99Millis, long errors) {
+        @Override
+        public String toString() {
+            return String.format("%.0f req/s, p50 %.1f ms, p99 %.1f ms, %d errors", requestsPerSecond, p50Millis,
+                    p99Millis, errors);
+        }
+    }
+}
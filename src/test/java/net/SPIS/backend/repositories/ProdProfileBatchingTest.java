@@ -0,0 +1,249 @@
+package net.SPIS.backend.repositories;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import net.SPIS.backend.entities.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs the prod profile against the H2 PostgreSQL stand-in. The pgjdbc
+ * driver properties are passed through to H2, which is told to ignore them.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:spis-prod;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+                + "DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,YEAR,VALUE;IGNORE_UNKNOWN_SETTINGS=TRUE",
+        "spring.jpa.properties.hibernate.generate_statistics=true" })
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles({ "prod", "test" })
+@Import(ProdProfileBatchingTest.BatchRecorder.class)
+class ProdProfileBatchingTest {
+
+    private static final int SP_COUNT = 120;
+    private static final int GROUP_COUNT = 120;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private Statistics statistics;
+    private Admin adviser;
+    private Tag tag;
+    private Tag otherTag;
+
+    @BeforeEach
+    void seed() {
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Faculty faculty = new Faculty();
+        faculty.setFacultyName("Computer Science");
+        entityManager.persist(faculty);
+
+        adviser = new Admin();
+        adviser.setFirstName("First");
+        adviser.setLastName("Adviser");
+        adviser.setRole("faculty");
+        adviser.setFaculty(faculty);
+        entityManager.persist(adviser);
+
+        tag = tag("Machine Learning");
+        otherTag = tag("Web");
+
+        for (int i = 0; i < GROUP_COUNT; i++) {
+            Groups group = new Groups();
+            group.setGroupName("Group " + i);
+            entityManager.persist(group);
+            for (int j = 0; j < 2; j++) {
+                Student student = new Student();
+                student.setFirstName("Student");
+                student.setLastName(i + "-" + j);
+                student.setFaculty(faculty);
+                student.setGroup(group);
+                entityManager.persist(student);
+            }
+        }
+        entityManager.flush();
+        entityManager.clear();
+        BatchRecorder.batchSizes.clear();
+    }
+
+    @Test
+    void profileConfiguresPoolAndBatching() throws SQLException {
+        HikariDataSource hikari = dataSource.unwrap(HikariDataSource.class);
+        assertThat(hikari.getMaximumPoolSize()).isEqualTo(16);
+        assertThat(hikari.getMinimumIdle()).isEqualTo(16);
+        assertThat(hikari.getDataSourceProperties())
+                .containsEntry("prepareThreshold", "3")
+                .containsEntry("preparedStatementCacheQueries", "256")
+                .containsEntry("reWriteBatchedInserts", "true");
+
+        SessionFactoryOptions options = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getSessionFactoryOptions();
+        assertThat(options.getJdbcBatchSize()).isEqualTo(50);
+        assertThat(options.getDefaultBatchFetchSize()).isEqualTo(32);
+        assertThat(options.isOrderInsertsEnabled()).isTrue();
+        assertThat(options.isOrderUpdatesEnabled()).isTrue();
+    }
+
+    @Test
+    void assignedIdInsertsAreBatched() {
+        statistics.clear();
+        for (int i = 1; i <= 120; i++) {
+            entityManager.persist(new FacultySP(1, i));
+        }
+        entityManager.flush();
+
+        assertThat(BatchRecorder.batchSizes).containsExactly(50, 50, 20);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void tagLinksAreInsertedInBatches() {
+        Groups group = entityManager.createQuery("SELECT g FROM Groups g", Groups.class)
+                .setMaxResults(1).getSingleResult();
+        Admin staff = entityManager.find(Admin.class, adviser.getAdminId());
+        Tag first = entityManager.find(Tag.class, tag.getTagId());
+        Tag second = entityManager.find(Tag.class, otherTag.getTagId());
+
+        statistics.clear();
+        for (int i = 0; i < SP_COUNT; i++) {
+            entityManager.persist(sp(i, group, staff, Set.of(first, second)));
+        }
+        entityManager.flush();
+
+        // IDENTITY ids force one INSERT per SP; only the 240 sp_tags rows are
+        // batched.
+        assertThat(BatchRecorder.batchSizes).containsExactly(50, 50, 50, 50, 40);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(SP_COUNT + 1);
+    }
+
+    @Test
+    void spTagsAreBatchFetched() {
+        persistSPs();
+        statistics.clear();
+
+        List<SP> sps = entityManager.createQuery("SELECT sp FROM SP sp", SP.class).getResultList();
+        sps.forEach(sp -> assertThat(sp.getTags()).hasSize(2));
+
+        // One query for the SPs, one each for their (shared) eager admin and
+        // group, then one per 50 tag collections instead of one per SP.
+        assertThat(statistics.getCollectionFetchCount()).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + 2 + 3);
+    }
+
+    @Test
+    void groupStudentsAreBatchFetched() {
+        statistics.clear();
+
+        List<Groups> groups = entityManager.createQuery("SELECT g FROM Groups g", Groups.class).getResultList();
+        groups.forEach(group -> assertThat(group.getStudents()).hasSize(2));
+
+        // One query for the groups, then one per 50 student collections.
+        assertThat(statistics.getCollectionFetchCount()).isEqualTo(3);
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1 + 3);
+    }
+
+    private void persistSPs() {
+        Groups group = entityManager.createQuery("SELECT g FROM Groups g", Groups.class)
+                .setMaxResults(1).getSingleResult();
+        Admin staff = entityManager.find(Admin.class, adviser.getAdminId());
+        Set<Tag> tags = Set.of(entityManager.find(Tag.class, tag.getTagId()),
+                entityManager.find(Tag.class, otherTag.getTagId()));
+        for (int i = 0; i < SP_COUNT; i++) {
+            entityManager.persist(sp(i, group, staff, tags));
+        }
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private SP sp(int i, Groups group, Admin admin, Set<Tag> tags) {
+        SP sp = new SP();
+        sp.setTitle("SP " + i);
+        sp.setYear(2024);
+        sp.setSemester("1st");
+        sp.setAbstractText("Abstract " + i);
+        sp.setDateIssued(LocalDate.of(2024, 6, 1));
+        sp.setUploadedBy(admin);
+        sp.setGroup(group);
+        sp.setAdviser(admin);
+        sp.setTags(new HashSet<>(tags));
+        return sp;
+    }
+
+    private Tag tag(String name) {
+        Tag tag = new Tag();
+        tag.setTagName(name);
+        entityManager.persist(tag);
+        return tag;
+    }
+
+    /**
+     * Wraps the DataSource to record how many statements each executeBatch
+     * call sends, which Hibernate's statistics do not report.
+     */
+    static class BatchRecorder implements BeanPostProcessor {
+        static final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            return bean instanceof DataSource dataSource ? proxy(DataSource.class, dataSource) : bean;
+        }
+
+        private static <T> T proxy(Class<T> type, T target) {
+            int[] pending = new int[1];
+            InvocationHandler handler = (proxy, method, args) -> {
+                Object result;
+                try {
+                    result = method.invoke(target, args);
+                } catch (InvocationTargetException e) {
+                    throw e.getCause();
+                }
+                if (result instanceof Connection connection && type == DataSource.class) {
+                    return proxy(Connection.class, connection);
+                }
+                if (result instanceof PreparedStatement statement && type == Connection.class) {
+                    return proxy(PreparedStatement.class, statement);
+                }
+                if (method.getName().equals("addBatch")) {
+                    pending[0]++;
+                } else if (method.getName().equals("executeBatch")) {
+                    batchSizes.add(pending[0]);
+                    pending[0] = 0;
+                }
+                return result;
+            };
+            return type.cast(Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[] { type }, handler));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package net.SPIS.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InvertedIndexTest {
+
+    @Test
+    void ranksByBm25() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, List.of("crop", "yield", "prediction"));
+        index.put(2, List.of("crop", "crop", "disease", "detection"));
+        index.put(3, List.of("traffic", "sign", "detection"));
+        index.put(4, List.of("crop", "farm", "sensor", "network", "cloud", "dashboard", "alert", "report"));
+
+        // More occurrences first, then shorter documents.
+        assertThat(ids(index.search(List.of("crop")))).containsExactly(2, 1, 4);
+        // A term in one document outweighs a term in three.
+        assertThat(ids(index.search(List.of("crop", "traffic")))).first().isEqualTo(3);
+        // Documents matching more terms rank higher; repeated query terms count once.
+        assertThat(ids(index.search(List.of("crop", "disease", "crop")))).containsExactly(2, 1, 4);
+        assertThat(index.search(List.of("crop", "disease", "crop")).get(0).score())
+                .isEqualTo(index.search(List.of("crop", "disease")).get(0).score());
+        assertThat(index.search(List.of("unknown"))).isEmpty();
+    }
+
+    @Test
+    void equalScoresAreOrderedById() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(7, List.of("web", "platform"));
+        index.put(3, List.of("web", "portal"));
+        index.put(5, List.of("mobile", "app"));
+
+        assertThat(ids(index.search(List.of("web")))).containsExactly(3, 7);
+    }
+
+    @Test
+    void putReplacesAndRemoveDropsADocument() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1, List.of("crop", "yield"));
+        index.put(2, List.of("crop", "disease"));
+
+        index.put(1, List.of("traffic", "sign"));
+        assertThat(ids(index.search(List.of("crop")))).containsExactly(2);
+        assertThat(ids(index.search(List.of("traffic")))).containsExactly(1);
+
+        index.remove(2);
+        assertThat(index.search(List.of("crop"))).isEmpty();
+        assertThat(index.size()).isEqualTo(1);
+
+        index.clear();
+        assertThat(index.search(List.of("traffic"))).isEmpty();
+    }
+
+    private static List<Integer> ids(List<InvertedIndex.Hit> hits) {
+        return hits.stream().map(InvertedIndex.Hit::docId).toList();
+    }
+}
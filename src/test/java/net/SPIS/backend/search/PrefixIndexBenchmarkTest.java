@@ -0,0 +1,149 @@
+package net.SPIS.backend.search;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Measures prefix completion latency over 100k entries against a linear scan
+ * of all of them, the way the frontend filters the full lists today. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class PrefixIndexBenchmarkTest {
+
+    private static final int ENTRY_COUNT = 100_000;
+    private static final int QUERY_COUNT = 20_000;
+    private static final int SCAN_QUERY_COUNT = 200;
+    private static final int LIMIT = 10;
+    private static final String[] SYLLABLES = { "ma", "chi", "ne", "lear", "ning", "net", "work", "da", "ta", "sys",
+            "tem", "mo", "bi", "le", "web", "plat", "form", "al", "go", "rithm", "ima", "ge", "re", "cog", "ni",
+            "tion", "stu", "dent", "man", "age", "ment", "block", "chain", "se", "cu", "ri", "ty", "pre", "dic",
+            "sen", "sor", "health", "farm", "crop", "traf", "fic", "cloud", "edge", "graph" };
+
+    private final Random random = new Random(42);
+
+    @Test
+    void compareIndexWithLinearScan() {
+        List<PrefixIndex.Item> items = items(ENTRY_COUNT);
+        PrefixIndex index = new PrefixIndex();
+        long start = System.nanoTime();
+        index.build(items, index.mark());
+        long buildMillis = (System.nanoTime() - start) / 1_000_000;
+
+        List<String> queries = queries(items, QUERY_COUNT);
+        for (String query : queries) {
+            index.complete(query, LIMIT); // warm-up
+        }
+        long[] indexNanos = new long[QUERY_COUNT];
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            long queryStart = System.nanoTime();
+            index.complete(queries.get(i), LIMIT);
+            indexNanos[i] = System.nanoTime() - queryStart;
+        }
+        long[] scanNanos = new long[SCAN_QUERY_COUNT];
+        for (int i = 0; i < SCAN_QUERY_COUNT; i++) {
+            long queryStart = System.nanoTime();
+            scan(items, queries.get(i));
+            scanNanos[i] = System.nanoTime() - queryStart;
+        }
+
+        System.out.printf("Built prefix index over %d entries in %d ms%n", ENTRY_COUNT, buildMillis);
+        report("prefix index", indexNanos);
+        report("linear scan", scanNanos);
+        assertThat(percentile(indexNanos, 99)).isLessThan(1_000_000);
+        assertThat(percentile(indexNanos, 50)).isLessThan(percentile(scanNanos, 50));
+    }
+
+    @Test
+    void matchesLinearScanThroughUpdates() {
+        List<PrefixIndex.Item> items = new ArrayList<>(items(5_000));
+        PrefixIndex index = new PrefixIndex();
+        index.build(items, index.mark());
+
+        // Buffered changes, then the same changes compacted
+        for (int i = 0; i < 200; i++) {
+            PrefixIndex.Item removed = items.remove(random.nextInt(items.size()));
+            index.remove(removed.id());
+            PrefixIndex.Item added = new PrefixIndex.Item(10_000 + i, title(), random.nextInt(1_000));
+            items.add(added);
+            index.put(added);
+        }
+        for (int pass = 0; pass < 2; pass++) {
+            for (String query : queries(items, 500)) {
+                assertThat(index.complete(query, LIMIT)).as(query).isEqualTo(scan(items, query));
+            }
+            index.compact();
+        }
+        assertThat(index.size()).isEqualTo(items.size());
+    }
+
+    private List<PrefixIndex.Item> scan(List<PrefixIndex.Item> items, String prefix) {
+        String query = PrefixIndex.normalize(prefix);
+        return items.stream()
+                .filter(item -> {
+                    String text = PrefixIndex.normalize(item.text());
+                    return text.startsWith(query) || text.contains(" " + query);
+                })
+                .sorted(Comparator.comparingLong(PrefixIndex.Item::weight).reversed()
+                        .thenComparing(PrefixIndex.Item::text).thenComparingInt(PrefixIndex.Item::id))
+                .limit(LIMIT)
+                .toList();
+    }
+
+    private List<PrefixIndex.Item> items(int count) {
+        List<PrefixIndex.Item> items = new ArrayList<>(count);
+        for (int id = 1; id <= count; id++) {
+            // Heavy-tailed view counts, as on the real leaderboards
+            long weight = (long) (1_000 / Math.pow(random.nextDouble() + 1e-3, 1.2));
+            items.add(new PrefixIndex.Item(id, title(), weight));
+        }
+        return items;
+    }
+
+    private String title() {
+        int words = 3 + random.nextInt(6);
+        StringBuilder title = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            if (w > 0) {
+                title.append(' ');
+            }
+            int syllables = 1 + random.nextInt(3);
+            for (int s = 0; s < syllables; s++) {
+                String syllable = SYLLABLES[random.nextInt(SYLLABLES.length)];
+                title.append(s == 0 ? Character.toUpperCase(syllable.charAt(0)) + syllable.substring(1) : syllable);
+            }
+        }
+        return title.toString();
+    }
+
+    // What a user has typed so far: 1-6 leading characters of a word in an
+    // existing entry.
+    private List<String> queries(List<PrefixIndex.Item> items, int count) {
+        List<String> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String[] words = items.get(random.nextInt(items.size())).text().split(" ");
+            String word = words[random.nextInt(words.length)];
+            queries.add(word.substring(0, Math.min(word.length(), 1 + random.nextInt(6))));
+        }
+        return queries;
+    }
+
+    private void report(String name, long[] nanos) {
+        System.out.printf("%-12s p50 %8.1f us  p99 %8.1f us  p99.9 %8.1f us%n", name, percentile(nanos, 50) / 1e3,
+                percentile(nanos, 99) / 1e3, percentile(nanos, 99.9) / 1e3);
+    }
+
+    private long percentile(long[] nanos, double percentile) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) Math.min(sorted.length - 1, Math.ceil(percentile / 100 * sorted.length) - 1)];
+    }
+}
@@ -0,0 +1,72 @@
+package net.SPIS.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PrefixIndexTest {
+
+    private static final List<PrefixIndex.Item> ITEMS = List.of(
+            new PrefixIndex.Item(1, "Machine Learning for Crops", 5),
+            new PrefixIndex.Item(2, "Learning Management System", 20),
+            new PrefixIndex.Item(3, "Deep learning on the edge", 20),
+            new PrefixIndex.Item(4, "Web Platform", 100),
+            new PrefixIndex.Item(5, "Léarning with accents", 1));
+
+    @Test
+    void completesWordStartsHeaviestFirst() {
+        PrefixIndex index = index();
+
+        // Equal weights are ordered by text.
+        assertThat(ids(index.complete("lear", 10))).containsExactly(3, 2, 1, 5);
+        assertThat(ids(index.complete("LEARNING M", 10))).containsExactly(2);
+        assertThat(ids(index.complete("arn", 10))).isEmpty();
+        assertThat(ids(index.complete("lear", 2))).containsExactly(3, 2);
+        assertThat(index.complete("  ", 10)).isEmpty();
+    }
+
+    @Test
+    void bufferedChangesApplyBeforeAndAfterCompaction() {
+        PrefixIndex index = index();
+        index.put(new PrefixIndex.Item(6, "Learning Analytics", 50));
+        index.put(new PrefixIndex.Item(2, "Library System", 20));
+        index.remove(3);
+
+        assertThat(ids(index.complete("lear", 10))).containsExactly(6, 1, 5);
+        index.compact();
+        assertThat(ids(index.complete("lear", 10))).containsExactly(6, 1, 5);
+        assertThat(ids(index.complete("lib", 10))).containsExactly(2);
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    @Test
+    void changesAfterTheMarkSurviveTheBuild() {
+        PrefixIndex index = index();
+        long mark = index.mark();
+        // Recorded after the mark and compacted before the build, but missing
+        // from the items the build was read from
+        index.put(new PrefixIndex.Item(6, "Learning Analytics", 50));
+        index.remove(4);
+        index.compact();
+        index.build(ITEMS, mark);
+
+        assertThat(ids(index.complete("lear", 1))).containsExactly(6);
+        assertThat(index.complete("web", 10)).isEmpty();
+
+        long next = index.mark();
+        index.build(ITEMS, next);
+        assertThat(ids(index.complete("web", 10))).containsExactly(4);
+    }
+
+    private static PrefixIndex index() {
+        PrefixIndex index = new PrefixIndex();
+        index.build(ITEMS, index.mark());
+        return index;
+    }
+
+    private static List<Integer> ids(List<PrefixIndex.Item> items) {
+        return items.stream().map(PrefixIndex.Item::id).toList();
+    }
+}
@@ -0,0 +1,116 @@
+package net.SPIS.backend.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares query latency of the in-memory BM25 index with an ILIKE scan over
+ * the sp table. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class SPSearchBenchmarkTest {
+
+    private static final int SP_COUNT = 20_000;
+    private static final int QUERY_COUNT = 200;
+    private static final String[] VOCABULARY = ("machine learning neural network classification detection system "
+            + "mobile application web platform database optimization algorithm image recognition student "
+            + "information management blockchain security analysis prediction model simulation agriculture "
+            + "health monitoring sensor framework evaluation natural language processing sentiment").split(" ");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final InvertedIndex index = new InvertedIndex();
+    private final Random random = new Random(42);
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO faculty (faculty_id, faculty_name) VALUES (1, 'CS')");
+        jdbcTemplate.update("INSERT INTO admin (admin_id, first_name, last_name, role, faculty_id) "
+                + "VALUES (1, 'A', 'B', 'faculty', 1)");
+        jdbcTemplate.update("INSERT INTO groups (group_id, group_name) VALUES (1, 'G')");
+
+        List<Object[]> rows = new ArrayList<>();
+        for (int i = 1; i <= SP_COUNT; i++) {
+            String title = words(6);
+            String abstractText = words(120);
+            rows.add(new Object[] { i, title, abstractText, Date.valueOf(LocalDate.of(2024, 1, 1)) });
+            index.put(i, terms(title, abstractText));
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO sp (sp_id, title, year, semester, abstract_text, view_count, "
+                + "date_issued, uploaded_by, group_id, adviser_id) VALUES (?, ?, 2024, '1st', ?, 0, ?, 1, 1, 1)", rows);
+    }
+
+    @Test
+    void compareIndexWithIlikeScan() {
+        List<String> queries = new ArrayList<>();
+        for (int i = 0; i < QUERY_COUNT; i++) {
+            queries.add(VOCABULARY[random.nextInt(VOCABULARY.length)]);
+        }
+
+        long[] indexNanos = measure(queries, q -> index.search(TextAnalyzer.analyze(q)).size());
+        long[] ilikeNanos = measure(queries, q -> jdbcTemplate.queryForList(
+                "SELECT sp_id FROM sp WHERE title ILIKE ? OR abstract_text ILIKE ?", Integer.class,
+                "%" + q + "%", "%" + q + "%").size());
+
+        report("bm25 index", indexNanos);
+        report("ILIKE scan", ilikeNanos);
+        assertThat(percentile(indexNanos, 50)).isLessThan(percentile(ilikeNanos, 50));
+    }
+
+    private long[] measure(List<String> queries, Function<String, Integer> search) {
+        queries.subList(0, 20).forEach(search::apply); // warm-up
+        long[] nanos = new long[queries.size()];
+        for (int i = 0; i < queries.size(); i++) {
+            long start = System.nanoTime();
+            search.apply(queries.get(i));
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private void report(String name, long[] sortedNanos) {
+        System.out.printf("%-10s p50=%.3f ms  p99=%.3f ms  (%d SPs, %d queries)%n", name,
+                percentile(sortedNanos, 50) / 1e6, percentile(sortedNanos, 99) / 1e6, SP_COUNT, sortedNanos.length);
+    }
+
+    private long percentile(long[] sortedNanos, int percentile) {
+        return sortedNanos[Math.min(sortedNanos.length - 1, sortedNanos.length * percentile / 100)];
+    }
+
+    private List<String> terms(String title, String abstractText) {
+        List<String> titleTerms = TextAnalyzer.analyze(title);
+        List<String> terms = new ArrayList<>(titleTerms);
+        terms.addAll(titleTerms);
+        terms.addAll(TextAnalyzer.analyze(abstractText));
+        return terms;
+    }
+
+    private String words(int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(VOCABULARY[random.nextInt(VOCABULARY.length)]).append(' ');
+        }
+        return text.toString().trim();
+    }
+}
@@ -0,0 +1,108 @@
+package net.SPIS.backend.search;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the LSH-pruned related lists with exact all-pairs ranking, for
+ * build time and recall. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SimilarityIndexBenchmarkTest {
+
+    private static final int DOCUMENT_COUNT = 20_000;
+    private static final int TOPIC_COUNT = 400;
+    private static final int TOPIC_TERMS = 30;
+    private static final int COMMON_TERMS = 3_000;
+    private static final int SAMPLE_SIZE = 200;
+    private static final int LIST_SIZE = 10;
+    private static final SimilarityIndex.Weights WEIGHTS = new SimilarityIndex.Weights(0.5, 0.35, 0.15);
+
+    private final Random random = new Random(42);
+
+    @Test
+    void compareLshWithAllPairs() {
+        List<SimilarityIndex.Entry> entries = new ArrayList<>();
+        for (int id = 1; id <= DOCUMENT_COUNT; id++) {
+            entries.add(document(id));
+        }
+
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        SimilarityIndex index = new SimilarityIndex(WEIGHTS, LIST_SIZE);
+        index.build(entries, pool); // warm-up
+        long start = System.nanoTime();
+        index.build(entries, pool);
+        long lshNanos = System.nanoTime() - start;
+
+        // Exact lists for a sample, scoring against every other document.
+        int[] sample = random.ints(SAMPLE_SIZE, 1, DOCUMENT_COUNT + 1).toArray();
+        double recall = 0;
+        start = System.nanoTime();
+        for (int id : sample) {
+            double[] scores = new double[DOCUMENT_COUNT + 1];
+            for (int other = 1; other <= DOCUMENT_COUNT; other++) {
+                scores[other] = other == id ? -1 : index.similarity(id, other);
+            }
+            List<Integer> exact = IntStream.rangeClosed(1, DOCUMENT_COUNT).boxed()
+                    .sorted(Comparator.comparingDouble((Integer other) -> -scores[other]).thenComparingInt(other -> other))
+                    .limit(LIST_SIZE).toList();
+            Set<Integer> found = new HashSet<>(index.related(id, LIST_SIZE));
+            recall += exact.stream().filter(found::contains).count() / (double) LIST_SIZE;
+        }
+        long allPairsNanos = (System.nanoTime() - start) / SAMPLE_SIZE * DOCUMENT_COUNT;
+        recall /= SAMPLE_SIZE;
+
+        System.out.printf("LSH build of %d documents: %d ms; all pairs (extrapolated from %d): %d ms; "
+                + "recall@%d %.3f%n", DOCUMENT_COUNT, lshNanos / 1_000_000, SAMPLE_SIZE, allPairsNanos / 1_000_000,
+                LIST_SIZE, recall);
+        assertThat(lshNanos).isLessThan(allPairsNanos);
+        assertThat(recall).isGreaterThan(0.9);
+    }
+
+    @Test
+    void putUpdatesNeighbourLists() {
+        List<SimilarityIndex.Entry> entries = new ArrayList<>();
+        for (int id = 1; id <= 2_000; id++) {
+            entries.add(document(id));
+        }
+        SimilarityIndex index = new SimilarityIndex(WEIGHTS, LIST_SIZE);
+        index.build(entries.subList(0, 1_999), ForkJoinPool.commonPool());
+        index.put(entries.get(1_999));
+
+        List<Integer> relatedToLast = index.related(2_000, LIST_SIZE);
+        assertThat(relatedToLast).isNotEmpty();
+        for (int i = 1; i < relatedToLast.size(); i++) {
+            assertThat(index.similarity(2_000, relatedToLast.get(i - 1)))
+                    .isGreaterThanOrEqualTo(index.similarity(2_000, relatedToLast.get(i)));
+        }
+        // The new document also enters the lists of its closest neighbours.
+        assertThat(relatedToLast).anyMatch(id -> index.related(id, LIST_SIZE).contains(2_000));
+    }
+
+    // Documents about one topic: mostly its terms, some common filler, two of
+    // its tags and often one of its advisers.
+    private SimilarityIndex.Entry document(int id) {
+        int topic = random.nextInt(TOPIC_COUNT);
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 40; i++) {
+            terms.add("t" + topic + "_" + random.nextInt(TOPIC_TERMS));
+        }
+        for (int i = 0; i < 80; i++) {
+            terms.add("c" + (int) Math.abs(random.nextGaussian() * COMMON_TERMS / 3));
+        }
+        Set<Integer> tags = Set.of(topic * 4 + random.nextInt(2), topic * 4 + 2 + random.nextInt(2));
+        int owner = random.nextInt(4) == 0 ? random.nextInt(200) : topic % 200;
+        return new SimilarityIndex.Entry(id, terms, tags, owner);
+    }
+}
@@ -0,0 +1,93 @@
+package net.SPIS.backend.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Checks the LSH-pruned related lists against exact all-pairs ranking on a
+ * corpus small enough for every build; SimilarityIndexBenchmarkTest does the
+ * same at scale.
+ */
+class SimilarityIndexTest {
+
+    private static final int DOCUMENT_COUNT = 600;
+    private static final int TOPIC_COUNT = 30;
+    private static final int LIST_SIZE = 5;
+    private static final SimilarityIndex.Weights WEIGHTS = new SimilarityIndex.Weights(0.5, 0.35, 0.15);
+
+    private final Random random = new Random(42);
+
+    @Test
+    void relatedListsRecallTheExactNeighbours() {
+        List<SimilarityIndex.Entry> entries = new ArrayList<>();
+        for (int id = 1; id <= DOCUMENT_COUNT; id++) {
+            entries.add(document(id));
+        }
+        SimilarityIndex index = new SimilarityIndex(WEIGHTS, LIST_SIZE);
+        index.build(entries, ForkJoinPool.commonPool());
+
+        double recall = 0;
+        for (int id = 1; id <= DOCUMENT_COUNT; id++) {
+            int self = id;
+            List<Integer> exact = IntStream.rangeClosed(1, DOCUMENT_COUNT).filter(other -> other != self).boxed()
+                    .sorted(Comparator.comparingDouble((Integer other) -> -index.similarity(self, other))
+                            .thenComparingInt(other -> other))
+                    .limit(LIST_SIZE).toList();
+            Set<Integer> found = new HashSet<>(index.related(id, LIST_SIZE));
+            recall += exact.stream().filter(found::contains).count() / (double) LIST_SIZE;
+        }
+        recall /= DOCUMENT_COUNT;
+
+        assertThat(index.size()).isEqualTo(DOCUMENT_COUNT);
+        assertThat(recall).isGreaterThan(0.9);
+    }
+
+    @Test
+    void relatedListsAreRankedAndExcludeTheDocument() {
+        SimilarityIndex index = new SimilarityIndex(WEIGHTS, LIST_SIZE);
+        index.build(List.of(
+                new SimilarityIndex.Entry(1, List.of("crop", "disease", "detection", "leaf"), Set.of(1, 2), 10),
+                new SimilarityIndex.Entry(2, List.of("crop", "disease", "detection", "rice"), Set.of(1, 2), 10),
+                new SimilarityIndex.Entry(3, List.of("crop", "yield", "prediction", "rice"), Set.of(1), 11),
+                new SimilarityIndex.Entry(4, List.of("traffic", "sign", "recognition"), Set.of(3), 12)),
+                ForkJoinPool.commonPool());
+
+        assertThat(index.related(1, LIST_SIZE)).containsExactly(2, 3);
+        assertThat(index.related(1, 1)).containsExactly(2);
+        assertThat(index.related(4, LIST_SIZE)).isEmpty();
+        assertThat(index.related(99, LIST_SIZE)).isNull();
+
+        // A new document joins the lists of its neighbours; a known id is ignored.
+        index.put(new SimilarityIndex.Entry(5, List.of("crop", "disease", "detection", "leaf"), Set.of(1, 2), 10));
+        index.put(new SimilarityIndex.Entry(5, List.of("traffic"), Set.of(3), 12));
+        assertThat(index.related(5, LIST_SIZE)).startsWith(1);
+        assertThat(index.related(1, LIST_SIZE)).startsWith(5);
+        assertThat(index.size()).isEqualTo(5);
+    }
+
+    // Documents about one topic: mostly its terms, some shared filler and two
+    // of its tags, usually with the topic's adviser.
+    private SimilarityIndex.Entry document(int id) {
+        int topic = random.nextInt(TOPIC_COUNT);
+        List<String> terms = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            terms.add("t" + topic + "_" + random.nextInt(20));
+        }
+        for (int i = 0; i < 30; i++) {
+            terms.add("c" + random.nextInt(300));
+        }
+        Set<Integer> tags = Set.of(topic * 4 + random.nextInt(2), topic * 4 + 2 + random.nextInt(2));
+        int owner = random.nextInt(4) == 0 ? random.nextInt(20) : topic % 20;
+        return new SimilarityIndex.Entry(id, terms, tags, owner);
+    }
+}
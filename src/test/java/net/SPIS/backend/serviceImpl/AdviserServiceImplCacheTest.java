@@ -0,0 +1,94 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.config.CacheConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Runs without a test transaction, so the service's own transaction commits;
+ * the rows are written to a database of its own.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:spis-cache;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+        + "DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,YEAR,VALUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ CacheConfig.class, AdviserServiceImpl.class, ContentStoreServiceImpl.class,
+        AdviserServiceImplCacheTest.RecordingCaches.class })
+class AdviserServiceImplCacheTest {
+
+    private static final int ADVISER = 1;
+
+    @Autowired
+    private AdviserServiceImpl adviserService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private RecordingCaches caches;
+
+    @BeforeEach
+    void seed() {
+        for (String table : List.of("admin", "faculty")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        jdbcTemplate.update("INSERT INTO faculty (faculty_id, faculty_name) VALUES (1, 'CS')");
+        jdbcTemplate.update("INSERT INTO admin (admin_id, first_name, last_name, role, faculty_id, description) "
+                + "VALUES (?, 'Ada', 'Adviser', 'faculty', 1, 'old')", ADVISER);
+        caches.evictedInTransaction.clear();
+    }
+
+    @Test
+    void updatesEvictTheAdvisersAfterTheCommit() {
+        assertThat(adviserService.getAdviser(ADVISER).getDescription()).isEqualTo("old");
+
+        adviserService.updateAdviserDescription(ADVISER, "new");
+
+        assertThat(caches.evictedInTransaction).containsExactly(false);
+        assertThat(adviserService.getAdviser(ADVISER).getDescription()).isEqualTo("new");
+    }
+
+    // Records for every eviction whether a transaction was still open.
+    @TestConfiguration
+    static class RecordingCaches {
+
+        final List<Boolean> evictedInTransaction = new CopyOnWriteArrayList<>();
+
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager("advisers") {
+                @Override
+                protected Cache createConcurrentMapCache(String name) {
+                    return new ConcurrentMapCache(name) {
+                        @Override
+                        public void clear() {
+                            evictedInTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+                            super.clear();
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
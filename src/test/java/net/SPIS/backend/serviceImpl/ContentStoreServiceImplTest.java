@@ -0,0 +1,133 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+class ContentStoreServiceImplTest {
+
+    private static final String DOCUMENTS = "/api/uploads/documents/";
+
+    @TempDir
+    Path dir;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private ContentStoreServiceImpl store;
+
+    @BeforeEach
+    void setUp() {
+        store = new ContentStoreServiceImpl(jdbcTemplate, dir.toString(), Duration.ofHours(24));
+    }
+
+    @Test
+    void releasedContentIsCollectedAfterTheGracePeriod() throws IOException {
+        String path = DOCUMENTS + store("report");
+        store.retain(path);
+        store.retain(path); // a second SP with the same document
+        endGracePeriod();
+        assertThat(store.collectGarbage()).isZero();
+
+        store.release(path);
+        endGracePeriod();
+        assertThat(store.collectGarbage()).isZero(); // still referenced once
+
+        store.release(path);
+        assertThat(store.collectGarbage()).isZero(); // within the grace period
+        endGracePeriod();
+        assertThat(store.collectGarbage()).isOne();
+        assertThat(blobs()).isEmpty();
+
+        assertThatThrownBy(() -> store.retain(path))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void identicalUploadsShareOneFileAndUnusedOnesAreCollected() throws IOException {
+        String first = store("report");
+        String second = store("report");
+        store("other");
+
+        assertThat(second).isEqualTo(first);
+        assertThat(blobs()).hasSize(2);
+        store.retain(DOCUMENTS + first);
+        endGracePeriod();
+        assertThat(store.collectGarbage()).isOne();
+        assertThat(blobs()).containsExactly(store.resolve("documents", first));
+    }
+
+    @Test
+    void reuploadRestartsTheGracePeriod() throws IOException {
+        store("report");
+        endGracePeriod();
+        store("report");
+
+        assertThat(store.collectGarbage()).isZero();
+        assertThat(blobs()).hasSize(1);
+    }
+
+    @Test
+    void fileIsRemovedWhenItsRowCannotBeInserted() {
+        JdbcTemplate failing = mock(JdbcTemplate.class);
+        when(failing.update(startsWith("INSERT INTO upload_blob"), any(Object[].class)))
+                .thenThrow(new DataAccessResourceFailureException("down"));
+        ContentStoreServiceImpl broken = new ContentStoreServiceImpl(failing, dir.toString(), Duration.ofHours(24));
+
+        assertThatThrownBy(() -> broken.store(content("report"), ".pdf", null))
+                .isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(blobs()).isEmpty();
+    }
+
+    private String store(String text) throws IOException {
+        return store.store(content(text), ".pdf", null);
+    }
+
+    private static ByteArrayInputStream content(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Moves every unreferenced_since back past the grace period
+    private void endGracePeriod() {
+        jdbcTemplate.update("UPDATE upload_blob SET unreferenced_since = ? WHERE unreferenced_since IS NOT NULL",
+                OffsetDateTime.now(ZoneOffset.UTC).minusDays(2));
+    }
+
+    private List<Path> blobs() {
+        try (Stream<Path> files = Files.walk(dir.resolve("cas"))) {
+            return files.filter(Files::isRegularFile).toList();
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CsvReaderTest {
+
+    @Test
+    void readsPlainRecords() throws IOException {
+        assertThat(records("title,year\nA,2024\nB,2025")).containsExactly(
+                List.of("title", "year"), List.of("A", "2024"), List.of("B", "2025"));
+    }
+
+    @Test
+    void quotedFieldsKeepCommasLineBreaksAndQuotes() throws IOException {
+        assertThat(records("\"Crops, soil\",\"line one\nline two\",\"a \"\"quoted\"\" word\"\n")).containsExactly(
+                List.of("Crops, soil", "line one\nline two", "a \"quoted\" word"));
+    }
+
+    @Test
+    void skipsBlankLinesAndHandlesCrlf() throws IOException {
+        assertThat(records("a,b\r\n\r\n\nc,d\r\n")).containsExactly(List.of("a", "b"), List.of("c", "d"));
+    }
+
+    @Test
+    void keepsEmptyFields() throws IOException {
+        assertThat(records(",x,\n")).containsExactly(List.of("", "x", ""));
+    }
+
+    @Test
+    void skipsByteOrderMark() throws IOException {
+        assertThat(records("\uFEFFtitle\nA\n")).containsExactly(List.of("title"), List.of("A"));
+    }
+
+    @Test
+    void emptyInputHasNoRecords() throws IOException {
+        assertThat(records("")).isEmpty();
+        assertThat(records("\n\n")).isEmpty();
+    }
+
+    private List<List<String>> records(String csv) throws IOException {
+        CsvReader reader = new CsvReader(new StringReader(csv));
+        List<List<String>> records = new ArrayList<>();
+        List<String> record;
+        while ((record = reader.next()) != null) {
+            records.add(record);
+        }
+        return records;
+    }
+}
@@ -0,0 +1,108 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Extracts a generated paper page by page into a compressed artifact and
+ * checks the page offsets against PDFBox's whole-document text. Run with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class DocumentTextExtractorBenchmarkTest {
+
+    private static final int PAGE_COUNT = 300;
+    private static final int LINES_PER_PAGE = 45;
+    private static final String[] WORDS = { "machine", "learning", "network", "system", "student", "data", "model",
+            "evaluation", "results", "method", "proposed", "accuracy", "farm", "sensor", "traffic", "cloud" };
+
+    private final Random random = new Random(42);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void extractPaperPageByPage() throws IOException {
+        Path pdf = paper(dir.resolve("paper.pdf"));
+        Path artifact = dir.resolve("text").resolve("1.txt.gz");
+        DocumentTextExtractor extractor = new DocumentTextExtractor();
+        extractor.extract(pdf, artifact); // warm-up
+
+        long start = System.nanoTime();
+        DocumentTextExtractor.Extraction extraction = extractor.extract(pdf, artifact);
+        long nanos = System.nanoTime() - start;
+
+        long pdfBytes = Files.size(pdf);
+        System.out.printf("Extracted %d pages (%.1f MB PDF, %d chars) in %d ms: %.0f pages/s, %.1f MB/s; "
+                + "artifact %d KB (%.0f%% of the text)%n", PAGE_COUNT, pdfBytes / 1e6, extraction.charCount(),
+                nanos / 1_000_000, PAGE_COUNT / (nanos / 1e9), pdfBytes / 1e6 / (nanos / 1e9),
+                extraction.artifactBytes() / 1024, 100.0 * extraction.artifactBytes() / extraction.charCount());
+
+        assertThat(extraction.pageOffsets()).hasSize(PAGE_COUNT);
+        String whole;
+        try (PDDocument document = Loader.loadPDF(pdf.toFile())) {
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setSortByPosition(true);
+            whole = stripper.getText(document);
+        }
+        assertThat(extraction.charCount()).isEqualTo(whole.length());
+        for (int page : new int[] { 1, 2, PAGE_COUNT / 2, PAGE_COUNT }) {
+            long from = extraction.pageOffsets()[page - 1];
+            long to = page < PAGE_COUNT ? extraction.pageOffsets()[page] : extraction.charCount();
+            String text = DocumentTextExtractor.read(artifact, from, to);
+            assertThat(text).startsWith("Page " + page + " ").isEqualTo(whole.substring((int) from, (int) to));
+        }
+        assertThat(extraction.artifactBytes()).isLessThan(extraction.charCount());
+        assertThat(Files.list(artifact.getParent())).hasSize(1); // no temp files left behind
+    }
+
+    private Path paper(Path file) throws IOException {
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        try (PDDocument document = new PDDocument()) {
+            for (int page = 1; page <= PAGE_COUNT; page++) {
+                PDPage pdPage = new PDPage();
+                document.addPage(pdPage);
+                try (PDPageContentStream content = new PDPageContentStream(document, pdPage)) {
+                    content.beginText();
+                    content.setFont(font, 10);
+                    content.setLeading(14);
+                    content.newLineAtOffset(50, 740);
+                    content.showText("Page " + page + " of the paper");
+                    for (int line = 0; line < LINES_PER_PAGE; line++) {
+                        content.newLine();
+                        content.showText(sentence());
+                    }
+                    content.endText();
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+
+    private String sentence() {
+        StringBuilder sentence = new StringBuilder();
+        for (int w = 0; w < 12; w++) {
+            if (w > 0) {
+                sentence.append(' ');
+            }
+            sentence.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        return sentence.toString();
+    }
+}
@@ -0,0 +1,97 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class DocumentTextExtractorTest {
+
+    private static final List<String> PAGES = List.of("Abstract of the study", "", "Results and discussion");
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void recordsWhereEachPageStarts() throws IOException {
+        Path artifact = dir.resolve("text").resolve("1.txt.gz");
+
+        DocumentTextExtractor.Extraction extraction = new DocumentTextExtractor().extract(pdf(PAGES), artifact);
+
+        long[] offsets = extraction.pageOffsets();
+        assertThat(offsets).hasSize(3);
+        assertThat(offsets[0]).isZero();
+        assertThat(page(artifact, extraction, 1)).isEqualToIgnoringWhitespace("Abstract of the study");
+        assertThat(page(artifact, extraction, 2)).isBlank(); // a page without text still gets an offset
+        assertThat(page(artifact, extraction, 3)).isEqualToIgnoringWhitespace("Results and discussion");
+        assertThat(DocumentTextExtractor.read(artifact, 0, extraction.charCount()))
+                .isEqualTo(page(artifact, extraction, 1) + page(artifact, extraction, 2)
+                        + page(artifact, extraction, 3));
+        assertThat(extraction.artifactBytes()).isEqualTo(Files.size(artifact));
+    }
+
+    @Test
+    void readsPartOfTheTextAndStopsAtTheEnd() throws IOException {
+        Path artifact = dir.resolve("1.txt.gz");
+        DocumentTextExtractor.Extraction extraction = new DocumentTextExtractor().extract(pdf(PAGES), artifact);
+
+        assertThat(DocumentTextExtractor.read(artifact, 9, 15)).isEqualTo("of the");
+        assertThat(DocumentTextExtractor.read(artifact, extraction.charCount() - 1, extraction.charCount() + 100))
+                .hasSize(1);
+        assertThat(DocumentTextExtractor.read(artifact, extraction.charCount() + 10, extraction.charCount() + 20))
+                .isEmpty();
+    }
+
+    @Test
+    void replacesTheArtifact() throws IOException {
+        Path artifact = dir.resolve("1.txt.gz");
+        DocumentTextExtractor extractor = new DocumentTextExtractor();
+        extractor.extract(pdf(PAGES), artifact);
+
+        DocumentTextExtractor.Extraction extraction = extractor.extract(pdf(List.of("Revised paper")), artifact);
+
+        assertThat(extraction.pageOffsets()).containsExactly(0);
+        assertThat(DocumentTextExtractor.read(artifact, 0, extraction.charCount()))
+                .isEqualToIgnoringWhitespace("Revised paper");
+        assertThat(Files.list(dir)).containsExactlyInAnyOrder(artifact, dir.resolve("paper.pdf"));
+    }
+
+    private static String page(Path artifact, DocumentTextExtractor.Extraction extraction, int page)
+            throws IOException {
+        long[] offsets = extraction.pageOffsets();
+        long to = page < offsets.length ? offsets[page] : extraction.charCount();
+        return DocumentTextExtractor.read(artifact, offsets[page - 1], to);
+    }
+
+    private Path pdf(List<String> pages) throws IOException {
+        Path file = dir.resolve("paper.pdf");
+        PDType1Font font = new PDType1Font(Standard14Fonts.FontName.HELVETICA);
+        try (PDDocument document = new PDDocument()) {
+            for (String text : pages) {
+                PDPage page = new PDPage();
+                document.addPage(page);
+                if (!text.isEmpty()) {
+                    try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                        content.beginText();
+                        content.setFont(font, 12);
+                        content.newLineAtOffset(50, 700);
+                        content.showText(text);
+                        content.endText();
+                    }
+                }
+            }
+            document.save(file.toFile());
+        }
+        return file;
+    }
+}
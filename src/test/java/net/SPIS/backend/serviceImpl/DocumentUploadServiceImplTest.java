@@ -0,0 +1,54 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.DocumentUploadDTO;
+import net.SPIS.backend.service.ContentStoreService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class DocumentUploadServiceImplTest {
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void retryAfterAFailedStoreUsesTheContentDigest() throws IOException, NoSuchAlgorithmException {
+        byte[] content = "final report".getBytes(StandardCharsets.UTF_8);
+        String digest = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        ContentStoreService contentStore = mock(ContentStoreService.class);
+        when(contentStore.store(any(Path.class), anyString(), anyString()))
+                .thenThrow(new IOException("disk full"))
+                .thenReturn(digest + ".pdf");
+        DocumentUploadServiceImpl uploads = new DocumentUploadServiceImpl(dir.toString(), DataSize.ofMegabytes(1),
+                1, Duration.ofHours(1));
+        ReflectionTestUtils.setField(uploads, "contentStoreService", contentStore);
+        String id = uploads.createUpload(content.length, ".pdf", digest).getUploadId();
+
+        assertThatThrownBy(() -> uploads.append(id, 0, new ByteArrayInputStream(content)))
+                .isInstanceOf(IOException.class);
+        DocumentUploadDTO retried = uploads.append(id, content.length, new ByteArrayInputStream(new byte[0]));
+
+        assertThat(retried.getDocumentPath()).isEqualTo("/api/uploads/documents/" + digest + ".pdf");
+        verify(contentStore, times(2)).store(any(Path.class), eq(digest), eq(".pdf"));
+    }
+}
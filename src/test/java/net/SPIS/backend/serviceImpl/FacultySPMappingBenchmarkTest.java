@@ -0,0 +1,135 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compares the faculty SP listing through the student join with the
+ * faculty_sp mapping. Run with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(FacultySPMapping.class)
+class FacultySPMappingBenchmarkTest {
+
+    private static final int FACULTY_COUNT = 20;
+    private static final int STUDENT_COUNT = 50_000;
+    private static final int GROUP_SIZE = 5;
+    private static final int QUERY_COUNT = 25;
+
+    private static final String JOIN = "SELECT sp.sp_id, sp.title FROM sp "
+            + "JOIN student s ON s.group_id = sp.group_id WHERE s.faculty_id = ? ORDER BY sp.sp_id";
+    private static final String EXISTS_JOIN = "SELECT sp.sp_id, sp.title FROM sp WHERE EXISTS "
+            + "(SELECT 1 FROM student s WHERE s.group_id = sp.group_id AND s.faculty_id = ?) ORDER BY sp.sp_id";
+    private static final String MAPPING = "SELECT sp.sp_id, sp.title FROM sp "
+            + "JOIN faculty_sp f ON f.sp_id = sp.sp_id WHERE f.faculty_id = ? ORDER BY sp.sp_id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FacultySPMapping facultySPMapping;
+
+    private final Random random = new Random(42);
+
+    @BeforeEach
+    void seed() {
+        List<Object[]> faculties = new ArrayList<>();
+        for (int i = 1; i <= FACULTY_COUNT; i++) {
+            faculties.add(new Object[] { i, "Faculty " + i });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO faculty (faculty_id, faculty_name) VALUES (?, ?)", faculties);
+        jdbcTemplate.update("INSERT INTO admin (admin_id, first_name, last_name, role, faculty_id) "
+                + "VALUES (1, 'A', 'B', 'faculty', 1)");
+
+        int groupCount = STUDENT_COUNT / GROUP_SIZE;
+        List<Object[]> groups = new ArrayList<>();
+        List<Object[]> sps = new ArrayList<>();
+        for (int g = 1; g <= groupCount; g++) {
+            groups.add(new Object[] { g, "Group " + g });
+            sps.add(new Object[] { g, "SP " + g, Date.valueOf(LocalDate.of(2024, 1, 1)), g });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO groups (group_id, group_name) VALUES (?, ?)", groups);
+        jdbcTemplate.batchUpdate("INSERT INTO sp (sp_id, title, year, semester, view_count, date_issued, "
+                + "uploaded_by, group_id, adviser_id) VALUES (?, ?, 2024, '1st', 0, ?, 1, ?, 1)", sps);
+
+        // Groups mostly share a faculty, with the odd cross-faculty member.
+        List<Object[]> students = new ArrayList<>();
+        for (int i = 0; i < STUDENT_COUNT; i++) {
+            int group = i / GROUP_SIZE + 1;
+            int faculty = random.nextInt(5) == 0 ? random.nextInt(FACULTY_COUNT) + 1 : group % FACULTY_COUNT + 1;
+            students.add(new Object[] { i + 1, "Student", String.valueOf(i), faculty, group });
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO student (student_id, first_name, last_name, faculty_id, group_id) "
+                + "VALUES (?, ?, ?, ?, ?)", students);
+
+        long start = System.nanoTime();
+        facultySPMapping.rebuild();
+        System.out.printf("faculty_sp rebuild: %.1f ms for %d students%n", (System.nanoTime() - start) / 1e6,
+                STUDENT_COUNT);
+    }
+
+    @Test
+    void compareStudentJoinWithMapping() {
+        int[] faculties = random.ints(QUERY_COUNT, 1, FACULTY_COUNT + 1).toArray();
+
+        assertThat(listing(MAPPING, 1)).isEqualTo(listing(EXISTS_JOIN, 1));
+        assertThat(listing(MAPPING, 1)).hasSizeLessThan(listing(JOIN, 1).size());
+
+        long[] joinNanos = measure(faculties, faculty -> listing(JOIN, faculty).size());
+        long[] existsNanos = measure(faculties, faculty -> listing(EXISTS_JOIN, faculty).size());
+        long[] mappingNanos = measure(faculties, faculty -> listing(MAPPING, faculty).size());
+
+        report("join", joinNanos);
+        report("exists", existsNanos);
+        report("faculty_sp", mappingNanos);
+        assertThat(percentile(mappingNanos, 50)).isLessThan(percentile(existsNanos, 50));
+    }
+
+    private List<Integer> listing(String sql, int facultyId) {
+        return jdbcTemplate.query(sql, (rs, i) -> rs.getInt(1), facultyId);
+    }
+
+    private long[] measure(int[] faculties, IntFunction<Integer> listing) {
+        for (int i = 0; i < 5; i++) {
+            listing.apply(faculties[i]); // warm-up
+        }
+        long[] nanos = new long[faculties.length];
+        for (int i = 0; i < faculties.length; i++) {
+            long start = System.nanoTime();
+            listing.apply(faculties[i]);
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos;
+    }
+
+    private void report(String name, long[] sortedNanos) {
+        System.out.printf("%-10s p50=%.3f ms  p99=%.3f ms  (%d students, %d queries)%n", name,
+                percentile(sortedNanos, 50) / 1e6, percentile(sortedNanos, 99) / 1e6, STUDENT_COUNT,
+                sortedNanos.length);
+    }
+
+    private long percentile(long[] sortedNanos, int percentile) {
+        return sortedNanos[Math.min(sortedNanos.length - 1, sortedNanos.length * percentile / 100)];
+    }
+}
@@ -0,0 +1,98 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.events.GroupMembershipChangedEvent;
+import net.SPIS.backend.events.SPCreatedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import(FacultySPMapping.class)
+class FacultySPMappingTest {
+
+    private static final int CS = 1;
+    private static final int IT = 2;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private FacultySPMapping facultySPMapping;
+
+    @BeforeEach
+    void seed() {
+        jdbcTemplate.update("INSERT INTO faculty (faculty_id, faculty_name) VALUES (?, 'CS'), (?, 'IT')", CS, IT);
+        jdbcTemplate.update("INSERT INTO admin (admin_id, first_name, last_name, role, faculty_id) "
+                + "VALUES (1, 'Ada', 'Adviser', 'faculty', 1)");
+        jdbcTemplate.update("INSERT INTO groups (group_id, group_name) VALUES (1, 'G1'), (2, 'G2')");
+        // Group 1 has two CS students and one IT student; group 2 is all IT.
+        jdbcTemplate.update("INSERT INTO student (student_id, first_name, last_name, faculty_id, group_id) "
+                + "VALUES (1, 'A', 'A', ?, 1), (2, 'B', 'B', ?, 1), (3, 'C', 'C', ?, 1), (4, 'D', 'D', ?, 2)",
+                CS, CS, IT, IT);
+        insertSP(1, 1);
+        insertSP(2, 1);
+        insertSP(3, 2);
+    }
+
+    @Test
+    void rebuildStoresEachFacultyAndSPOnce() {
+        facultySPMapping.rebuild();
+
+        assertThat(sps(CS)).containsExactly(1, 2);
+        assertThat(sps(IT)).containsExactly(1, 2, 3);
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM faculty_sp", Integer.class)).isEqualTo(5);
+    }
+
+    @Test
+    void refreshesOnlyTheChangedGroup() {
+        facultySPMapping.rebuild();
+        jdbcTemplate.update("UPDATE student SET group_id = 2 WHERE student_id = 3");
+        jdbcTemplate.update("UPDATE student SET faculty_id = ? WHERE student_id = 4", CS);
+
+        facultySPMapping.onGroupMembershipChanged(new GroupMembershipChangedEvent(1));
+
+        assertThat(sps(CS)).containsExactly(1, 2); // group 2 is not refreshed yet
+        assertThat(sps(IT)).containsExactly(3);
+
+        facultySPMapping.refreshGroup(2);
+        assertThat(sps(CS)).containsExactly(1, 2, 3);
+        assertThat(sps(IT)).containsExactly(3);
+    }
+
+    @Test
+    void mapsACreatedSP() {
+        facultySPMapping.rebuild();
+        insertSP(4, 2);
+        SPDTO sp = new SPDTO();
+        sp.setSpId(4);
+        sp.setGroupId(2);
+
+        facultySPMapping.onSPCreated(new SPCreatedEvent(sp));
+
+        assertThat(sps(IT)).containsExactly(1, 2, 3, 4);
+        assertThat(sps(CS)).containsExactly(1, 2);
+    }
+
+    private void insertSP(int spId, int groupId) {
+        jdbcTemplate.update("INSERT INTO sp (sp_id, title, year, semester, view_count, date_issued, uploaded_by, "
+                + "group_id, adviser_id) VALUES (?, ?, 2024, '1st', 0, DATE '2024-01-01', 1, ?, 1)",
+                spId, "SP " + spId, groupId);
+    }
+
+    private List<Integer> sps(int facultyId) {
+        return jdbcTemplate.queryForList("SELECT sp_id FROM faculty_sp WHERE faculty_id = ? ORDER BY sp_id",
+                Integer.class, facultyId);
+    }
+}
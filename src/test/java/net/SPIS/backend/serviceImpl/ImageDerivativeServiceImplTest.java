@@ -0,0 +1,80 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class ImageDerivativeServiceImplTest {
+
+    @TempDir
+    Path dir;
+
+    private final ImageDerivativeServiceImpl service = new ImageDerivativeServiceImpl(1, 4, 2, 1_000_000);
+
+    @AfterEach
+    void shutdown() {
+        service.shutdown();
+    }
+
+    @Test
+    void generatesADownscaledDerivative() throws IOException {
+        Path original = image("photo", 800, 400);
+
+        Path thumb = service.getDerivative(original, "thumb");
+
+        assertThat(thumb).isEqualTo(dir.resolve("photo.thumb.jpg"));
+        BufferedImage scaled = ImageIO.read(thumb.toFile());
+        assertThat(scaled.getWidth()).isEqualTo(160);
+        assertThat(scaled.getHeight()).isEqualTo(80);
+        assertThat(service.getDerivative(original, "thumb")).isEqualTo(thumb);
+    }
+
+    @Test
+    void returnsTheOriginalWhenItCannotBeResized() throws IOException {
+        Path notAnImage = Files.writeString(dir.resolve("notes"), "not an image");
+        Path tooLarge = image("poster", 2000, 1000); // over the 1,000,000 pixel limit
+
+        assertThat(service.getDerivative(notAnImage, "thumb")).isEqualTo(notAnImage);
+        assertThat(service.getDerivative(tooLarge, "medium")).isEqualTo(tooLarge);
+        assertThatThrownBy(() -> service.getDerivative(tooLarge, "huge"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void waitersGetTheSameErrorAsAFailedGeneration() throws IOException {
+        Path original = image("photo", 800, 400);
+        // Another request is generating the thumbnail and fails.
+        inFlight().put(dir.resolve("photo.thumb.jpg"), CompletableFuture.failedFuture(new IOException("disk full")));
+
+        assertThatThrownBy(() -> service.getDerivative(original, "thumb"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR))
+                .hasRootCauseInstanceOf(IOException.class);
+    }
+
+    private Path image(String name, int width, int height) throws IOException {
+        Path file = dir.resolve(name);
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", file.toFile());
+        return file;
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Path, CompletableFuture<Path>> inFlight() {
+        return (Map<Path, CompletableFuture<Path>>) ReflectionTestUtils.getField(service, "inFlight");
+    }
+}
@@ -0,0 +1,81 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.events.SPCreatedEvent;
+import net.SPIS.backend.service.DocumentTextService;
+import net.SPIS.backend.service.SPService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * An SP created while the related-SP and search indexes are being rebuilt
+ * must still be in them after the rebuilt index replaces the old one.
+ */
+class IndexRebuildRaceTest {
+
+    private final SPDTO existing = sp(1, "Crop disease detection with deep learning");
+    private final SPDTO created = sp(2, "Crop yield prediction with deep learning");
+
+    private SPService spService;
+    private Runnable duringExport;
+
+    @BeforeEach
+    void setUp() {
+        spService = mock(SPService.class);
+        doAnswer(invocation -> {
+            Consumer<SPDTO> consumer = invocation.getArgument(0);
+            consumer.accept(existing);
+            duringExport.run(); // created after the export passed its row
+            return null;
+        }).when(spService).exportAllSP(any());
+        when(spService.getSPsByIds(anyList())).thenAnswer(invocation -> invocation.<List<Integer>>getArgument(0)
+                .stream().map(id -> id == 1 ? existing : created).toList());
+    }
+
+    @Test
+    void relatedSPsKeepSPsCreatedDuringARebuild() {
+        RelatedSPServiceImpl related = new RelatedSPServiceImpl(10, 0.5, 0.35, 0.15, 1);
+        ReflectionTestUtils.setField(related, "spService", spService);
+        duringExport = () -> related.onSPCreated(new SPCreatedEvent(created));
+
+        related.rebuildIndex();
+
+        assertThat(related.getRelatedSPs(2, 5)).extracting(SPDTO::getSpId).containsExactly(1);
+        assertThat(related.getRelatedSPs(1, 5)).extracting(SPDTO::getSpId).containsExactly(2);
+        related.shutdown();
+    }
+
+    @Test
+    void searchKeepsSPsCreatedDuringARebuild() {
+        SPSearchServiceImpl search = new SPSearchServiceImpl();
+        ReflectionTestUtils.setField(search, "spService", spService);
+        ReflectionTestUtils.setField(search, "documentTextService", mock(DocumentTextService.class));
+        duringExport = () -> search.onSPCreated(new SPCreatedEvent(created));
+
+        search.rebuildIndex();
+
+        assertThat(search.search("yield", 0, 10).getItems()).extracting(SPDTO::getSpId).containsExactly(2);
+        assertThat(search.search("crop", 0, 10).getTotal()).isEqualTo(2);
+    }
+
+    private static SPDTO sp(int id, String title) {
+        SPDTO sp = new SPDTO();
+        sp.setSpId(id);
+        sp.setTitle(title);
+        sp.setAdviserId(1);
+        sp.setTagIds(Set.of(1));
+        return sp;
+    }
+}
@@ -0,0 +1,138 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.SPImportErrorDTO;
+import net.SPIS.backend.DTO.SPImportResultDTO;
+import net.SPIS.backend.repositories.SPBulkWriter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+/**
+ * Runs without a test transaction, because the writer commits each chunk
+ * itself; the rows are written to a database of its own.
+ */
+@DataJpaTest(properties = "spring.datasource.url=jdbc:h2:mem:spis-import;MODE=PostgreSQL;DATABASE_TO_LOWER=TRUE;"
+        + "DEFAULT_NULL_ORDERING=HIGH;NON_KEYWORDS=GROUPS,YEAR,VALUE")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Import({ SPImportServiceImpl.class, SPBulkWriter.class, ContentStoreServiceImpl.class })
+class SPImportServiceImplTest {
+
+    private static final int STAFF = 1;
+    private static final int ADVISER = 2;
+    private static final int GROUP = 1;
+    private static final int TAG = 1;
+
+    @Autowired
+    private SPImportServiceImpl importService;
+
+    @Autowired
+    private SPBulkWriter spBulkWriter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void seed() {
+        for (String table : List.of("sp_tags", "sp", "tag", "admin", "groups", "faculty")) {
+            jdbcTemplate.update("DELETE FROM " + table);
+        }
+        jdbcTemplate.update("INSERT INTO faculty (faculty_id, faculty_name) VALUES (1, 'CS')");
+        jdbcTemplate.update("INSERT INTO admin (admin_id, first_name, last_name, role, faculty_id) "
+                + "VALUES (?, 'Staff', 'One', 'staff', 1), (?, 'Ada', 'Adviser', 'faculty', 1)", STAFF, ADVISER);
+        jdbcTemplate.update("INSERT INTO groups (group_id, group_name) VALUES (?, 'G1')", GROUP);
+        jdbcTemplate.update("INSERT INTO tag (tag_id, tag_name) VALUES (?, 'ml')", TAG);
+    }
+
+    @Test
+    void reportsInvalidRowsAndImportsTheRest() {
+        SPDTO longTitle = sp("x".repeat(256));
+        SPDTO facultyUploader = sp("Uploaded by faculty");
+        facultyUploader.setUploadedById(ADVISER);
+        SPDTO tagged = sp("Tagged");
+        tagged.setTagIds(Set.of(TAG));
+        SPDTO unknownTag = sp("Unknown tag");
+        unknownTag.setTagIds(Set.of(99));
+
+        SPImportResultDTO result = importService.importSPs(
+                Arrays.asList(sp("First"), null, longTitle, facultyUploader, tagged, unknownTag));
+
+        assertThat(result.getReceived()).isEqualTo(6);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getCreated()).extracting(SPDTO::getTitle).containsExactly("First", "Tagged");
+        assertThat(result.getCreated()).allSatisfy(sp -> assertThat(sp.getSpId()).isNotNull());
+        assertThat(result.getErrors()).extracting(SPImportErrorDTO::getRow).containsExactly(2, 3, 4, 6);
+        assertThat(result.getErrors()).extracting(SPImportErrorDTO::getError).containsExactly("Row is empty",
+                "title is longer than 255 characters", "Uploader must be a staff member", "Tag not found: 99");
+        assertThat(count("sp")).isEqualTo(2);
+        assertThat(count("sp_tags")).isEqualTo(1);
+    }
+
+    @Test
+    void csvRowsThatDoNotParseKeepTheirRowNumbers() throws IOException {
+        String csv = "title,year,semester,dateIssued,uploadedById,groupId,adviserId,tagIds\n"
+                + "Bad year,20x4,1st,2024-06-01,1,1,2,\n"
+                + "\"Crops, soil\",2024,1st,2024-06-01,1,1,2,1\n"
+                + "Bad date,2024,1st,June,1,1,2,\n";
+
+        SPImportResultDTO result = importService.importSPsFromCsv(new StringReader(csv));
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getCreated().get(0).getTitle()).isEqualTo("Crops, soil");
+        assertThat(result.getCreated().get(0).getTagIds()).containsExactly(TAG);
+        assertThat(result.getErrors()).extracting(SPImportErrorDTO::getRow, SPImportErrorDTO::getError)
+                .containsExactly(tuple(1, "Invalid year: 20x4"),
+                        tuple(3, "Invalid dateIssued: June"));
+    }
+
+    @Test
+    void writerFailsOnlyTheRowsTheDatabaseRejects() {
+        SPDTO missingGroup = sp("Missing group");
+        missingGroup.setGroupId(999);
+        List<SPDTO> sps = List.of(sp("Before"), missingGroup, sp("After"));
+
+        Map<Integer, String> failures = spBulkWriter.insert(sps);
+
+        assertThat(failures).containsOnlyKeys(1);
+        assertThat(sps.get(0).getSpId()).isNotNull();
+        assertThat(sps.get(1).getSpId()).isNull();
+        assertThat(sps.get(2).getSpId()).isNotNull();
+        assertThat(count("sp")).isEqualTo(2);
+    }
+
+    private SPDTO sp(String title) {
+        SPDTO sp = new SPDTO();
+        sp.setTitle(title);
+        sp.setYear(2024);
+        sp.setSemester("1st");
+        sp.setDateIssued(LocalDate.of(2024, 6, 1));
+        sp.setUploadedById(STAFF);
+        sp.setGroupId(GROUP);
+        sp.setAdviserId(ADVISER);
+        return sp;
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
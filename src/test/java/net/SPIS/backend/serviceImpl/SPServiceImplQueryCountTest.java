@@ -0,0 +1,156 @@
+package net.SPIS.backend.serviceImpl;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.entities.*;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@ActiveProfiles("test")
+@Import({ SPServiceImpl.class, ViewCountBuffer.class, TagPostingsIndex.class, ViewLeaderboard.class,
+        ViewEventPipeline.class, ViewDeduplicator.class, FacultySPMapping.class, ContentStoreServiceImpl.class })
+class SPServiceImplQueryCountTest {
+
+    private static final int SP_COUNT = 1000;
+
+    @Autowired
+    private SPServiceImpl spService;
+
+    @Autowired
+    private TagPostingsIndex tagPostingsIndex;
+
+    @Autowired
+    private FacultySPMapping facultySPMapping;
+
+    @Autowired
+    private ViewCountBuffer viewCountBuffer;
+
+    @Autowired
+    private ViewLeaderboard viewLeaderboard;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Admin adviser;
+    private Faculty faculty;
+    private Tag tag;
+
+    @BeforeEach
+    void seed() {
+        faculty = new Faculty();
+        faculty.setFacultyName("Computer Science");
+        entityManager.persist(faculty);
+
+        Admin staff = admin("staff");
+        adviser = admin("faculty");
+
+        Groups group = new Groups();
+        group.setGroupName("Group 1");
+        entityManager.persist(group);
+
+        for (int i = 0; i < 3; i++) {
+            Student student = new Student();
+            student.setFirstName("Student");
+            student.setLastName(String.valueOf(i));
+            student.setFaculty(faculty);
+            student.setGroup(group);
+            entityManager.persist(student);
+        }
+
+        tag = new Tag();
+        tag.setTagName("Machine Learning");
+        entityManager.persist(tag);
+        Tag otherTag = new Tag();
+        otherTag.setTagName("Web");
+        entityManager.persist(otherTag);
+
+        for (int i = 0; i < SP_COUNT; i++) {
+            SP sp = new SP();
+            sp.setTitle("SP " + i);
+            sp.setYear(2024);
+            sp.setSemester("1st");
+            sp.setAbstractText("Abstract " + i);
+            sp.setDateIssued(LocalDate.of(2024, 6, 1));
+            sp.setUploadedBy(staff);
+            sp.setGroup(group);
+            sp.setAdviser(adviser);
+            sp.setTags(Set.of(tag, otherTag));
+            entityManager.persist(sp);
+        }
+        entityManager.flush();
+        entityManager.clear();
+        tagPostingsIndex.rebuild();
+        facultySPMapping.rebuild();
+    }
+
+    @Test
+    void listingsUseAFixedNumberOfQueries() {
+        assertListing(() -> spService.getAllSP());
+        assertListing(() -> spService.getSPFromAdviser(adviser.getAdminId()));
+        assertListing(() -> spService.getSPFromFaculty(faculty.getFacultyId()));
+        assertListing(() -> spService.getSPsWithTags(List.of(tag.getTagId())));
+    }
+
+    @Test
+    void flushedViewsOnlyChangeTheViewedSPsETag() {
+        viewLeaderboard.rebuild(); // loaded before the seed at startup
+        List<Integer> spIds = entityManager.createQuery("SELECT sp.spId FROM SP sp ORDER BY sp.spId", Integer.class)
+                .setMaxResults(2).getResultList();
+        Integer viewed = spIds.get(0);
+        Integer other = spIds.get(1);
+        String viewedETag = spService.getSPETag(viewed);
+        String otherETag = spService.getSPETag(other);
+        String listETag = spService.getSPListETag();
+
+        viewCountBuffer.increment(viewed);
+        assertThat(spService.getSPETag(viewed)).isEqualTo(viewedETag); // not flushed yet
+        viewCountBuffer.flush();
+
+        assertThat(spService.getSPETag(viewed)).isNotEqualTo(viewedETag);
+        assertThat(spService.getSPETag(other)).isEqualTo(otherETag);
+        assertThat(spService.getSPListETag()).isNotEqualTo(listETag);
+    }
+
+    private void assertListing(Supplier<List<SPDTO>> listing) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        entityManager.clear();
+        statistics.clear();
+
+        List<SPDTO> sps = listing.get();
+
+        assertThat(sps).hasSize(SP_COUNT);
+        assertThat(sps).allSatisfy(sp -> assertThat(sp.getTagIds()).hasSize(2));
+        // One query for the SP rows and one for their tag ids.
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+    }
+
+    private Admin admin(String role) {
+        Admin admin = new Admin();
+        admin.setFirstName("First");
+        admin.setLastName(role);
+        admin.setRole(role);
+        admin.setFaculty(faculty);
+        entityManager.persist(admin);
+        return admin;
+    }
+}
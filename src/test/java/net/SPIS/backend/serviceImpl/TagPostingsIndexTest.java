@@ -0,0 +1,107 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.DTO.TagQueryDTO;
+import net.SPIS.backend.events.SPCreatedEvent;
+import net.SPIS.backend.events.TagDeletedEvent;
+import net.SPIS.backend.repositories.SPRepository;
+import net.SPIS.backend.repositories.SPRow;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TagPostingsIndexTest {
+
+    private static final int ML = 1;
+    private static final int IOT = 2;
+    private static final int WEB = 3;
+
+    private TagPostingsIndex index;
+
+    @BeforeEach
+    void setUp() {
+        SPRepository spRepository = mock(SPRepository.class);
+        when(spRepository.findAllRows()).thenReturn(List.of(
+                row(1, 2023, "1st", 10),
+                row(2, 2023, "2nd", 10),
+                row(3, 2024, "1st", 11),
+                row(4, 2024, "2nd", 11)));
+        when(spRepository.findAllTagIdPairs()).thenReturn(List.of(
+                new Object[] { 1, ML }, new Object[] { 1, IOT },
+                new Object[] { 2, ML },
+                new Object[] { 3, IOT }, new Object[] { 3, WEB },
+                new Object[] { 4, WEB }));
+        index = new TagPostingsIndex(spRepository);
+        index.rebuild();
+    }
+
+    @Test
+    void combinesTagsWithAndOrAndNot() {
+        assertThat(ids(index.query(query(List.of(ML, IOT), null, null)))).containsExactly(1);
+        assertThat(ids(index.query(query(null, List.of(ML, WEB), null)))).containsExactly(1, 2, 3, 4);
+        assertThat(ids(index.query(query(null, List.of(IOT), List.of(ML))))).containsExactly(3);
+        assertThat(ids(index.query(query(List.of(WEB), List.of(ML, IOT), null)))).containsExactly(3);
+        assertThat(ids(index.query(query(null, null, List.of(WEB))))).containsExactly(1, 2);
+        assertThat(ids(index.query(query(List.of(99), null, null)))).isEmpty();
+        assertThat(ids(index.anyOf(List.of(ML, 99)))).containsExactly(1, 2);
+    }
+
+    @Test
+    void filtersByYearSemesterAndAdviser() {
+        TagQueryDTO query = query(null, List.of(IOT, WEB), null);
+        query.setYear(2024);
+        assertThat(ids(index.query(query))).containsExactly(3, 4);
+        query.setSemester("2nd");
+        assertThat(ids(index.query(query))).containsExactly(4);
+        query.setAdviserId(10);
+        assertThat(ids(index.query(query))).isEmpty();
+    }
+
+    @Test
+    void countsTagsWithinTheResult() {
+        RoaringBitmap result = index.query(query(null, List.of(IOT), null));
+
+        assertThat(index.tagCounts(result)).isEqualTo(Map.of(ML, 1, IOT, 2, WEB, 1));
+    }
+
+    @Test
+    void followsCreatedSPsAndDeletedTags() {
+        SPDTO sp = new SPDTO();
+        sp.setSpId(5);
+        sp.setYear(2024);
+        sp.setSemester("1st");
+        sp.setAdviserId(11);
+        sp.setTagIds(Set.of(ML, WEB));
+        index.onSPCreated(new SPCreatedEvent(sp));
+
+        assertThat(ids(index.query(query(List.of(ML, WEB), null, null)))).containsExactly(5);
+
+        index.onTagDeleted(new TagDeletedEvent(ML));
+        assertThat(ids(index.anyOf(List.of(ML)))).isEmpty();
+        assertThat(ids(index.query(query(null, null, List.of(ML))))).containsExactly(1, 2, 3, 4, 5);
+    }
+
+    private static TagQueryDTO query(List<Integer> all, List<Integer> any, List<Integer> none) {
+        TagQueryDTO query = new TagQueryDTO();
+        query.setAll(all);
+        query.setAny(any);
+        query.setNone(none);
+        return query;
+    }
+
+    private static SPRow row(int spId, int year, String semester, int adviserId) {
+        return new SPRow(spId, "SP " + spId, year, semester, null, null, null, null, 1, spId, adviserId, 0);
+    }
+
+    private static List<Integer> ids(RoaringBitmap bitmap) {
+        return bitmap.stream().boxed().toList();
+    }
+}
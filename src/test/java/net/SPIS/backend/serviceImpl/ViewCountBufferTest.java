@@ -0,0 +1,140 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ViewCountBufferTest {
+
+    private JdbcTemplate jdbcTemplate;
+    private ViewLeaderboard viewLeaderboard;
+    private ViewCountBuffer buffer;
+    // Batches written by each flush: spId -> delta
+    private final List<Map<Integer, Long>> flushes = new ArrayList<>();
+    private boolean databaseDown;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            if (databaseDown) {
+                throw new DataAccessResourceFailureException("down");
+            }
+            Map<Integer, Long> written = new ConcurrentHashMap<>();
+            for (Object[] row : invocation.<List<Object[]>>getArgument(1)) {
+                written.merge((Integer) row[1], (Long) row[0], Long::sum);
+            }
+            flushes.add(written);
+            return new int[0];
+        }).when(jdbcTemplate).batchUpdate(anyString(), anyList());
+        viewLeaderboard = mock(ViewLeaderboard.class);
+        when(viewLeaderboard.mayExist(anyInt())).thenReturn(true);
+        buffer = new ViewCountBuffer(jdbcTemplate, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                viewLeaderboard);
+    }
+
+    @Test
+    void flushWritesTheGrowthSinceTheLastFlush() {
+        buffer.increment(1);
+        buffer.increment(1);
+        buffer.increment(2);
+        assertThat(buffer.pending(1)).isEqualTo(2);
+
+        buffer.flush();
+        buffer.increment(1);
+        buffer.flush();
+        buffer.flush(); // nothing pending
+
+        assertThat(flushes).containsExactly(Map.of(1, 2L, 2, 1L), Map.of(1, 1L));
+        assertThat(buffer.pending(1)).isZero();
+        assertThat(buffer.generation()).isEqualTo(2);
+    }
+
+    @Test
+    void failedFlushIsRetried() {
+        buffer.increment(1);
+        databaseDown = true;
+        assertThatThrownBy(buffer::flush).isInstanceOf(DataAccessResourceFailureException.class);
+        assertThat(buffer.pending(1)).isEqualTo(1);
+        assertThat(buffer.generation()).isZero();
+
+        databaseDown = false;
+        buffer.increment(1);
+        buffer.flush();
+        assertThat(flushes).containsExactly(Map.of(1, 2L));
+    }
+
+    @Test
+    void viewsBeforeStartupAreKeptAndUnknownIdsDropped() {
+        buffer.increment(1);
+        buffer.increment(404); // the leaderboard is not loaded yet
+
+        when(viewLeaderboard.mayExist(404)).thenReturn(false);
+        buffer.flush();
+        buffer.increment(404);
+        buffer.flush();
+
+        assertThat(flushes).containsExactly(Map.of(1, 1L, 404, 1L));
+        assertThat(counters()).containsOnlyKeys(1);
+    }
+
+    @Test
+    void concurrentViewsAreNeitherLostNorCountedTwice() throws InterruptedException {
+        int threads = 8;
+        int views = 20_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < views; i++) {
+                    buffer.increment(i % 3); // a few hot SPs
+                }
+                done.countDown();
+            });
+        }
+        while (!done.await(1, TimeUnit.MILLISECONDS)) {
+            buffer.flush();
+        }
+        pool.shutdown();
+        buffer.flush();
+
+        long written = flushes.stream().flatMap(f -> f.values().stream()).mapToLong(Long::longValue).sum();
+        assertThat(written).isEqualTo((long) threads * views);
+    }
+
+    @Test
+    void shutdownFlushesPendingViews() {
+        buffer.increment(7);
+
+        buffer.flushOnShutdown();
+
+        assertThat(flushes).containsExactly(Map.of(7, 1L));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Map<Integer, Object> counters() {
+        return (Map<Integer, Object>) ReflectionTestUtils.getField(buffer, "counters");
+    }
+}
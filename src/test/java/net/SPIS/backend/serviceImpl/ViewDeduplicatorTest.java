@@ -0,0 +1,56 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ViewDeduplicatorTest {
+
+    private final ViewDeduplicator deduplicator = new ViewDeduplicator(true, 1000, 0.01);
+
+    @Test
+    void repeatViewsAreDroppedWithinTheWindow() {
+        assertThat(deduplicator.firstView("alice", 1)).isTrue();
+        assertThat(deduplicator.firstView("alice", 1)).isFalse();
+        assertThat(deduplicator.firstView("alice", 2)).isTrue();
+        assertThat(deduplicator.firstView("bob", 1)).isTrue();
+        assertThat(deduplicator.firstView(null, 1)).isTrue();
+        assertThat(deduplicator.firstView(null, 1)).isTrue();
+    }
+
+    @Test
+    void viewsAreRememberedForOneRotationAndForgottenAfterTwo() {
+        deduplicator.firstView("alice", 1);
+        deduplicator.firstView("bob", 1);
+
+        deduplicator.rotate();
+        assertThat(deduplicator.firstView("alice", 1)).isFalse(); // found in the previous generation
+
+        deduplicator.rotate();
+        // Alice's repeat was added to the newer generation, Bob's view is gone.
+        assertThat(deduplicator.firstView("alice", 1)).isFalse();
+        assertThat(deduplicator.firstView("bob", 1)).isTrue();
+    }
+
+    @Test
+    void rotationClearsTheRecycledGeneration() {
+        for (int spId = 0; spId < 500; spId++) {
+            deduplicator.firstView("alice", spId);
+        }
+        assertThat(deduplicator.estimatedFalsePositiveRate()).isGreaterThan(0);
+
+        deduplicator.rotate();
+        deduplicator.rotate();
+
+        assertThat(deduplicator.estimatedFalsePositiveRate()).isZero();
+        assertThat(deduplicator.firstView("alice", 0)).isTrue();
+    }
+
+    @Test
+    void disabledDeduplicatorCountsEveryView() {
+        ViewDeduplicator disabled = new ViewDeduplicator(false, 1000, 0.01);
+
+        assertThat(disabled.firstView("alice", 1)).isTrue();
+        assertThat(disabled.firstView("alice", 1)).isTrue();
+    }
+}
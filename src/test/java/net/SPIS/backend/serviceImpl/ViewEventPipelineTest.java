@@ -0,0 +1,56 @@
+package net.SPIS.backend.serviceImpl;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ViewEventPipelineTest {
+
+    @Test
+    void viewsBeforeStartupWaitForTheRebuild() throws Exception {
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        // SP 1 by adviser 10; no rollups yet
+        ResultSet sp = mock(ResultSet.class);
+        when(sp.getInt(1)).thenReturn(1);
+        when(sp.getInt(2)).thenReturn(10);
+        doAnswer(invocation -> {
+            invocation.<RowCallbackHandler>getArgument(1).processRow(sp);
+            return null;
+        }).when(jdbcTemplate).query(eq("SELECT sp_id, adviser_id FROM sp"), any(RowCallbackHandler.class));
+        when(jdbcTemplate.batchUpdate(anyString(), anyList())).thenAnswer(
+                invocation -> new int[invocation.<List<?>>getArgument(1).size()]);
+        ViewEventPipeline pipeline = new ViewEventPipeline(jdbcTemplate,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 16, Duration.ofDays(7),
+                Duration.ofDays(365), Duration.ofHours(6), Duration.ofDays(2));
+
+        pipeline.publish(1);
+        pipeline.drain(); // before ApplicationReadyEvent: left in the queue
+        assertThat(pipeline.trendingSPs(ViewEventPipeline.DAY_WINDOW, 5)).isEmpty();
+
+        pipeline.rebuild();
+        pipeline.drain();
+        pipeline.flush();
+
+        assertThat(pipeline.trendingSPs(ViewEventPipeline.DAY_WINDOW, 5)).containsExactly(1);
+        assertThat(pipeline.trendingAdvisers(ViewEventPipeline.WEEK_WINDOW, 5)).containsExactly(10);
+        // Hourly and daily rollups, updated and then inserted
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList());
+    }
+}
@@ -0,0 +1,138 @@
+package net.SPIS.backend.serviceImpl;
+
+import net.SPIS.backend.DTO.SPDTO;
+import net.SPIS.backend.events.SPCreatedEvent;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ViewLeaderboardTest {
+
+    @Test
+    void ranksByViewsThenIdAndLeavesOutAdvisersWithoutViews() throws SQLException {
+        // sp, adviser, views
+        ViewLeaderboard leaderboard = loaded(10, new long[][] {
+                { 1, 100, 5 }, { 2, 100, 9 }, { 3, 200, 5 }, { 4, 300, 0 }, { 5, 200, 1 } });
+
+        assertThat(leaderboard.topSPs(10)).containsExactly(2, 1, 3, 5, 4);
+        assertThat(leaderboard.topSPs(2)).containsExactly(2, 1);
+        assertThat(leaderboard.topSPs(0)).isEmpty();
+        assertThat(leaderboard.topAdvisers(10)).containsExactly(100, 200);
+    }
+
+    @Test
+    void viewsMoveEntriesUpAndIntoTheBoundedList() throws SQLException {
+        ViewLeaderboard leaderboard = loaded(2, new long[][] { { 1, 100, 3 }, { 2, 100, 2 }, { 3, 200, 0 } });
+        assertThat(leaderboard.topSPs(10)).containsExactly(1, 2);
+        assertThat(leaderboard.topAdvisers(10)).containsExactly(100);
+
+        view(leaderboard, 3, 3); // ties with SP 1, which has the lower id
+        assertThat(leaderboard.topSPs(10)).containsExactly(1, 3);
+        assertThat(leaderboard.topAdvisers(10)).containsExactly(100, 200);
+
+        view(leaderboard, 3, 1);
+        view(leaderboard, 2, 3);
+        assertThat(leaderboard.topSPs(10)).containsExactly(2, 3);
+    }
+
+    @Test
+    void followsCreatedSPs() throws SQLException {
+        ViewLeaderboard leaderboard = new ViewLeaderboard(jdbcTemplate(new long[][] { { 1, 100, 1 } }), 10);
+        assertThat(leaderboard.mayExist(2)).isTrue(); // not loaded yet
+        leaderboard.rebuild();
+        assertThat(leaderboard.mayExist(2)).isFalse();
+
+        SPDTO sp = new SPDTO();
+        sp.setSpId(2);
+        sp.setAdviserId(200);
+        leaderboard.onSPCreated(new SPCreatedEvent(sp));
+
+        assertThat(leaderboard.mayExist(2)).isTrue();
+        assertThat(leaderboard.topSPs(10)).containsExactly(1, 2);
+        assertThat(leaderboard.topAdvisers(10)).containsExactly(100);
+        view(leaderboard, 2, 2);
+        assertThat(leaderboard.topSPs(10)).containsExactly(2, 1);
+        assertThat(leaderboard.topAdvisers(10)).containsExactly(200, 100);
+    }
+
+    @Test
+    void concurrentViewsLeaveTheExactTopList() throws SQLException, InterruptedException {
+        int spCount = 200;
+        long[][] rows = new long[spCount][];
+        for (int i = 0; i < spCount; i++) {
+            rows[i] = new long[] { i + 1, 100 + i % 7, 0 };
+        }
+        ViewLeaderboard leaderboard = loaded(10, rows);
+
+        // SP n gets n views, spread over threads in an interleaved order.
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                for (int round = 0; round < spCount; round++) {
+                    for (int spId = round + 1; spId <= spCount; spId++) {
+                        if ((spId + round) % 8 == thread) {
+                            leaderboard.recordView(spId);
+                        }
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(30, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(leaderboard.topSPs(10)).containsExactlyElementsOf(
+                IntStream.rangeClosed(1, spCount).boxed().sorted(Comparator.reverseOrder()).limit(10).toList());
+        assertThat(leaderboard.topAdvisers(3)).hasSize(3);
+    }
+
+    private static void view(ViewLeaderboard leaderboard, int spId, int times) {
+        for (int i = 0; i < times; i++) {
+            leaderboard.recordView(spId);
+        }
+    }
+
+    private static ViewLeaderboard loaded(int size, long[][] rows) throws SQLException {
+        ViewLeaderboard leaderboard = new ViewLeaderboard(jdbcTemplate(rows), size);
+        leaderboard.rebuild();
+        return leaderboard;
+    }
+
+    // Serves (sp_id, adviser_id, view_count) rows to the rebuild query.
+    private static JdbcTemplate jdbcTemplate(long[][] rows) throws SQLException {
+        List<ResultSet> resultSets = new ArrayList<>();
+        for (long[] row : rows) {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getInt(1)).thenReturn((int) row[0]);
+            when(rs.getInt(2)).thenReturn((int) row[1]);
+            when(rs.getLong(3)).thenReturn(row[2]);
+            resultSets.add(rs);
+        }
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            for (ResultSet rs : resultSets) {
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(anyString(), any(RowCallbackHandler.class));
+        return jdbcTemplate;
+    }
+}